@@ -0,0 +1,136 @@
+package com.orbyta.banking.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.FabrickOperation;
+import com.orbyta.banking.service.resilience.AdaptiveConcurrencyLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica che il limite adattivo di concorrenza mantenga la latenza vista
+ * dall'upstream vicina a quella a vuoto, anche quando l'upstream rallenta.
+ *
+ * L'upstream è simulato in memoria: serve al più {@code capacity} chiamate
+ * insieme e accoda le altre, così oltre la sua capacità la latenza cresce
+ * con il carico come su un server reale. Dopo la prima fase il tempo di
+ * servizio passa da {@code latency} a {@code slowLatency}. I client sono
+ * {@code clients} virtual thread che inviano una chiamata dopo l'altra con
+ * una pausa di {@code think} tra l'una e l'altra; lo stesso carico viene
+ * eseguito senza limite e con il limite adattivo.
+ *
+ * Argomenti: {@code clients=200 capacity=20 latency=20ms slowLatency=80ms phase=10s think=5ms maxQueueWait=50ms}
+ */
+public final class AdaptiveLimitBenchmark {
+
+    private AdaptiveLimitBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int clients = arguments.getInt("clients", 200);
+        int capacity = arguments.getInt("capacity", 20);
+        Duration latency = arguments.getDuration("latency", Duration.ofMillis(20));
+        Duration slowLatency = arguments.getDuration("slowLatency", Duration.ofMillis(80));
+        Duration phase = arguments.getDuration("phase", Duration.ofSeconds(10));
+        Duration think = arguments.getDuration("think", Duration.ofMillis(5));
+        Duration maxQueueWait = arguments.getDuration("maxQueueWait", Duration.ofMillis(50));
+        Duration baselineWindow = arguments.getDuration("baselineWindow", Duration.ofSeconds(10));
+        double tolerance = arguments.getDouble("tolerance", 1.5);
+
+        System.out.printf("Upstream capacity %d, service time %d ms then %d ms, %d clients, think %d ms%n",
+                capacity, latency.toMillis(), slowLatency.toMillis(), clients, think.toMillis());
+
+        for (boolean adaptive : new boolean[] { false, true }) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(adaptive, 20, 4, 200, tolerance,
+                    clients, maxQueueWait, baselineWindow, new SimpleMeterRegistry());
+            SimulatedUpstream upstream = new SimulatedUpstream(capacity, latency);
+
+            System.out.printf("%n== %s ==%n", adaptive ? "adaptive limit" : "no limit");
+            runPhase("normal", limiter, upstream, clients, phase, think);
+            upstream.serviceTime = slowLatency;
+            runPhase("slow", limiter, upstream, clients, phase, think);
+            upstream.serviceTime = latency;
+            runPhase("recovered", limiter, upstream, clients, phase, think);
+        }
+    }
+
+    private static void runPhase(String name, AdaptiveConcurrencyLimiter limiter, SimulatedUpstream upstream,
+            int clients, Duration phase, Duration think) throws InterruptedException {
+        LatencyStats upstreamStats = new LatencyStats(1 << 20);
+        LatencyStats clientStats = new LatencyStats(1 << 20);
+        long deadline = System.nanoTime() + phase.toNanos();
+        List<Integer> limits = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            limiter.execute(FabrickOperation.GET_BALANCE, () -> {
+                                upstreamStats.record(upstream.call());
+                                return null;
+                            });
+                            clientStats.record(System.nanoTime() - start);
+                        } catch (UpstreamUnavailableException e) {
+                            clientStats.recordError();
+                        }
+                        sleep(think);
+                    }
+                });
+            }
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(500);
+                limits.add(limiter.getLimit(FabrickOperation.GET_BALANCE));
+            }
+        }
+
+        double seconds = phase.toNanos() / 1e9;
+        System.out.printf("%-9s | %7.0f ok/s | %6.0f rejected/s | upstream p50 %6.1f ms p99 %6.1f ms"
+                + " | client p99 %6.1f ms | limit %s%n",
+                name, upstreamStats.count() / seconds, clientStats.errors() / seconds,
+                upstreamStats.percentileMillis(0.50), upstreamStats.percentileMillis(0.99),
+                clientStats.percentileMillis(0.99), limits.isEmpty() ? "-" : limits.get(limits.size() - 1));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Upstream con un numero limitato di chiamate servite insieme: le altre
+     * attendono in coda, e il tempo di risposta restituito include l'attesa.
+     */
+    private static final class SimulatedUpstream {
+
+        private final Semaphore workers;
+        private volatile Duration serviceTime;
+
+        SimulatedUpstream(int capacity, Duration serviceTime) {
+            this.workers = new Semaphore(capacity, true);
+            this.serviceTime = serviceTime;
+        }
+
+        long call() {
+            long start = System.nanoTime();
+            workers.acquireUninterruptibly();
+            try {
+                sleep(serviceTime);
+            } finally {
+                workers.release();
+            }
+            return System.nanoTime() - start;
+        }
+    }
+}
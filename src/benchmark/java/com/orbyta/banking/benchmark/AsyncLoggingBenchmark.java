@@ -0,0 +1,138 @@
+package com.orbyta.banking.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.orbyta.banking.BankingServiceApplication;
+import com.orbyta.banking.benchmark.stub.FabrickStubServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Confronta la latenza di coda dell'endpoint del saldo con la scrittura dei
+ * log sincrona e con la pipeline asincrona a buffer circolare. I log
+ * dell'applicazione sono a livello DEBUG con il {@code LoggingAspect} attivo,
+ * così ogni richiesta produce diverse righe su console e file; la cache dei
+ * saldi è disattivata e ogni richiesta arriva allo stub.
+ *
+ * L'output della console dell'applicazione viene rediretto su
+ * {@code target/async-logging-console.log} per non mescolarlo al report.
+ *
+ * Argomenti: {@code requests=20000 concurrency=64 latency=2ms policy=drop capacity=8192}
+ */
+public final class AsyncLoggingBenchmark {
+
+    private AsyncLoggingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int requests = arguments.getInt("requests", 20_000);
+        int concurrency = arguments.getInt("concurrency", 64);
+        Duration latency = arguments.getDuration("latency", Duration.ofMillis(2));
+        String policy = arguments.get("policy", "drop");
+        int capacity = arguments.getInt("capacity", 8192);
+
+        PrintStream report = System.out;
+        Path console = Path.of("target", "async-logging-console.log");
+        Files.createDirectories(console.getParent());
+
+        try (FabrickStubServer stub = FabrickStubServer.start(latency);
+                ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                PrintStream consoleOut = new PrintStream(
+                        new BufferedOutputStream(new FileOutputStream(console.toFile())), false)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            report.printf("Upstream stub latency: %d ms, %d requests, concurrency %d%n", latency.toMillis(),
+                    requests, concurrency);
+            System.setOut(consoleOut);
+            try {
+                for (boolean async : new boolean[] { false, true }) {
+                    try (ConfigurableApplicationContext context = startApplication(stub.getBaseUrl(), async, policy,
+                            capacity)) {
+                        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                        URI uri = URI.create("http://127.0.0.1:" + port + "/api/accounts/14537780/balance");
+
+                        run(client, uri, requests / 10, concurrency);
+                        long start = System.nanoTime();
+                        LatencyStats stats = run(client, uri, requests, concurrency);
+                        double seconds = (System.nanoTime() - start) / 1e9;
+
+                        MeterRegistry registry = context.getBean(MeterRegistry.class);
+                        Double dropped = registry.find("logback.async.dropped").functionCounters().stream()
+                                .map(counter -> counter.count()).reduce(Double::sum).orElse(0.0);
+                        report.printf("%-6s throughput=%8.1f req/s  errors=%d  dropped=%.0f  %s%n",
+                                async ? "async" : "sync", stats.count() / seconds, stats.errors(), dropped,
+                                stats.summary());
+                    }
+                }
+            } finally {
+                System.setOut(report);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String upstreamUrl, boolean async, String policy,
+            int capacity) {
+        return new SpringApplicationBuilder(BankingServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--api.banking.url=" + upstreamUrl,
+                        "--spring.threads.virtual.enabled=true",
+                        "--logging.level.com.orbyta=DEBUG",
+                        "--logging.async.enabled=" + async,
+                        "--logging.async.full-policy=" + policy,
+                        "--logging.async.capacity=" + capacity,
+                        "--api.banking.cache.balance.enabled=false",
+                        "--api.banking.http-client.response-timeout=60s",
+                        "--api.banking.http-client.read-timeout=60s");
+    }
+
+    /**
+     * Esegue {@code total} richieste mantenendone al più {@code concurrency} in
+     * volo.
+     */
+    private static LatencyStats run(HttpClient client, URI uri, int total, int concurrency)
+            throws InterruptedException {
+        LatencyStats stats = new LatencyStats(total);
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).GET().build();
+        Semaphore permits = new Semaphore(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[total];
+
+        for (int i = 0; i < total; i++) {
+            permits.acquire();
+            long requestStart = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        permits.release();
+                        if (failure != null || response.statusCode() != 200) {
+                            stats.recordError();
+                        } else {
+                            stats.record(System.nanoTime() - requestStart);
+                        }
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(failure -> null).join();
+        return stats;
+    }
+}
@@ -0,0 +1,65 @@
+package com.orbyta.banking.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Parsing minimale degli argomenti dei benchmark nella forma {@code chiave=valore}.
+ */
+public final class BenchmarkArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public BenchmarkArgs(String[] args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                values.put(arg.substring(0, separator).replaceFirst("^--", ""), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public Duration getDuration(String name, Duration defaultValue) {
+        String value = values.get(name);
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+
+    /**
+     * Argomenti che iniziano con {@code prefix}, senza il prefisso.
+     */
+    public Map<String, String> withPrefix(String prefix) {
+        Map<String, String> matching = new TreeMap<>();
+        values.forEach((name, value) -> {
+            if (name.startsWith(prefix)) {
+                matching.put(name.substring(prefix.length()), value);
+            }
+        });
+        return matching;
+    }
+
+    public int[] getInts(String name, String defaultValue) {
+        return Arrays.stream(get(name, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.orbyta.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+/**
+ * Confronta JSON, CBOR e Smile sulla risposta delle transazioni
+ * ({@code ApiResponse<TransactionsPayload>}): dimensione del corpo e tempo di
+ * codifica e decodifica per risposta, il migliore su più giri dopo il
+ * riscaldamento. Verifica anche che la decodifica restituisca la risposta
+ * originale.
+ *
+ * Argomenti: {@code transactions=10000 iterations=50 warmup=50}
+ */
+public final class BinaryFormatsBenchmark {
+
+    private static final String[] TYPES = { "GBS_TRANSACTION_TYPE_0023", "GBS_TRANSACTION_TYPE_0050",
+            "GBS_TRANSACTION_TYPE_0010", "GBS_TRANSACTION_TYPE_0034" };
+
+    private BinaryFormatsBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int transactions = arguments.getInt("transactions", 10_000);
+        int iterations = arguments.getInt("iterations", 50);
+        int warmup = arguments.getInt("warmup", 50);
+
+        ApiResponse<TransactionsPayload> response = response(transactions);
+        TypeReference<ApiResponse<TransactionsPayload>> type = new TypeReference<>() {
+        };
+
+        System.out.printf("%d transactions%n", transactions);
+        long jsonSize = 0;
+        for (ObjectMapper mapper : new ObjectMapper[] { new JsonMapper(), new CBORMapper(), new SmileMapper() }) {
+            ObjectWriter writer = mapper.writerFor(type);
+            ObjectReader reader = mapper.readerFor(type);
+            byte[] bytes = writer.writeValueAsBytes(response);
+            boolean identical = response.equals(reader.readValue(bytes));
+            if (jsonSize == 0) {
+                jsonSize = bytes.length;
+            }
+
+            for (int i = 0; i < warmup; i++) {
+                reader.readValue(writer.writeValueAsBytes(response));
+            }
+            long encodeNanos = Long.MAX_VALUE;
+            long decodeNanos = Long.MAX_VALUE;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                writer.writeValueAsBytes(response);
+                encodeNanos = Math.min(encodeNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                reader.readValue(bytes);
+                decodeNanos = Math.min(decodeNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("%-6s %,12d bytes (%3.0f%% of JSON)  encode %7.2f ms  decode %7.2f ms  identical=%s%n",
+                    mapper.getFactory().getFormatName(), bytes.length, 100.0 * bytes.length / jsonSize,
+                    encodeNanos / 1_000_000.0, decodeNanos / 1_000_000.0, identical);
+        }
+    }
+
+    private static ApiResponse<TransactionsPayload> response(int transactions) {
+        Random random = new Random(42);
+        List<Transaction> list = new ArrayList<>(transactions);
+        LocalDate day = LocalDate.of(2024, 2, 29);
+        for (int i = 0; i < transactions; i++) {
+            LocalDate date = day.minusDays(i / 10);
+            list.add(new Transaction(String.valueOf(1_331_714_087L + i), String.format("%014d", 273_015 + i),
+                    date.toString(), date.toString(),
+                    new TransactionType("GBS_TRANSACTION_TYPE", TYPES[random.nextInt(TYPES.length)]),
+                    BigDecimal.valueOf(random.nextInt(200_000) - 150_000, 2), "EUR",
+                    "PD VISA CORPORATE " + random.nextInt(50)));
+        }
+        return new ApiResponse<>(ApiConstants.STATUS_OK, new TransactionsPayload(list), null);
+    }
+}
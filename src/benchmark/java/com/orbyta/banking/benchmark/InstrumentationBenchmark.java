@@ -0,0 +1,189 @@
+package com.orbyta.banking.benchmark;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.aspect.LoggingAspect;
+import com.orbyta.banking.aspect.TimingInterceptor;
+import com.orbyta.banking.benchmark.stub.FabrickStubServer;
+import com.orbyta.banking.config.InstrumentationConfig;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.controller.AccountController;
+import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.cache.BalanceCache;
+import com.orbyta.banking.service.cache.TransactionRangeCache;
+import com.orbyta.banking.service.coalescing.RequestCoalescer;
+import com.orbyta.banking.service.hedging.RequestHedger;
+import com.orbyta.banking.service.idempotency.IdempotencyStore;
+import com.orbyta.banking.service.metrics.UpstreamMetrics;
+import com.orbyta.banking.service.resilience.AdaptiveConcurrencyLimiter;
+import com.orbyta.banking.service.resilience.UpstreamGuard;
+import com.orbyta.banking.service.sharding.TransactionRangeSharder;
+import com.orbyta.banking.service.store.TransactionStore;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Confronta il costo per chiamata della strumentazione dei metodi: nessuna,
+ * LoggingAspect (modalità LOGGING) e TimingInterceptor (modalità TIMING).
+ *
+ * Controller e servizio sono quelli reali, con le cache già popolate da uno
+ * stub locale: ogni iterazione legge un saldo e un anno di transazioni dalla
+ * cache, come sui percorsi caldi. I log a livello DEBUG vengono formattati e
+ * scritti su uno stream nullo, così si misura il costo della strumentazione e
+ * non quello del disco. L'allocazione per operazione è letta da
+ * {@code com.sun.management.ThreadMXBean}.
+ *
+ * Argomenti: {@code iterations=200000 warmup=50000 modes=none,logging,timing}
+ */
+public final class InstrumentationBenchmark {
+
+    private static final String ACCOUNT_ID = "14537780";
+    private static final String FROM = "2023-01-01";
+    private static final String TO = "2023-12-31";
+
+    private InstrumentationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int iterations = arguments.getInt("iterations", 200_000);
+        int warmup = arguments.getInt("warmup", 50_000);
+        String[] modes = arguments.get("modes", "none,logging,timing").split(",");
+
+        configureLogging();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+
+        try (FabrickStubServer stub = FabrickStubServer.start(Duration.ZERO);
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String mode : modes) {
+                AccountController controller = createController(mode.trim(), stub.getBaseUrl(), executor);
+
+                for (int i = 0; i < warmup; i++) {
+                    call(controller);
+                }
+
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    call(controller);
+                }
+                long elapsed = System.nanoTime() - start;
+                long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+                System.out.printf("%-8s %10.0f ns/op  %12.0f bytes/op%n", mode.trim(),
+                        (double) elapsed / iterations, (double) allocated / iterations);
+            }
+        }
+    }
+
+    private static void call(AccountController controller) {
+        controller.getAccountBalance(ACCOUNT_ID);
+        controller.getAccountTransactions(ACCOUNT_ID, FROM, TO);
+    }
+
+    private static AccountController createController(String mode, String upstreamUrl, ExecutorService executor) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FabrickService service = new FabrickService(
+                new RestTemplate(),
+                upstreamUrl,
+                "benchmark-key",
+                new BalanceCache(true, Duration.ofHours(1), 100, meterRegistry),
+                new TransactionRangeCache(true, 100, Duration.ofHours(1),
+                        Clock.system(ZoneId.of(ApiConstants.TIMEZONE_EUROPE_ROME)), meterRegistry),
+                new TransactionStore(false, null, Clock.systemUTC(), new ObjectMapper(), meterRegistry),
+                new RequestCoalescer(true, meterRegistry),
+                new TransactionRangeSharder(false, Period.ofMonths(1), 1, 1, Duration.ZERO, executor, meterRegistry),
+                new UpstreamMetrics(meterRegistry),
+                new UpstreamGuard(false, CircuitBreakerConfig.ofDefaults(), BulkheadConfig.ofDefaults(),
+                        new AdaptiveConcurrencyLimiter(false, 20, 1, 200, 1.5, 0, Duration.ZERO, Duration.ofSeconds(10),
+                                meterRegistry),
+                        meterRegistry),
+                new RequestHedger(false, 0.95, Duration.ZERO, 0, 1, 1, Executors.newVirtualThreadPerTaskExecutor(),
+                        meterRegistry),
+                new IdempotencyStore(false, Duration.ofHours(24), 100, null, Clock.systemUTC(), new ObjectMapper(),
+                        meterRegistry),
+                new ObjectMapper());
+
+        return switch (mode) {
+            case "none" -> new AccountController(service);
+            case "logging" -> {
+                LoggingAspect aspect = new LoggingAspect();
+                FabrickService proxiedService = aspectProxy(service, aspect);
+                yield aspectProxy(new AccountController(proxiedService), aspect);
+            }
+            case "timing" -> {
+                FabrickService proxiedService = timingProxy(service, InstrumentationConfig.SERVICE_POINTCUT,
+                        "SERVICE", meterRegistry);
+                yield timingProxy(new AccountController(proxiedService), InstrumentationConfig.CONTROLLER_POINTCUT,
+                        "CONTROLLER", meterRegistry);
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+    }
+
+    private static <T> T aspectProxy(T target, LoggingAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T timingProxy(T target, String expression, String layer, SimpleMeterRegistry meterRegistry) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(pointcut,
+                new TimingInterceptor(layer, Duration.ofMillis(500), 1000, () -> meterRegistry)));
+        return (T) factory.getProxy();
+    }
+
+    /**
+     * Log dell'applicazione a livello DEBUG, formattati con il pattern dei file
+     * di log e scartati.
+     */
+    private static void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.getLogger("com.orbyta").setLevel(Level.DEBUG);
+    }
+}
@@ -0,0 +1,54 @@
+package com.orbyta.banking.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Raccolta di latenze (in nanosecondi) con calcolo dei percentili per i report
+ * dei benchmark.
+ */
+public final class LatencyStats {
+
+    private final long[] samples;
+    private int size;
+    private long errors;
+
+    public LatencyStats(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        if (size < samples.length) {
+            samples[size++] = nanos;
+        }
+    }
+
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    public synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * Percentile in millisecondi, con {@code quantile} tra 0 e 1.
+     */
+    public synchronized double percentileMillis(double quantile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(quantile * size) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("p50=%8.1f ms  p99=%8.1f ms  p999=%8.1f ms  max=%8.1f ms",
+                percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999), percentileMillis(1.0));
+    }
+}
@@ -0,0 +1,238 @@
+package com.orbyta.banking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.orbyta.banking.BankingServiceApplication;
+import com.orbyta.banking.benchmark.stub.FabrickStubServer;
+import com.orbyta.banking.benchmark.stub.LatencyDistribution;
+import com.orbyta.banking.benchmark.stub.StubSettings;
+
+/**
+ * Test di carico end-to-end per la pianificazione della capacità: avvia lo
+ * stub Fabrick e l'applicazione, poi invia richieste agli endpoint di
+ * {@code AccountController} a un ritmo costante per ogni livello di
+ * {@code rates}, riportando throughput, errori e p50/p99/p999 complessivi e
+ * per endpoint.
+ *
+ * Il carico è ad anello aperto: ogni richiesta parte all'istante previsto
+ * indipendentemente dalle risposte precedenti e la latenza è misurata da
+ * quell'istante, così un rallentamento dell'applicazione non riduce il carico
+ * e si riflette nei percentili.
+ *
+ * Argomenti:
+ * {@code rates=100,200,400 duration=30s warmup=5s mix=balance:60,transactions:25,accounts:10,transfer:5
+ * accountIds=100 days=30}; per lo stub
+ * {@code latency=lognormal:20ms..200ms perDay=0ms errorRate=0 errorStatus=500 transactionsPerDay=2 accounts=5};
+ * le proprietà dell'applicazione si passano con il prefisso {@code app.}, ad
+ * esempio {@code app.spring.threads.virtual.enabled=true}.
+ */
+public final class LoadTestHarness {
+
+    private static final String MONEY_TRANSFER_BODY = "{\"creditor\":{\"name\":\"John Doe\",\"account\":"
+            + "{\"accountCode\":\"IT23A0336844430152923804660\"}},\"executionDate\":\"2024-03-01\","
+            + "\"description\":\"Payment invoice 75/2017\",\"amount\":800,\"currency\":\"EUR\",\"feeType\":\"SHA\"}";
+
+    private enum Endpoint {
+        ACCOUNTS,
+        BALANCE,
+        TRANSACTIONS,
+        TRANSFER
+    }
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int[] rates = arguments.getInts("rates", "100,200,400");
+        Duration duration = arguments.getDuration("duration", Duration.ofSeconds(30));
+        Duration warmup = arguments.getDuration("warmup", Duration.ofSeconds(5));
+        Map<Endpoint, Integer> mix = parseMix(
+                arguments.get("mix", "balance:60,transactions:25,accounts:10,transfer:5"));
+        int accountIds = arguments.getInt("accountIds", 100);
+        int days = arguments.getInt("days", 30);
+
+        StubSettings stubSettings = StubSettings.defaults()
+                .withLatency(LatencyDistribution.parse(arguments.get("latency", "lognormal:20ms..200ms")))
+                .withPerDayLatency(arguments.getDuration("perDay", Duration.ZERO))
+                .withErrors(arguments.getDouble("errorRate", 0), arguments.getInt("errorStatus", 500))
+                .withPayloadSize(arguments.getInt("transactionsPerDay", 2), arguments.getInt("accounts", 5));
+
+        try (FabrickStubServer stub = FabrickStubServer.start(stubSettings);
+                ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                ConfigurableApplicationContext context = startApplication(stub.getBaseUrl(),
+                        arguments.withPrefix("app."))) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            RequestFactory requests = new RequestFactory("http://127.0.0.1:" + port, mix, accountIds, days);
+
+            System.out.printf("Stub: latency=%s errorRate=%.3f transactionsPerDay=%d; mix=%s; %d account ids%n",
+                    arguments.get("latency", "lognormal:20ms..200ms"), stubSettings.errorRate(),
+                    stubSettings.transactionsPerDay(), mix, accountIds);
+            for (int rate : rates) {
+                run(client, requests, rate, warmup);
+                Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+                LatencyStats total = new LatencyStats((int) (rate * duration.toSeconds()));
+                for (Endpoint endpoint : mix.keySet()) {
+                    stats.put(endpoint, new LatencyStats((int) (rate * duration.toSeconds())));
+                }
+
+                long start = System.nanoTime();
+                run(client, requests, rate, duration, total, stats);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("rate=%6d req/s  throughput=%8.1f req/s  errors=%d  %s%n", rate,
+                        total.count() / seconds, total.errors(), total.summary());
+                stats.forEach((endpoint, endpointStats) -> System.out.printf("    %-13s n=%7d  errors=%d  %s%n",
+                        endpoint.name().toLowerCase(), endpointStats.count(), endpointStats.errors(),
+                        endpointStats.summary()));
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String upstreamUrl,
+            Map<String, String> properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--api.banking.url=" + upstreamUrl,
+                "--logging.level.root=WARN",
+                "--logging.level.com.orbyta=WARN",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000"));
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(BankingServiceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void run(HttpClient client, RequestFactory requests, int rate, Duration warmup) {
+        int count = (int) (rate * warmup.toSeconds());
+        run(client, requests, rate, warmup, new LatencyStats(count), new EnumMap<>(Endpoint.class));
+    }
+
+    /**
+     * Invia {@code rate * duration} richieste a intervalli regolari e attende
+     * tutte le risposte.
+     */
+    private static void run(HttpClient client, RequestFactory requests, int rate, Duration duration,
+            LatencyStats total, Map<Endpoint, LatencyStats> stats) {
+        long count = rate * duration.toSeconds();
+        long intervalNanos = 1_000_000_000L / rate;
+        List<CompletableFuture<?>> futures = new ArrayList<>((int) count);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long scheduled = start + i * intervalNanos;
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Endpoint endpoint = requests.nextEndpoint();
+            LatencyStats endpointStats = stats.get(endpoint);
+            futures.add(client.sendAsync(requests.create(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long elapsed = System.nanoTime() - scheduled;
+                        boolean ok = failure == null && response.statusCode() == 200;
+                        for (LatencyStats target : new LatencyStats[] { total, endpointStats }) {
+                            if (target == null) {
+                                continue;
+                            }
+                            if (ok) {
+                                target.record(elapsed);
+                            } else {
+                                target.recordError();
+                            }
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty request mix: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Sceglie l'endpoint secondo i pesi del mix e costruisce la richiesta su un
+     * account casuale tra {@code accountIds}.
+     */
+    private static final class RequestFactory {
+
+        private final String baseUrl;
+        private final Endpoint[] endpoints;
+        private final int[] cumulativeWeights;
+        private final int accountIds;
+        private final LocalDate to = LocalDate.of(2024, 2, 29);
+        private final LocalDate from;
+
+        private RequestFactory(String baseUrl, Map<Endpoint, Integer> mix, int accountIds, int days) {
+            this.baseUrl = baseUrl + "/api/accounts";
+            this.endpoints = mix.keySet().toArray(Endpoint[]::new);
+            this.cumulativeWeights = new int[endpoints.length];
+            int sum = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                sum += mix.get(endpoints[i]);
+                cumulativeWeights[i] = sum;
+            }
+            this.accountIds = Math.max(1, accountIds);
+            this.from = to.minusDays(Math.max(1, days) - 1L);
+        }
+
+        private Endpoint nextEndpoint() {
+            int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (draw < cumulativeWeights[i]) {
+                    return endpoints[i];
+                }
+            }
+            return endpoints[endpoints.length - 1];
+        }
+
+        private HttpRequest create(Endpoint endpoint) {
+            String accountId = String.valueOf(14537780 + ThreadLocalRandom.current().nextInt(accountIds));
+            HttpRequest.Builder builder = switch (endpoint) {
+                case ACCOUNTS -> HttpRequest.newBuilder(URI.create(baseUrl)).GET();
+                case BALANCE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + accountId + "/balance")).GET();
+                case TRANSACTIONS -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + accountId
+                        + "/transactions?fromAccountingDate=" + from + "&toAccountingDate=" + to)).GET();
+                case TRANSFER -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + accountId
+                        + "/payments/money-transfers"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(MONEY_TRANSFER_BODY));
+            };
+            return builder.timeout(Duration.ofSeconds(60)).build();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.orbyta.banking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.orbyta.banking.BankingServiceApplication;
+import com.orbyta.banking.benchmark.stub.FabrickStubServer;
+
+/**
+ * Confronta la latenza delle richieste di transazioni su intervalli ampi con e
+ * senza la suddivisione in blocchi paralleli. Lo stub risponde con una latenza
+ * fissa più una quota per ogni giorno richiesto, come un upstream che pagina
+ * internamente. La cache delle transazioni è disattivata, così ogni richiesta
+ * arriva all'upstream; i corpi delle risposte vengono confrontati tra le due
+ * modalità.
+ *
+ * Argomenti: {@code latency=150ms perDay=5ms months=12 requests=20 chunk=1m concurrency=4}
+ */
+public final class ShardingBenchmark {
+
+    private ShardingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        Duration latency = arguments.getDuration("latency", Duration.ofMillis(150));
+        Duration perDay = arguments.getDuration("perDay", Duration.ofMillis(5));
+        int months = arguments.getInt("months", 12);
+        int requests = arguments.getInt("requests", 20);
+        String chunk = arguments.get("chunk", "1m");
+        int concurrency = arguments.getInt("concurrency", 4);
+
+        LocalDate to = LocalDate.of(2024, 2, 29);
+        LocalDate from = to.minusMonths(months).plusDays(1);
+
+        try (FabrickStubServer stub = FabrickStubServer.start(latency, perDay)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            System.out.printf("Upstream stub latency: %d ms + %d ms/day, range %s..%s%n",
+                    latency.toMillis(), perDay.toMillis(), from, to);
+            String reference = null;
+            for (boolean sharding : new boolean[] { false, true }) {
+                try (ConfigurableApplicationContext context = startApplication(stub.getBaseUrl(), sharding, chunk,
+                        concurrency)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    URI uri = URI.create("http://127.0.0.1:" + port + "/api/accounts/14537780/transactions"
+                            + "?fromAccountingDate=" + from + "&toAccountingDate=" + to);
+                    HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).GET().build();
+
+                    String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+                    if (reference == null) {
+                        reference = body;
+                    }
+
+                    LatencyStats stats = new LatencyStats(requests);
+                    for (int i = 0; i < requests; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            stats.recordError();
+                        } else {
+                            stats.record(System.nanoTime() - start);
+                        }
+                    }
+                    System.out.printf("%-12s errors=%d  identical=%s  %s%n",
+                            sharding ? "sharded" : "single-call", stats.errors(), reference.equals(body),
+                            stats.summary());
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String upstreamUrl, boolean sharding,
+            String chunk, int concurrency) {
+        return new SpringApplicationBuilder(BankingServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--api.banking.url=" + upstreamUrl,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.orbyta=WARN",
+                        "--api.banking.cache.transactions.enabled=false",
+                        "--api.banking.transactions.sharding.enabled=" + sharding,
+                        "--api.banking.transactions.sharding.chunk=" + chunk,
+                        "--api.banking.transactions.sharding.max-concurrency=" + concurrency,
+                        "--api.banking.http-client.response-timeout=60s",
+                        "--api.banking.http-client.read-timeout=60s");
+    }
+}
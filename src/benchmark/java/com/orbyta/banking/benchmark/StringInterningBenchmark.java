@@ -0,0 +1,92 @@
+package com.orbyta.banking.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+/**
+ * Misura l'effetto della canonicalizzazione delle stringhe a bassa
+ * cardinalità ({@code InternedStringDeserializer}) sulla lettura di una
+ * risposta di transazioni: byte allocati e tempo per lettura, misurati con
+ * {@code com.sun.management.ThreadMXBean}, e heap trattenuto dal risultato,
+ * misurato con JOL. Il confronto è con un reader che ignora le annotazioni
+ * Jackson dei modelli, cioè la deserializzazione standard.
+ *
+ * Argomenti: {@code transactions=100000 iterations=20 warmup=10}
+ */
+public final class StringInterningBenchmark {
+
+    private static final String[] TYPES = { "GBS_TRANSACTION_TYPE_0023", "GBS_TRANSACTION_TYPE_0050",
+            "GBS_TRANSACTION_TYPE_0010", "GBS_TRANSACTION_TYPE_0034" };
+
+    private StringInterningBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int transactions = arguments.getInt("transactions", 100_000);
+        int iterations = arguments.getInt("iterations", 20);
+        int warmup = arguments.getInt("warmup", 10);
+
+        byte[] json = new ObjectMapper().writeValueAsBytes(response(transactions));
+        TypeReference<ApiResponse<TransactionsPayload>> type = new TypeReference<>() {
+        };
+        ObjectReader plain = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build().readerFor(type);
+        ObjectReader interned = new ObjectMapper().readerFor(type);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+
+        System.out.printf("%d transactions, %,d bytes of JSON%n", transactions, json.length);
+        for (String mode : new String[] { "plain", "interned" }) {
+            ObjectReader reader = mode.equals("plain") ? plain : interned;
+            for (int i = 0; i < warmup; i++) {
+                reader.readValue(json);
+            }
+
+            ApiResponse<TransactionsPayload> result = null;
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                result = reader.readValue(json);
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            long retained = GraphLayout.parseInstance(result).totalSize();
+
+            System.out.printf("%-9s %8.2f ms/read  %,14d bytes allocated/read  %,14d bytes retained%n", mode,
+                    elapsed / 1_000_000.0 / iterations, allocated / iterations, retained);
+        }
+    }
+
+    private static ApiResponse<TransactionsPayload> response(int transactions) {
+        Random random = new Random(42);
+        List<Transaction> list = new ArrayList<>(transactions);
+        LocalDate day = LocalDate.of(2024, 2, 29);
+        for (int i = 0; i < transactions; i++) {
+            LocalDate date = day.minusDays(i / 10);
+            list.add(new Transaction(String.valueOf(1_331_714_087L + i), String.format("%014d", 273_015 + i),
+                    date.toString(), date.toString(),
+                    new TransactionType("GBS_TRANSACTION_TYPE", TYPES[random.nextInt(TYPES.length)]),
+                    BigDecimal.valueOf(random.nextInt(200_000) - 150_000, 2), "EUR",
+                    "PD VISA CORPORATE " + random.nextInt(50)));
+        }
+        return new ApiResponse<>(ApiConstants.STATUS_OK, new TransactionsPayload(list), null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.orbyta.banking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.orbyta.banking.BankingServiceApplication;
+import com.orbyta.banking.benchmark.stub.FabrickStubServer;
+
+/**
+ * Confronta platform thread e virtual thread sull'endpoint del saldo, con
+ * l'upstream simulato da uno stub locale lento. Cache, accorpamento e
+ * resilienza sono disattivati e le richieste sono distribuite su
+ * {@code accountIds} account, così ogni richiesta arriva allo stub e il
+ * risultato misura solo il modello di thread.
+ *
+ * Argomenti: {@code levels=1000,2500,5000,10000 latency=200ms modes=platform,virtual accountIds=1000}
+ */
+public final class ThreadModelBenchmark {
+
+    private ThreadModelBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int[] levels = arguments.getInts("levels", "1000,2500,5000,10000");
+        Duration latency = arguments.getDuration("latency", Duration.ofMillis(200));
+        String[] modes = arguments.get("modes", "platform,virtual").split(",");
+        int accountIds = Math.max(1, arguments.getInt("accountIds", 1000));
+
+        try (FabrickStubServer stub = FabrickStubServer.start(latency);
+                ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            System.out.printf("Upstream stub latency: %d ms, %d account ids%n", latency.toMillis(), accountIds);
+            for (String mode : modes) {
+                boolean virtual = "virtual".equalsIgnoreCase(mode.trim());
+                try (ConfigurableApplicationContext context = startApplication(stub.getBaseUrl(), virtual)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    String baseUrl = "http://127.0.0.1:" + port + "/api/accounts/";
+
+                    fire(client, baseUrl, accountIds, 200);
+                    for (int level : levels) {
+                        long start = System.nanoTime();
+                        LatencyStats stats = fire(client, baseUrl, accountIds, level);
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        System.out.printf("%-8s concurrency=%6d  throughput=%8.1f req/s  errors=%d  %s%n",
+                                virtual ? "virtual" : "platform", level, stats.count() / seconds, stats.errors(),
+                                stats.summary());
+                    }
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String upstreamUrl, boolean virtualThreads) {
+        return new SpringApplicationBuilder(BankingServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--api.banking.url=" + upstreamUrl,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.orbyta=WARN",
+                        "--api.banking.cache.balance.enabled=false",
+                        "--api.banking.coalescing.enabled=false",
+                        "--api.banking.resilience.enabled=false",
+                        "--api.banking.resilience.limit.enabled=false",
+                        "--server.tomcat.max-connections=20000",
+                        "--server.tomcat.accept-count=10000",
+                        "--api.banking.http-client.max-connections-total=20000",
+                        "--api.banking.http-client.max-connections-per-route=20000",
+                        "--api.banking.http-client.connection-request-timeout=60s",
+                        "--api.banking.http-client.response-timeout=60s",
+                        "--api.banking.http-client.read-timeout=60s");
+    }
+
+    private static LatencyStats fire(HttpClient client, String baseUrl, int accountIds, int concurrency) {
+        LatencyStats stats = new LatencyStats(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrency];
+
+        for (int i = 0; i < concurrency; i++) {
+            URI uri = URI.create(baseUrl + (14537780 + i % accountIds) + "/balance");
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).GET().build();
+            long requestStart = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            stats.recordError();
+                        } else {
+                            stats.record(System.nanoTime() - requestStart);
+                        }
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(failure -> null).join();
+        return stats;
+    }
+}
@@ -0,0 +1,108 @@
+package com.orbyta.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.service.cache.TransactionBlock;
+
+/**
+ * Confronta l'occupazione di heap delle transazioni in cache come
+ * {@code List<Transaction>} e come {@link TransactionBlock}, misurando con JOL
+ * l'intero grafo degli oggetti raggiungibili. Le transazioni sono generate
+ * come le produrrebbe la deserializzazione JSON (ogni stringa è un'istanza
+ * distinta), con una quota di descrizioni ripetute tra le transazioni.
+ * Vengono misurati anche il tempo di conversione nei due sensi (il migliore
+ * su più giri, per escludere il riscaldamento del JIT) e verificato che la
+ * conversione sia senza perdita.
+ *
+ * Argomenti: {@code accounts=200 days=365 perDay=4 descriptions=50 unique=0.3 rounds=5}
+ */
+public final class TransactionFootprintBenchmark {
+
+    private static final String[] TYPES = { "GBS_TRANSACTION_TYPE_0023", "GBS_TRANSACTION_TYPE_0050",
+            "GBS_TRANSACTION_TYPE_0010", "GBS_TRANSACTION_TYPE_0034" };
+
+    private TransactionFootprintBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        BenchmarkArgs arguments = new BenchmarkArgs(args);
+        int accounts = arguments.getInt("accounts", 200);
+        int days = arguments.getInt("days", 365);
+        int perDay = arguments.getInt("perDay", 4);
+        int descriptions = arguments.getInt("descriptions", 50);
+        double unique = arguments.getDouble("unique", 0.3);
+        int rounds = arguments.getInt("rounds", 5);
+
+        Random random = new Random(42);
+        List<List<Transaction>> lists = new ArrayList<>(accounts);
+        for (int account = 0; account < accounts; account++) {
+            lists.add(transactions(random, account, days, perDay, descriptions, unique));
+        }
+        long transactions = (long) accounts * days * perDay;
+
+        List<TransactionBlock> blocks = null;
+        long encodeNanos = Long.MAX_VALUE;
+        long decodeNanos = Long.MAX_VALUE;
+        boolean identical = true;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            blocks = new ArrayList<>(accounts);
+            for (List<Transaction> list : lists) {
+                blocks.add(TransactionBlock.of(list));
+            }
+            encodeNanos = Math.min(encodeNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < accounts; i++) {
+                identical &= blocks.get(i).toList().equals(lists.get(i));
+            }
+            decodeNanos = Math.min(decodeNanos, System.nanoTime() - start);
+        }
+
+        long listBytes = GraphLayout.parseInstance(lists).totalSize();
+        long blockBytes = GraphLayout.parseInstance(blocks).totalSize();
+
+        System.out.printf("%d accounts x %d days x %d transactions/day = %d transactions, identical=%s%n",
+                accounts, days, perDay, transactions, identical);
+        System.out.printf("%-18s %,14d bytes  %6.1f bytes/transaction%n",
+                "List<Transaction>", listBytes, (double) listBytes / transactions);
+        System.out.printf("%-18s %,14d bytes  %6.1f bytes/transaction  (%.1fx smaller)%n",
+                "TransactionBlock", blockBytes, (double) blockBytes / transactions, (double) listBytes / blockBytes);
+        System.out.printf("encode %.0f ns/transaction, decode %.0f ns/transaction%n",
+                (double) encodeNanos / transactions, (double) decodeNanos / transactions);
+    }
+
+    private static List<Transaction> transactions(Random random, int account, int days, int perDay,
+            int descriptions, double unique) {
+        List<Transaction> transactions = new ArrayList<>(days * perDay);
+        LocalDate first = LocalDate.of(2023, 3, 1);
+        for (int day = 0; day < days; day++) {
+            String date = first.plusDays(day).toString();
+            for (int i = 0; i < perDay; i++) {
+                long id = 1_460_000_000_000L + (long) account * 100_000 + day * perDay + i;
+                String description = random.nextDouble() < unique
+                        ? "BA JOHN DOE PAYMENT INVOICE " + id % 10_000 + "/2024"
+                        : "PD VISA CORPORATE " + random.nextInt(descriptions);
+                transactions.add(new Transaction(
+                        String.valueOf(id),
+                        String.format("%014d", id % 100_000_000_000_000L),
+                        new String(date),
+                        first.plusDays(Math.max(0, day - random.nextInt(3))).toString(),
+                        new TransactionType(new String("GBS_TRANSACTION_TYPE"),
+                                new String(TYPES[random.nextInt(TYPES.length)])),
+                        BigDecimal.valueOf(random.nextInt(200_000) - 150_000, 2),
+                        new String("EUR"),
+                        description));
+            }
+        }
+        return transactions;
+    }
+}
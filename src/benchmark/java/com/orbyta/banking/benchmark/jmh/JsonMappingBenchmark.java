@@ -0,0 +1,146 @@
+package com.orbyta.banking.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+/**
+ * Costo di lettura e scrittura JSON dei modelli scambiati con Fabrick: la
+ * risposta delle transazioni a 10, 1.000 e 100.000 elementi e la risposta di
+ * un bonifico. Reader e writer sono creati una volta, come in
+ * {@code FabrickService}, con l'accesso ai modelli per reflection e con gli
+ * accessori generati di Blackbird ({@code api.banking.json.optimized-accessors}).
+ *
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main -Dbenchmark.args="JsonMappingBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class JsonMappingBenchmark {
+
+    private MoneyTransferResponse moneyTransfer;
+
+    @Setup
+    public void setUp() {
+        moneyTransfer = moneyTransferResponse();
+    }
+
+    @Benchmark
+    public ApiResponse<TransactionsPayload> readTransactions(TransactionsJson json) throws Exception {
+        return json.reader.readValue(json.bytes);
+    }
+
+    @Benchmark
+    public byte[] writeMoneyTransfer(Mapper mapper) throws Exception {
+        return mapper.moneyTransferWriter.writeValueAsBytes(moneyTransfer);
+    }
+
+    /**
+     * ObjectMapper con accesso ai modelli per reflection o con Blackbird.
+     */
+    @State(Scope.Benchmark)
+    public static class Mapper {
+
+        @Param({ "reflection", "blackbird" })
+        private String accessors;
+
+        private ObjectMapper objectMapper;
+        private ObjectWriter moneyTransferWriter;
+
+        @Setup
+        public void setUp() {
+            objectMapper = new ObjectMapper();
+            if (accessors.equals("blackbird")) {
+                objectMapper.registerModule(new BlackbirdModule());
+            }
+            moneyTransferWriter = objectMapper.writerFor(MoneyTransferResponse.class);
+        }
+    }
+
+    /**
+     * Risposta delle transazioni già serializzata, nelle diverse dimensioni.
+     */
+    @State(Scope.Benchmark)
+    public static class TransactionsJson {
+
+        @Param({ "10", "1000", "100000" })
+        private int transactions;
+
+        private ObjectReader reader;
+        private byte[] bytes;
+
+        @Setup
+        public void setUp(Mapper mapper) throws Exception {
+            ObjectMapper objectMapper = mapper.objectMapper;
+            reader = objectMapper.readerFor(new TypeReference<ApiResponse<TransactionsPayload>>() {
+            });
+
+            List<Transaction> list = new ArrayList<>(transactions);
+            LocalDate day = LocalDate.of(2024, 2, 29);
+            for (int i = 0; i < transactions; i++) {
+                LocalDate date = day.minusDays(i / 10);
+                list.add(new Transaction("1331714087", "00000000273015", date.toString(), date.toString(),
+                        new TransactionType("GBS_TRANSACTION_TYPE", "GBS_TRANSACTION_TYPE_0023"),
+                        new BigDecimal("-343.77"), "EUR", "PD VISA CORPORATE 10"));
+            }
+            bytes = objectMapper.writeValueAsBytes(
+                    new ApiResponse<>(ApiConstants.STATUS_OK, new TransactionsPayload(list), null));
+        }
+    }
+
+    private static MoneyTransferResponse moneyTransferResponse() {
+        MoneyTransferResponse response = new MoneyTransferResponse();
+        response.setMoneyTransferId("452516859427");
+        response.setStatus("EXECUTED");
+        response.setDirection("OUTGOING");
+        response.setCreditor(new MoneyTransferResponse.Creditor("John Doe",
+                new MoneyTransferResponse.Creditor.Account("IT23A0336844430152923804660", "SELBIT2BXXX"),
+                new MoneyTransferResponse.Creditor.Address(null, null, null)));
+        response.setDebtor(new MoneyTransferResponse.Debtor("LUCA TERRIBILE",
+                new MoneyTransferResponse.Debtor.Account("IT61F0326802230000052625016", null)));
+        response.setCro("1234566788907");
+        response.setTrn("AJFSAD1234566788907CCSFDGTGVGV");
+        response.setDescription("Payment invoice 75/2017");
+        response.setCreatedDatetime("2019-04-10T10:38:55.949+0100");
+        response.setAccountedDatetime("2019-04-10T10:38:56.000+0100");
+        response.setDebtorValueDate("2019-04-10");
+        response.setCreditorValueDate("2019-04-10");
+        response.setAmount(new MoneyTransferResponse.Amount(new BigDecimal("800"), "EUR", new BigDecimal("800"),
+                "EUR", "2019-04-10", BigDecimal.ONE));
+        response.setFeeType("SHA");
+        response.setFeeAccountId("45685475");
+        response.setFees(List.of(
+                new MoneyTransferResponse.Fee("MK001", "Money transfer execution fee", new BigDecimal("0.25"), "EUR"),
+                new MoneyTransferResponse.Fee("MK003", "Currency exchange fee", new BigDecimal("3.5"), "EUR")));
+        return response;
+    }
+}
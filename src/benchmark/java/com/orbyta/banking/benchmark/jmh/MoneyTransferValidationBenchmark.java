@@ -0,0 +1,107 @@
+package com.orbyta.banking.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.orbyta.banking.constants.ValidationConstants;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Costo della Bean Validation di {@link MoneyTransferRequest}: richiesta
+ * minima, richiesta con detrazione fiscale valida (vincoli annidati e
+ * controlli {@code @AssertTrue}) e richiesta con detrazione non valida, che
+ * produce le violazioni e i relativi messaggi.
+ *
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main -Dbenchmark.args="MoneyTransferValidationBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class MoneyTransferValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private MoneyTransferRequest minimal;
+    private MoneyTransferRequest withTaxRelief;
+    private MoneyTransferRequest withInvalidTaxRelief;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        minimal = request(null);
+
+        MoneyTransferRequest.TaxRelief taxRelief = new MoneyTransferRequest.TaxRelief();
+        taxRelief.setTaxReliefId("L449");
+        taxRelief.setCreditorFiscalCode("56258745832");
+        taxRelief.setBeneficiaryType(ValidationConstants.NATURAL_PERSON);
+        taxRelief.setNaturalPersonBeneficiary(new MoneyTransferRequest.TaxRelief.NaturalPersonBeneficiary(
+                "MRLFNC81L04A859L", null, null, null, null));
+        withTaxRelief = request(taxRelief);
+
+        MoneyTransferRequest.TaxRelief invalidTaxRelief = new MoneyTransferRequest.TaxRelief();
+        invalidTaxRelief.setTaxReliefId("L449");
+        invalidTaxRelief.setCreditorFiscalCode("56258745832");
+        invalidTaxRelief.setBeneficiaryType(ValidationConstants.LEGAL_PERSON);
+        withInvalidTaxRelief = request(invalidTaxRelief);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MoneyTransferRequest>> validateMinimal() {
+        return validator.validate(minimal);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MoneyTransferRequest>> validateWithTaxRelief() {
+        return validator.validate(withTaxRelief);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MoneyTransferRequest>> validateWithInvalidTaxRelief() {
+        return validator.validate(withInvalidTaxRelief);
+    }
+
+    private static MoneyTransferRequest request(MoneyTransferRequest.TaxRelief taxRelief) {
+        MoneyTransferRequest.Creditor creditor = new MoneyTransferRequest.Creditor("John Doe",
+                new MoneyTransferRequest.Creditor.Account("IT23A0336844430152923804660", null),
+                new MoneyTransferRequest.Creditor.Address("Via Roma 1", "Milano", "IT"));
+
+        MoneyTransferRequest request = new MoneyTransferRequest();
+        request.setCreditor(creditor);
+        request.setExecutionDate(LocalDate.of(2024, 3, 1));
+        request.setDescription("Payment invoice 75/2017");
+        request.setAmount(new BigDecimal("800.00"));
+        request.setCurrency("EUR");
+        request.setFeeType("SHA");
+        request.setTaxRelief(taxRelief);
+        return request;
+    }
+}
@@ -0,0 +1,227 @@
+package com.orbyta.banking.benchmark.stub;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stub locale delle API Fabrick usato dai benchmark: risponde agli endpoint
+ * account, saldo, transazioni e bonifico dopo una latenza estratta dalla
+ * distribuzione configurata. Ogni richiesta è servita da un virtual thread,
+ * così lo stub non diventa il collo di bottiglia delle misure.
+ *
+ * Le richieste di transazioni con {@code fromAccountingDate} e
+ * {@code toAccountingDate} ricevono {@code transactionsPerDay} movimenti
+ * deterministici per giorno, dal più recente, e una latenza aggiuntiva
+ * proporzionale ai giorni richiesti. Una frazione {@code errorRate} delle
+ * richieste riceve una risposta KO con il codice {@code errorStatus}, nel
+ * formato degli errori Fabrick.
+ *
+ * @see StubSettings
+ */
+public class FabrickStubServer implements AutoCloseable {
+
+    public static final String BASE_PATH = "/api/gbs/banking/v4.0/accounts";
+
+    private static final String ACCOUNT_TEMPLATE = "{\"accountId\":\"%d\",\"iban\":\"IT40L0326822300052849400440\","
+            + "\"abiCode\":\"03268\",\"cabCode\":\"22300\",\"countryCode\":\"IT\",\"internationalCin\":\"40\","
+            + "\"nationalCin\":\"L\",\"account\":\"52849400440\",\"alias\":\"Test api\","
+            + "\"productName\":\"Conto Websella\",\"holderName\":\"LUCA TERRIBILE\",\"activatedDate\":\"2016-12-14\","
+            + "\"currency\":\"EUR\"}";
+
+    private static final String BALANCE_BODY = "{\"status\":\"OK\",\"errors\":[],\"payload\":{"
+            + "\"date\":\"2024-03-01\",\"balance\":-31.40,\"availableBalance\":-31.40,\"currency\":\"EUR\"}}";
+
+    private static final String TRANSACTIONS_BODY = "{\"status\":\"OK\",\"errors\":[],\"payload\":{\"list\":["
+            + "{\"transactionId\":\"1331714087\",\"operationId\":\"00000000273015\",\"accountingDate\":\"2024-02-28\","
+            + "\"valueDate\":\"2024-02-28\",\"type\":{\"enumeration\":\"GBS_TRANSACTION_TYPE\","
+            + "\"value\":\"GBS_ACCOUNT_TRANSACTION_TYPE_0034\"},\"amount\":-800,\"currency\":\"EUR\","
+            + "\"description\":\"BA JOHN DOE PAYMENT INVOICE 75/2017\"}]}}";
+
+    private static final String MONEY_TRANSFER_BODY = "{\"status\":\"OK\",\"errors\":[],\"payload\":{"
+            + "\"moneyTransferId\":\"452516859427\",\"status\":\"EXECUTED\",\"direction\":\"OUTGOING\","
+            + "\"description\":\"Payment invoice 75/2017\",\"amount\":{\"debtorAmount\":800,"
+            + "\"debtorCurrency\":\"EUR\",\"creditorAmount\":800,\"creditorCurrency\":\"EUR\"}}}";
+
+    private static final String ERROR_BODY = "{\"status\":\"KO\",\"errors\":[{\"code\":\"API000\","
+            + "\"description\":\"Simulated upstream error\",\"params\":\"\"}],\"payload\":{}}";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StubSettings settings;
+    private final String accountsBody;
+
+    private FabrickStubServer(HttpServer server, ExecutorService executor, StubSettings settings) {
+        this.server = server;
+        this.executor = executor;
+        this.settings = settings;
+        this.accountsBody = accountsBody(settings.accounts());
+    }
+
+    /**
+     * Avvia lo stub su una porta libera.
+     */
+    public static FabrickStubServer start(Duration latency) throws IOException {
+        return start(StubSettings.defaults().withLatency(LatencyDistribution.fixed(latency)));
+    }
+
+    /**
+     * Avvia lo stub su una porta libera; le richieste di transazioni attendono
+     * in più {@code perDayLatency} per ogni giorno dell'intervallo.
+     */
+    public static FabrickStubServer start(Duration latency, Duration perDayLatency) throws IOException {
+        return start(StubSettings.defaults().withLatency(LatencyDistribution.fixed(latency))
+                .withPerDayLatency(perDayLatency));
+    }
+
+    /**
+     * Avvia lo stub su una porta libera con latenza, errori e dimensione delle
+     * risposte indicati.
+     */
+    public static FabrickStubServer start(StubSettings settings) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16384);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        FabrickStubServer stub = new FabrickStubServer(server, executor, settings);
+        server.createContext(BASE_PATH, stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    /**
+     * URL da usare come {@code api.banking.url}.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Duration latency = settings.latency().next();
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                sleep(latency);
+                respond(exchange, settings.errorStatus(), ERROR_BODY);
+                return;
+            }
+
+            String body;
+            if (path.endsWith("/balance")) {
+                sleep(latency);
+                body = BALANCE_BODY;
+            } else if (path.endsWith("/transactions") && query.containsKey("fromAccountingDate")
+                    && query.containsKey("toAccountingDate")) {
+                LocalDate from = LocalDate.parse(query.get("fromAccountingDate"));
+                LocalDate to = LocalDate.parse(query.get("toAccountingDate"));
+                long days = Math.max(0, ChronoUnit.DAYS.between(from, to) + 1);
+                sleep(latency.plus(settings.perDayLatency().multipliedBy(days)));
+                body = transactionsBody(from, to, settings.transactionsPerDay());
+            } else if (path.endsWith("/transactions")) {
+                sleep(latency);
+                body = TRANSACTIONS_BODY;
+            } else if (path.endsWith("/money-transfers")) {
+                sleep(latency);
+                body = MONEY_TRANSFER_BODY;
+            } else {
+                sleep(latency);
+                body = accountsBody;
+            }
+            respond(exchange, 200, body);
+        }
+    }
+
+    private static String accountsBody(int accounts) {
+        StringBuilder body = new StringBuilder("{\"status\":\"OK\",\"errors\":[],\"payload\":{\"list\":[");
+        for (int i = 0; i < accounts; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(String.format(ACCOUNT_TEMPLATE, 14537780 + i));
+        }
+        return body.append("]}}").toString();
+    }
+
+    /**
+     * {@code perDay} transazioni per giorno da {@code to} a {@code from}, con
+     * identificativi derivati dalla data: intervalli sovrapposti restituiscono
+     * gli stessi movimenti.
+     */
+    private static String transactionsBody(LocalDate from, LocalDate to, int perDay) {
+        StringBuilder body = new StringBuilder("{\"status\":\"OK\",\"errors\":[],\"payload\":{\"list\":[");
+        boolean first = true;
+        for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+            for (int i = 0; i < perDay; i++) {
+                if (!first) {
+                    body.append(',');
+                }
+                first = false;
+                String id = day.toString().replace("-", "") + i;
+                body.append("{\"transactionId\":\"").append(id)
+                        .append("\",\"operationId\":\"OP").append(id)
+                        .append("\",\"accountingDate\":\"").append(day)
+                        .append("\",\"valueDate\":\"").append(day)
+                        .append("\",\"type\":{\"enumeration\":\"GBS_TRANSACTION_TYPE\",")
+                        .append("\"value\":\"GBS_ACCOUNT_TRANSACTION_TYPE_0034\"},\"amount\":-")
+                        .append(10 + day.getDayOfMonth() + i)
+                        .append(",\"currency\":\"EUR\",\"description\":\"PAYMENT ").append(id)
+                        .append("\"}");
+            }
+        }
+        return body.append("]}}").toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.orbyta.banking.benchmark.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Distribuzione della latenza simulata dallo stub. Formati accettati da
+ * {@link #parse(String)}:
+ * <ul>
+ * <li>{@code 20ms}: latenza fissa</li>
+ * <li>{@code uniform:10ms..50ms}: uniforme tra minimo e massimo</li>
+ * <li>{@code lognormal:20ms..200ms}: log-normale con mediana e p99 indicati,
+ * per simulare la coda lunga di un upstream reale</li>
+ * </ul>
+ */
+public interface LatencyDistribution {
+
+    Duration next();
+
+    static LatencyDistribution fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = Math.max(minNanos, max.toNanos());
+        return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1));
+    }
+
+    /**
+     * Log-normale con la mediana e il p99 indicati.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        if (median.isZero()) {
+            return fixed(Duration.ZERO);
+        }
+        double mu = Math.log(median.toNanos());
+        // 2.326 è lo z del 99° percentile della normale standard
+        double sigma = Math.max(0, Math.log((double) p99.toNanos() / median.toNanos()) / 2.326);
+        return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    static LatencyDistribution parse(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            return fixed(DurationStyle.detectAndParse(value.trim()));
+        }
+
+        String type = value.substring(0, separator).trim();
+        String[] bounds = value.substring(separator + 1).split("\\.\\.");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("Expected <type>:<a>..<b> but got: " + value);
+        }
+        Duration first = DurationStyle.detectAndParse(bounds[0].trim());
+        Duration second = DurationStyle.detectAndParse(bounds[1].trim());
+        return switch (type) {
+            case "uniform" -> uniform(first, second);
+            case "lognormal" -> logNormal(first, second);
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + type);
+        };
+    }
+}
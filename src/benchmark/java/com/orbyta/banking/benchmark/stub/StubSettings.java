@@ -0,0 +1,42 @@
+package com.orbyta.banking.benchmark.stub;
+
+import java.time.Duration;
+
+/**
+ * Comportamento dello stub Fabrick.
+ *
+ * @param latency            latenza di ogni risposta
+ * @param perDayLatency      latenza aggiuntiva per giorno delle richieste di
+ *                           transazioni con intervallo
+ * @param errorRate          frazione di risposte di errore, tra 0 e 1
+ * @param errorStatus        codice HTTP delle risposte di errore
+ * @param transactionsPerDay transazioni restituite per ogni giorno
+ *                           dell'intervallo
+ * @param accounts           account restituiti dalla lista account
+ */
+public record StubSettings(LatencyDistribution latency, Duration perDayLatency, double errorRate, int errorStatus,
+        int transactionsPerDay, int accounts) {
+
+    /**
+     * Nessuna latenza né errori, due transazioni al giorno e un solo account.
+     */
+    public static StubSettings defaults() {
+        return new StubSettings(LatencyDistribution.fixed(Duration.ZERO), Duration.ZERO, 0, 500, 2, 1);
+    }
+
+    public StubSettings withLatency(LatencyDistribution latency) {
+        return new StubSettings(latency, perDayLatency, errorRate, errorStatus, transactionsPerDay, accounts);
+    }
+
+    public StubSettings withPerDayLatency(Duration perDayLatency) {
+        return new StubSettings(latency, perDayLatency, errorRate, errorStatus, transactionsPerDay, accounts);
+    }
+
+    public StubSettings withErrors(double errorRate, int errorStatus) {
+        return new StubSettings(latency, perDayLatency, errorRate, errorStatus, transactionsPerDay, accounts);
+    }
+
+    public StubSettings withPayloadSize(int transactionsPerDay, int accounts) {
+        return new StubSettings(latency, perDayLatency, errorRate, errorStatus, transactionsPerDay, accounts);
+    }
+}
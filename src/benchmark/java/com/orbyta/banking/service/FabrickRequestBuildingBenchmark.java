@@ -0,0 +1,99 @@
+package com.orbyta.banking.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Period;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.service.cache.BalanceCache;
+import com.orbyta.banking.service.cache.TransactionRangeCache;
+import com.orbyta.banking.service.coalescing.RequestCoalescer;
+import com.orbyta.banking.service.hedging.RequestHedger;
+import com.orbyta.banking.service.idempotency.IdempotencyStore;
+import com.orbyta.banking.service.metrics.UpstreamMetrics;
+import com.orbyta.banking.service.resilience.AdaptiveConcurrencyLimiter;
+import com.orbyta.banking.service.resilience.UpstreamGuard;
+import com.orbyta.banking.service.sharding.TransactionRangeSharder;
+import com.orbyta.banking.service.store.TransactionStore;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Costo della costruzione di URL e header eseguita da {@link FabrickService}
+ * per ogni chiamata upstream. Si trova nel package del servizio perché
+ * {@code buildAccountUrl} e {@code getHeaders} non sono pubblici.
+ *
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main -Dbenchmark.args="FabrickRequestBuildingBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class FabrickRequestBuildingBenchmark {
+
+    private static final String ACCOUNT_ID = "14537780";
+
+    private FabrickService fabrickService;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        fabrickService = new FabrickService(
+                new RestTemplate(),
+                "https://sandbox.platfr.io/api/gbs/banking/v4.0/accounts",
+                "benchmark-key",
+                new BalanceCache(false, Duration.ofSeconds(5), 100, meterRegistry),
+                new TransactionRangeCache(false, 100, Duration.ofHours(1), Clock.systemDefaultZone(), meterRegistry),
+                new TransactionStore(false, null, Clock.systemUTC(), new ObjectMapper(), meterRegistry),
+                new RequestCoalescer(false, meterRegistry),
+                new TransactionRangeSharder(false, Period.ofMonths(1), 1, 1, Duration.ZERO, null, meterRegistry),
+                new UpstreamMetrics(meterRegistry),
+                new UpstreamGuard(false, CircuitBreakerConfig.ofDefaults(), BulkheadConfig.ofDefaults(),
+                        new AdaptiveConcurrencyLimiter(false, 20, 1, 200, 1.5, 0, Duration.ZERO, Duration.ofSeconds(10),
+                                meterRegistry),
+                        meterRegistry),
+                new RequestHedger(false, 0.95, Duration.ZERO, 0, 1, 1, Executors.newVirtualThreadPerTaskExecutor(),
+                        meterRegistry),
+                new IdempotencyStore(false, Duration.ofHours(24), 100, null, Clock.systemUTC(), new ObjectMapper(),
+                        meterRegistry),
+                new ObjectMapper());
+    }
+
+    @Benchmark
+    public String balanceUrl() {
+        return fabrickService.buildAccountUrl(ACCOUNT_ID, ApiConstants.BALANCE_ENDPOINT).toUriString();
+    }
+
+    @Benchmark
+    public String transactionsUrl() {
+        return fabrickService.buildAccountUrl(ACCOUNT_ID, ApiConstants.TRANSACTIONS_ENDPOINT)
+                .queryParam("fromAccountingDate", "2024-01-01")
+                .queryParam("toAccountingDate", "2024-12-31")
+                .toUriString();
+    }
+
+    @Benchmark
+    public HttpHeaders headers() {
+        return fabrickService.getHeaders();
+    }
+}
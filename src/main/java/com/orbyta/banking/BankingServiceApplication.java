@@ -2,12 +2,18 @@ package com.orbyta.banking;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.orbyta.banking.config.BinaryFormatsConfig;
+import com.orbyta.banking.config.JsonCodecConfig;
+
 @SpringBootApplication
 @EnableAspectJAutoProxy
 public class BankingServiceApplication {
@@ -21,9 +27,13 @@ public class BankingServiceApplication {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(ClientHttpRequestFactory fabrickRequestFactory,
+            ObjectProvider<BlackbirdModule> blackbirdModule) {
         logger.debug("Creating RestTemplate bean");
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = new RestTemplate(fabrickRequestFactory);
+        // Fabrick risponde solo in JSON: CBOR e Smile non vanno proposti nell'header Accept
+        BinaryFormatsConfig.removeBinaryConverters(restTemplate.getMessageConverters());
+        blackbirdModule.ifAvailable(module -> JsonCodecConfig.registerOn(restTemplate, module));
         return restTemplate;
     }
 }
@@ -8,12 +8,19 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 
+/**
+ * Log di ingresso e uscita dei metodi di controller e servizi (modalità di
+ * strumentazione LOGGING, predefinita). In modalità TIMING viene sostituito da
+ * {@link TimingInterceptor}.
+ */
 @Aspect
 @Component
+@ConditionalOnProperty(prefix = "api.banking.instrumentation", name = "mode", havingValue = "logging", matchIfMissing = true)
 public class LoggingAspect {
 
     /**
@@ -0,0 +1,102 @@
+package com.orbyta.banking.aspect;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Alternativa a {@link LoggingAspect} per i percorsi caldi: misura la durata
+ * di ogni chiamata su un istogramma Micrometer ({@code fabrick.method.duration})
+ * e registra nei log solo le chiamate lente o campionate.
+ *
+ * Timer, logger e nome del metodo vengono preparati alla prima chiamata di
+ * ciascun metodo: le chiamate successive non formattano argomenti o risultati
+ * e non allocano oggetti, salvo quando vengono registrate nei log.
+ */
+public class TimingInterceptor implements MethodInterceptor {
+
+    private final String layer;
+    private final long slowThresholdNanos;
+    private final int sampleRate;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<Method, MethodTimer> timers = new ConcurrentHashMap<>();
+
+    public TimingInterceptor(String layer, Duration slowThreshold, int sampleRate,
+            Supplier<MeterRegistry> meterRegistry) {
+        this.layer = layer;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = Math.max(0, sampleRate);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Method method = invocation.getMethod();
+            MethodTimer timer = timers.get(method);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(method, this::createTimer);
+            }
+            timer.record(elapsed);
+        }
+    }
+
+    private MethodTimer createTimer(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Timer timer = Timer.builder("fabrick.method.duration")
+                .description("Durata dei metodi di controller e servizi")
+                .tag("layer", layer)
+                .tag("class", declaringClass.getSimpleName())
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry.get());
+        return new MethodTimer(timer, LoggerFactory.getLogger(declaringClass),
+                declaringClass.getName() + "." + method.getName());
+    }
+
+    /**
+     * Istogramma e stato di campionamento di un singolo metodo.
+     */
+    private final class MethodTimer {
+
+        private final Timer timer;
+        private final Logger logger;
+        private final String name;
+        private final AtomicLong calls = new AtomicLong();
+
+        private MethodTimer(Timer timer, Logger logger, String name) {
+            this.timer = timer;
+            this.logger = logger;
+            this.name = name;
+        }
+
+        private void record(long elapsedNanos) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+            if (elapsedNanos >= slowThresholdNanos) {
+                logger.warn("[{}] Slow call: {}() took {} ms", layer, name,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            } else if (sampleRate > 0 && calls.incrementAndGet() % sampleRate == 0 && logger.isDebugEnabled()) {
+                logger.debug("[{}] Sampled call: {}() took {} us", layer, name,
+                        TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            }
+        }
+    }
+}
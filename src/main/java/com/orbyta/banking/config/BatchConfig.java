@@ -0,0 +1,35 @@
+package com.orbyta.banking.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.batch.AccountOverviewService;
+import com.orbyta.banking.service.batch.BalanceBatchService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione delle letture multi-account.
+ */
+@Configuration
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfig {
+
+    @Bean
+    public BalanceBatchService balanceBatchService(FabrickService fabrickService, BatchProperties properties,
+            @Qualifier(ExecutorConfig.FABRICK_EXECUTOR) ExecutorService executor, MeterRegistry meterRegistry) {
+        return new BalanceBatchService(fabrickService, properties.getMaxParallelism(), properties.getItemTimeout(),
+                properties.getBalancesDeadline(), executor, meterRegistry);
+    }
+
+    @Bean
+    public AccountOverviewService accountOverviewService(FabrickService fabrickService,
+            BalanceBatchService balanceBatchService, BatchProperties properties) {
+        return new AccountOverviewService(fabrickService, balanceBatchService, properties.getOverviewDeadline());
+    }
+}
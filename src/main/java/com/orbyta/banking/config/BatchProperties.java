@@ -0,0 +1,40 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione delle letture multi-account eseguite in parallelo.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.batch")
+public class BatchProperties {
+
+    /**
+     * Letture della stessa richiesta in volo contemporaneamente.
+     */
+    private int maxParallelism = 16;
+
+    /**
+     * Tempo massimo per la lettura di un singolo account; allo scadere l'account
+     * viene segnato TIMEOUT e la richiesta prosegue con i successivi.
+     */
+    private Duration itemTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Tempo massimo complessivo di una richiesta di saldi in blocco; gli
+     * account non ancora letti allo scadere vengono segnati TIMEOUT, anche se
+     * i posti sono occupati da chiamate scadute ma non ancora terminate.
+     */
+    private Duration balancesDeadline = Duration.ofSeconds(10);
+
+    /**
+     * Tempo massimo complessivo della panoramica degli account (lista degli
+     * account più saldi); i saldi non pronti allo scadere vengono segnati
+     * TIMEOUT.
+     */
+    private Duration overviewDeadline = Duration.ofSeconds(5);
+}
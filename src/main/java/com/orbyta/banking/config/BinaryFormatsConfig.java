@@ -0,0 +1,84 @@
+package com.orbyta.banking.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Formati binari per i client interni che leggono grandi volumi di
+ * transazioni: con {@code Accept: application/cbor} o
+ * {@code Accept: application/x-jackson-smile} la stessa struttura
+ * {@code ApiResponse} viene codificata in CBOR o Smile, e negli stessi formati
+ * vengono accettati i corpi delle richieste.
+ *
+ * Con le librerie CBOR e Smile nel classpath Spring registra già i propri
+ * convertitori, dopo quello JSON e con un ObjectMapper che non segue la
+ * configurazione {@code spring.jackson.*}. Questa configurazione li sostituisce
+ * nella stessa posizione con convertitori costruiti dal builder di Spring
+ * Boot, moduli compresi, oppure li rimuove con
+ * {@code api.banking.binary-formats.enabled=false}. Senza un {@code Accept}
+ * esplicito (o con {@code *}{@code /*}) la risposta resta JSON.
+ */
+@Configuration
+@Profile("!reactive")
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryFormatsConfig.class);
+
+    private final boolean enabled;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryFormatsConfig(@Value("${api.banking.binary-formats.enabled:true}") boolean enabled,
+            ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.enabled = enabled;
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int position = removeBinaryConverters(converters);
+        if (!enabled) {
+            logger.info("Binary response formats disabled");
+            return;
+        }
+
+        // il builder di Spring Boot è prototype: ogni getObject() ne restituisce uno nuovo
+        converters.add(position, new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+        converters.add(position, new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        logger.info("Binary response formats enabled (CBOR, Smile)");
+    }
+
+    /**
+     * Rimuove i convertitori CBOR e Smile, ad esempio da un RestTemplate verso
+     * un servizio che risponde solo in JSON.
+     *
+     * @return la posizione del primo convertitore rimosso, o la fine della
+     *         lista se non ce n'erano
+     */
+    public static int removeBinaryConverters(List<HttpMessageConverter<?>> converters) {
+        int position = -1;
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter
+                    || converters.get(i) instanceof MappingJackson2SmileHttpMessageConverter) {
+                converters.remove(i);
+                position = i;
+            }
+        }
+        return position >= 0 ? position : converters.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.orbyta.banking.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.bulk.BulkTransferService;
+
+import io.github.resilience4j.micrometer.tagged.TaggedRateLimiterMetrics;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione dei bonifici in blocco.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkTransferProperties.class)
+public class BulkTransferConfig {
+
+    private static final String RATE_LIMITER_NAME = "fabrick-bulk-transfers";
+
+    @Bean(destroyMethod = "close")
+    public BulkTransferService bulkTransferService(FabrickService fabrickService, BulkTransferProperties properties,
+            Clock clock, MeterRegistry meterRegistry) {
+        // un permesso alla volta, così i bonifici sono distribuiti nel secondo invece che a raffica
+        RateLimiterConfig rateLimiterConfig = RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofNanos(1_000_000_000L / Math.max(1, properties.getPermitsPerSecond())))
+                .timeoutDuration(Duration.ofSeconds(5))
+                .build();
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(rateLimiterConfig);
+        TaggedRateLimiterMetrics.ofRateLimiterRegistry(rateLimiterRegistry).bindTo(meterRegistry);
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER_NAME);
+
+        return new BulkTransferService(fabrickService, properties.getWorkers(), rateLimiter,
+                properties.getMaxQueuedItems(), properties.getMaxAttempts(), properties.getRetryBackoff(),
+                properties.getRetention(), clock, meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione dei bonifici in blocco eseguiti in background.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.bulk")
+public class BulkTransferProperties {
+
+    /**
+     * Thread che inviano i bonifici, condivisi tra tutti i job.
+     */
+    private int workers = 4;
+
+    /**
+     * Bonifici inviati a Fabrick al secondo, al più, sommando tutti i job.
+     */
+    private int permitsPerSecond = 20;
+
+    /**
+     * Bonifici accettati e non ancora inviati, sommando tutti i job; oltre
+     * questo numero i nuovi job vengono rifiutati con 503.
+     */
+    private int maxQueuedItems = 200_000;
+
+    /**
+     * Tentativi per un bonifico rifiutato senza essere inviato (circuito
+     * aperto, bulkhead pieno, limite di concorrenza).
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Attesa tra un tentativo e il successivo.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Per quanto tempo lo stato di un job completato resta consultabile.
+     */
+    private Duration retention = Duration.ofHours(1);
+}
@@ -0,0 +1,45 @@
+package com.orbyta.banking.config;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.service.cache.BalanceCache;
+import com.orbyta.banking.service.cache.TransactionRangeCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione delle cache sulle letture verso Fabrick.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * Orologio con il fuso orario di Fabrick, usato per stabilire quali giornate
+     * contabili sono chiuse.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.system(ZoneId.of(ApiConstants.TIMEZONE_EUROPE_ROME));
+    }
+
+    @Bean
+    public BalanceCache balanceCache(CacheProperties properties, MeterRegistry meterRegistry) {
+        CacheProperties.Balance balance = properties.getBalance();
+        return new BalanceCache(balance.isEnabled(), balance.getTtl(), balance.getMaxSize(), meterRegistry);
+    }
+
+    @Bean
+    public TransactionRangeCache transactionRangeCache(CacheProperties properties, Clock clock,
+            MeterRegistry meterRegistry) {
+        CacheProperties.Transactions transactions = properties.getTransactions();
+        return new TransactionRangeCache(transactions.isEnabled(), transactions.getMaxAccounts(),
+                transactions.getExpireAfterAccess(), clock, meterRegistry);
+    }
+}
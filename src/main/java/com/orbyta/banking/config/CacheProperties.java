@@ -0,0 +1,57 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione delle cache sulle letture verso Fabrick.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.cache")
+public class CacheProperties {
+
+    private Balance balance = new Balance();
+
+    private Transactions transactions = new Transactions();
+
+    @Data
+    public static class Balance {
+
+        /**
+         * Abilita la cache dei saldi per account.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Durata di validità di un saldo in cache.
+         */
+        private Duration ttl = Duration.ofSeconds(5);
+
+        /**
+         * Numero massimo di account in cache (eviction W-TinyLFU).
+         */
+        private long maxSize = 10_000;
+    }
+
+    @Data
+    public static class Transactions {
+
+        /**
+         * Abilita la cache delle transazioni per intervallo di date contabili.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Numero massimo di account con transazioni in cache.
+         */
+        private long maxAccounts = 1_000;
+
+        /**
+         * Gli account non consultati per questo intervallo vengono rimossi.
+         */
+        private Duration expireAfterAccess = Duration.ofHours(1);
+    }
+}
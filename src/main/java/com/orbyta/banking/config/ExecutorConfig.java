@@ -0,0 +1,64 @@
+package com.orbyta.banking.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Executor interni per le chiamate upstream. La modalità (platform o virtual
+ * thread) segue lo switch standard {@code spring.threads.virtual.enabled}, che
+ * governa anche il pool di richieste di Tomcat.
+ */
+@Configuration
+@EnableConfigurationProperties(ExecutorProperties.class)
+public class ExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public static final String FABRICK_EXECUTOR = "fabrickExecutor";
+
+    private static final String THREAD_NAME_PREFIX = "fabrick-";
+
+    @Bean(name = FABRICK_EXECUTOR, destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService platformFabrickExecutor(ExecutorProperties properties, MeterRegistry meterRegistry) {
+        logger.info("Fabrick executor running on platform threads (poolSize={})", properties.getPoolSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name(THREAD_NAME_PREFIX, 0).daemon(true).factory());
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, FABRICK_EXECUTOR);
+    }
+
+    @Bean(name = FABRICK_EXECUTOR, destroyMethod = "shutdownNow")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualFabrickExecutor() {
+        logger.info("Fabrick executor running on virtual threads");
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory());
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(prefix = "api.banking.executor.pinning", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ExecutorProperties properties,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.getPinning().getThreshold(), meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione dell'executor interno usato per le chiamate verso Fabrick.
+ * Con {@code spring.threads.virtual.enabled=true} le dimensioni del pool
+ * vengono ignorate e ogni task gira su un virtual thread dedicato.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.executor")
+public class ExecutorProperties {
+
+    /**
+     * Numero di thread del pool (solo modalità platform thread).
+     */
+    private int poolSize = 50;
+
+    /**
+     * Capacità della coda dei task in attesa (solo modalità platform thread).
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Rilevamento dei virtual thread bloccati sul carrier (pinning).
+     */
+    private Pinning pinning = new Pinning();
+
+    @Data
+    public static class Pinning {
+
+        /**
+         * Abilita lo stream JFR dell'evento jdk.VirtualThreadPinned.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Durata minima di un pinning perché venga segnalato.
+         */
+        private Duration threshold = Duration.ofMillis(20);
+    }
+}
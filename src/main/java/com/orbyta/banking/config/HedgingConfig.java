@@ -0,0 +1,33 @@
+package com.orbyta.banking.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.service.hedging.RequestHedger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione delle richieste di copertura sulle letture verso Fabrick.
+ */
+@Configuration
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgingConfig {
+
+    private static final String THREAD_NAME_PREFIX = "fabrick-hedge-";
+
+    /**
+     * Le chiamate in gara girano su virtual thread dedicati: l'interruzione
+     * della perdente chiude la sua connessione anche durante la lettura.
+     */
+    @Bean(destroyMethod = "close")
+    public RequestHedger requestHedger(HedgingProperties properties, MeterRegistry meterRegistry) {
+        return new RequestHedger(properties.isEnabled(), properties.getPercentile(), properties.getMinDelay(),
+                properties.getBudgetRatio(), properties.getWindowSize(), properties.getMinSamples(),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory()),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione delle richieste di copertura (hedging) sulle letture verso
+ * Fabrick.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.hedging")
+public class HedgingProperties {
+
+    /**
+     * Abilita le richieste di copertura per lista account, saldo e transazioni.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Percentile delle durate recenti oltre il quale viene inviata la
+     * copertura, tra 0 e 1.
+     */
+    private double percentile = 0.95;
+
+    /**
+     * Ritardo minimo prima della copertura.
+     */
+    private Duration minDelay = Duration.ofMillis(20);
+
+    /**
+     * Chiamate di copertura consentite in rapporto alle richieste (0.05 = al
+     * più il 5% di carico aggiuntivo).
+     */
+    private double budgetRatio = 0.05;
+
+    /**
+     * Durate recenti per operazione su cui viene calcolato il percentile.
+     */
+    private int windowSize = 1000;
+
+    /**
+     * Durate registrate necessarie prima di iniziare a coprire un'operazione.
+     */
+    private int minSamples = 100;
+}
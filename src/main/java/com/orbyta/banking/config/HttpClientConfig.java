@@ -0,0 +1,109 @@
+package com.orbyta.banking.config;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Configurazione del motore HTTP sottostante al RestTemplate verso Fabrick.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    private static final String POOL_NAME = "fabrick";
+
+    /**
+     * Pool di connessioni keep-alive con metriche di occupazione e di attesa.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "api.banking.http-client", name = "engine", havingValue = "apache", matchIfMissing = true)
+    public InstrumentedConnectionManager fabrickConnectionManager(HttpClientProperties properties,
+            MeterRegistry meterRegistry) {
+        Timer leaseWaitTimer = Timer.builder("httpcomponents.httpclient.pool.lease.wait")
+                .description("Tempo di attesa per ottenere una connessione dal pool")
+                .tag("httpclient", POOL_NAME)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(leaseWaitTimer);
+        connectionManager.setMaxTotal(properties.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                .build());
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        logger.info("Fabrick connection pool configured: maxTotal={}, maxPerRoute={}",
+                properties.getMaxConnectionsTotal(), properties.getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "api.banking.http-client", name = "engine", havingValue = "apache", matchIfMissing = true)
+    public CloseableHttpClient fabrickHttpClient(InstrumentedConnectionManager fabrickConnectionManager,
+            HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                .setDefaultKeepAlive(properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(fabrickConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "api.banking.http-client", name = "engine", havingValue = "apache", matchIfMissing = true)
+    public ClientHttpRequestFactory fabrickRequestFactory(CloseableHttpClient fabrickHttpClient) {
+        logger.debug("Using pooled Apache HttpClient engine for Fabrick calls");
+        return new HttpComponentsClientHttpRequestFactory(fabrickHttpClient);
+    }
+
+    /**
+     * Client JDK: negozia HTTP/2 quando l'upstream lo supporta e multiplexa le
+     * richieste su poche connessioni. Il pool interno non espone metriche.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "api.banking.http-client", name = "engine", havingValue = "jdk")
+    public ClientHttpRequestFactory jdkFabrickRequestFactory(HttpClientProperties properties) {
+        logger.debug("Using JDK HttpClient engine (HTTP/2) for Fabrick calls");
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
+    }
+}
@@ -0,0 +1,85 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione del client HTTP usato per le chiamate verso Fabrick.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Motore HTTP: APACHE (pool HTTP/1.1 keep-alive con metriche) oppure JDK
+     * (HTTP/2 negoziato via ALPN, con fallback su HTTP/1.1). Il client JDK usa
+     * solo {@code connectTimeout} e {@code responseTimeout}: limiti del pool,
+     * keep-alive ed eviction valgono solo per APACHE.
+     */
+    private Engine engine = Engine.APACHE;
+
+    /**
+     * Numero massimo di connessioni aperte nel pool.
+     */
+    private int maxConnectionsTotal = 200;
+
+    /**
+     * Numero massimo di connessioni per singola route (host upstream).
+     */
+    private int maxConnectionsPerRoute = 100;
+
+    /**
+     * Timeout di apertura della connessione TCP/TLS.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Timeout di inattività in lettura sul socket.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Tempo massimo di attesa della risposta dopo l'invio della richiesta.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Tempo massimo di attesa per ottenere una connessione dal pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Durata keep-alive usata quando l'upstream non invia l'header Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofMinutes(1);
+
+    /**
+     * Le connessioni inattive da più di questo intervallo vengono chiuse.
+     */
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    /**
+     * Durata massima di vita di una connessione, indipendentemente dall'uso.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Le connessioni inattive da più di questo intervallo vengono verificate
+     * prima del riutilizzo.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Richieste che possono restare in attesa di una connessione libera. Usato
+     * solo dal client reattivo (profilo "reactive").
+     */
+    private int maxPendingAcquires = 10_000;
+
+    public enum Engine {
+        APACHE,
+        JDK
+    }
+}
@@ -0,0 +1,27 @@
+package com.orbyta.banking.config;
+
+import java.time.Clock;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.service.idempotency.IdempotencyStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione delle chiavi di idempotenza sui bonifici.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, Clock clock,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new IdempotencyStore(properties.isEnabled(), properties.getTtl(), properties.getMaxSize(),
+                properties.getFile(), clock, objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.orbyta.banking.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione delle chiavi di idempotenza sui bonifici.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Abilita la gestione dell'header {@code Idempotency-Key} sui bonifici.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Per quanto tempo la risposta di un bonifico viene restituita ai tentativi
+     * ripetuti con la stessa chiave.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Numero massimo di chiavi conservate.
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * File in cui salvare le risposte per ritrovarle dopo un riavvio; se
+     * assente le risposte restano solo in memoria.
+     */
+    private Path file;
+}
@@ -0,0 +1,48 @@
+package com.orbyta.banking.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.aspect.TimingInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Strumentazione in modalità TIMING: sostituisce LoggingAspect con
+ * {@link TimingInterceptor} sugli stessi pointcut. Il MeterRegistry viene
+ * risolto alla prima chiamata, così gli advisor non ne anticipano la creazione.
+ */
+@Configuration
+@EnableConfigurationProperties(InstrumentationProperties.class)
+@ConditionalOnProperty(prefix = "api.banking.instrumentation", name = "mode", havingValue = "timing")
+public class InstrumentationConfig {
+
+    public static final String CONTROLLER_POINTCUT = "execution(* com.orbyta.banking.controller.*.*(..))";
+    public static final String SERVICE_POINTCUT = "execution(* com.orbyta.banking.service.*.*(..))";
+
+    @Bean
+    public Advisor controllerTimingAdvisor(InstrumentationProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return timingAdvisor(CONTROLLER_POINTCUT, "CONTROLLER", properties, meterRegistry);
+    }
+
+    @Bean
+    public Advisor serviceTimingAdvisor(InstrumentationProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return timingAdvisor(SERVICE_POINTCUT, "SERVICE", properties, meterRegistry);
+    }
+
+    private static Advisor timingAdvisor(String expression, String layer, InstrumentationProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(layer, properties.getSlowThreshold(),
+                properties.getSampleRate(), meterRegistry::getObject));
+    }
+}
@@ -0,0 +1,39 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione della strumentazione dei metodi di controller e servizi.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.instrumentation")
+public class InstrumentationProperties {
+
+    /**
+     * LOGGING (LoggingAspect: log di ingresso e uscita con argomenti e
+     * risultati) oppure TIMING (solo latenze su istogramma, log delle chiamate
+     * lente o campionate).
+     */
+    private Mode mode = Mode.LOGGING;
+
+    /**
+     * Soglia oltre la quale una chiamata viene registrata a livello WARN (solo
+     * modalità TIMING).
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Una chiamata ogni {@code sampleRate} per metodo viene registrata a livello
+     * DEBUG; 0 disabilita il campionamento (solo modalità TIMING).
+     */
+    private int sampleRate = 1000;
+
+    public enum Mode {
+        LOGGING,
+        TIMING
+    }
+}
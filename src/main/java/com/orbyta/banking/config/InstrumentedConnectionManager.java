@@ -0,0 +1,51 @@
+package com.orbyta.banking.config;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pool di connessioni che misura il tempo di attesa per ottenere una
+ * connessione (lease), utile per dimensionare il pool rispetto al traffico.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseWaitTimer;
+
+    public InstrumentedConnectionManager(Timer leaseWaitTimer) {
+        super();
+        this.leaseWaitTimer = leaseWaitTimer;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        long start = System.nanoTime();
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+
+        return new LeaseRequest() {
+
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    return delegate.get(timeout);
+                } finally {
+                    leaseWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+}
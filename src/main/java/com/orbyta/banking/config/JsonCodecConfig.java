@@ -0,0 +1,45 @@
+package com.orbyta.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Configurazione della (de)serializzazione JSON.
+ *
+ * Con {@code api.banking.json.optimized-accessors=true} il modulo Blackbird
+ * viene registrato come bean: Spring Boot lo aggiunge all'ObjectMapper
+ * dell'applicazione (controller, WebClient, archivi su file), mentre per il
+ * RestTemplate, che ha un convertitore JSON con un ObjectMapper proprio,
+ * viene aggiunto da {@link #registerOn(RestTemplate, BlackbirdModule)}.
+ */
+@Configuration
+@EnableConfigurationProperties(JsonCodecProperties.class)
+public class JsonCodecConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonCodecConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "api.banking.json", name = "optimized-accessors", havingValue = "true")
+    public BlackbirdModule blackbirdModule() {
+        logger.info("Optimized JSON accessors enabled (Jackson Blackbird)");
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Registra il modulo sui convertitori JSON del RestTemplate.
+     */
+    public static void registerOn(RestTemplate restTemplate, BlackbirdModule module) {
+        restTemplate.getMessageConverters().stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(MappingJackson2HttpMessageConverter.class::cast)
+                .forEach(converter -> converter.getObjectMapper().registerModule(module));
+    }
+}
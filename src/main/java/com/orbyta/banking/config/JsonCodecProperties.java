@@ -0,0 +1,21 @@
+package com.orbyta.banking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione della (de)serializzazione JSON dei modelli scambiati con
+ * Fabrick e con i client.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.json")
+public class JsonCodecProperties {
+
+    /**
+     * Sostituisce l'accesso per reflection a campi, getter, setter e
+     * costruttori dei modelli con accessori generati a runtime (modulo
+     * Jackson Blackbird). L'output JSON non cambia.
+     */
+    private boolean optimizedAccessors = false;
+}
@@ -0,0 +1,63 @@
+package com.orbyta.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configurazione del profilo "reactive": server Netty e WebClient non bloccante
+ * verso Fabrick, con le stesse impostazioni di pool e timeout del RestTemplate.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    private static final String POOL_NAME = "fabrick";
+
+    /**
+     * Con Tomcat nel classpath Spring Boot lo preferirebbe anche in modalità
+     * reattiva: l'event loop di Netty serve tutte le richieste con pochi thread.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fabrickConnectionProvider(HttpClientProperties properties) {
+        logger.info("Fabrick reactive connection pool configured: maxConnections={}, maxPendingAcquires={}",
+                properties.getMaxConnectionsTotal(), properties.getMaxPendingAcquires());
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxConnectionsTotal())
+                .pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleEviction())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient fabrickWebClient(WebClient.Builder webClientBuilder, ConnectionProvider fabrickConnectionProvider,
+            HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(fabrickConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.orbyta.banking.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.resilience.AdaptiveConcurrencyLimiter;
+import com.orbyta.banking.service.resilience.UpstreamGuard;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione di circuit breaker, bulkhead e limite adattivo di concorrenza
+ * verso Fabrick.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ResilienceProperties properties,
+            MeterRegistry meterRegistry) {
+        ResilienceProperties.Limit limit = properties.getLimit();
+        return new AdaptiveConcurrencyLimiter(limit.isEnabled(), limit.getInitialLimit(), limit.getMinLimit(),
+                limit.getMaxLimit(), limit.getRttTolerance(), limit.getMaxQueueSize(), limit.getMaxQueueWait(),
+                limit.getBaselineWindow(), meterRegistry);
+    }
+
+    @Bean
+    public UpstreamGuard upstreamGuard(ResilienceProperties properties,
+            AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter, MeterRegistry meterRegistry) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                // i 4xx dipendono dalla richiesta, non dallo stato dell'upstream
+                // i rifiuti del limite adattivo non raggiungono Fabrick
+                .ignoreExceptions(HttpClientErrorException.class, UpstreamUnavailableException.class)
+                .build();
+
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getMaxWaitDuration())
+                .build();
+
+        return new UpstreamGuard(properties.isEnabled(), circuitBreakerConfig, bulkheadConfig,
+                adaptiveConcurrencyLimiter, meterRegistry);
+    }
+}
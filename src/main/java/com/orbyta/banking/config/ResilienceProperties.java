@@ -0,0 +1,119 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione di circuit breaker e bulkhead applicati a ciascuna operazione
+ * verso Fabrick. Ogni operazione ha istanze separate con gli stessi
+ * parametri.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.resilience")
+public class ResilienceProperties {
+
+    /**
+     * Abilita circuit breaker e bulkhead.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Percentuale di chiamate fallite (5xx ed errori di rete) oltre la quale il
+     * circuito si apre.
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * Percentuale di chiamate lente oltre la quale il circuito si apre.
+     */
+    private float slowCallRateThreshold = 80;
+
+    /**
+     * Durata oltre la quale una chiamata è considerata lenta.
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    /**
+     * Numero di chiamate recenti su cui vengono calcolate le percentuali.
+     */
+    private int slidingWindowSize = 50;
+
+    /**
+     * Chiamate minime nella finestra prima di valutare le soglie.
+     */
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * Permanenza nello stato aperto prima di lasciar passare le chiamate di
+     * prova.
+     */
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+    /**
+     * Chiamate di prova consentite nello stato semi-aperto.
+     */
+    private int permittedCallsInHalfOpenState = 5;
+
+    /**
+     * Chiamate contemporanee consentite per operazione (bulkhead).
+     */
+    private int maxConcurrentCalls = 50;
+
+    /**
+     * Attesa massima per un posto nel bulkhead; con 0 la chiamata viene
+     * rifiutata subito.
+     */
+    private Duration maxWaitDuration = Duration.ZERO;
+
+    private Limit limit = new Limit();
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Abilita il limite adattivo di chiamate contemporanee verso Fabrick.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Limite iniziale, prima dei primi campioni.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Limite minimo.
+         */
+        private int minLimit = 4;
+
+        /**
+         * Limite massimo.
+         */
+        private int maxLimit = 200;
+
+        /**
+         * Rapporto tra tempo di risposta medio recente e tempo a vuoto oltre il
+         * quale il limite viene ridotto.
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Chiamate che possono attendere un posto oltre il limite.
+         */
+        private int maxQueueSize = 50;
+
+        /**
+         * Attesa massima per un posto; con 0 le chiamate oltre il limite vengono
+         * rifiutate subito.
+         */
+        private Duration maxQueueWait = Duration.ofMillis(50);
+
+        /**
+         * Finestra su cui viene misurato il tempo di risposta a vuoto: il
+         * riferimento è il minimo delle ultime due finestre.
+         */
+        private Duration baselineWindow = Duration.ofSeconds(10);
+    }
+}
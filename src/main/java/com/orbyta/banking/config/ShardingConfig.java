@@ -0,0 +1,29 @@
+package com.orbyta.banking.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orbyta.banking.service.sharding.TransactionRangeSharder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione della suddivisione in blocchi delle richieste di transazioni.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public TransactionRangeSharder transactionRangeSharder(ShardingProperties properties,
+            @Qualifier(ExecutorConfig.FABRICK_EXECUTOR) ExecutorService fabrickExecutor,
+            MeterRegistry meterRegistry) {
+        return new TransactionRangeSharder(properties.isEnabled(), properties.getChunk(),
+                properties.getMaxConcurrency(), properties.getMaxAttempts(), properties.getRetryBackoff(),
+                fabrickExecutor, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.orbyta.banking.config;
+
+import java.time.Duration;
+import java.time.Period;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione della suddivisione in blocchi delle richieste di transazioni
+ * su intervalli ampi.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.transactions.sharding")
+public class ShardingProperties {
+
+    /**
+     * Abilita la suddivisione dell'intervallo di date in blocchi scaricati in
+     * parallelo.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Ampiezza di ciascun blocco (formato Period, es. 1m o P1M).
+     */
+    private Period chunk = Period.ofMonths(1);
+
+    /**
+     * Blocchi della stessa richiesta scaricati contemporaneamente.
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * Tentativi complessivi per ciascun blocco (errori 5xx e di rete).
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Attesa prima di ripetere un blocco, moltiplicata per il numero del
+     * tentativo.
+     */
+    private Duration retryBackoff = Duration.ofMillis(200);
+}
@@ -0,0 +1,40 @@
+package com.orbyta.banking.config;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.store.TransactionStore;
+import com.orbyta.banking.service.store.TransactionStoreSync;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configurazione dell'archivio locale delle transazioni e della sua
+ * sincronizzazione periodica.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TransactionStoreProperties.class)
+public class TransactionStoreConfig {
+
+    @Bean
+    public TransactionStore transactionStore(TransactionStoreProperties properties, Clock clock,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TransactionStore(properties.isEnabled(), properties.getDirectory(), clock, objectMapper,
+                meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "api.banking.store", name = "enabled", havingValue = "true")
+    public TransactionStoreSync transactionStoreSync(FabrickService fabrickService,
+            TransactionStoreProperties properties) {
+        return new TransactionStoreSync(fabrickService, properties.getSyncInterval());
+    }
+}
@@ -0,0 +1,32 @@
+package com.orbyta.banking.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configurazione dell'archivio locale delle transazioni.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.banking.store")
+public class TransactionStoreProperties {
+
+    /**
+     * Abilita l'archivio locale delle giornate contabili chiuse.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Cartella con un file NDJSON per account.
+     */
+    private Path directory = Path.of("data", "transactions");
+
+    /**
+     * Intervallo tra una sincronizzazione degli account archiviati e la
+     * successiva.
+     */
+    private Duration syncInterval = Duration.ofMinutes(15);
+}
@@ -12,11 +12,20 @@ public final class ApiConstants {
     // API endpoints
     public static final String BALANCE_ENDPOINT = "/balance";
     public static final String TRANSACTIONS_ENDPOINT = "/transactions";
+    public static final String TRANSACTIONS_STREAM_ENDPOINT = "/transactions/stream";
     public static final String MONEY_TRANSFERS_ENDPOINT = "/payments/money-transfers";
+    public static final String BALANCES_BATCH_ENDPOINT = "/balances";
+    public static final String OVERVIEW_ENDPOINT = "/overview";
+    public static final String BULK_MONEY_TRANSFERS_ENDPOINT = "/payments/money-transfers/bulk";
 
     // Status codes
     public static final String STATUS_OK = "OK";
     public static final String STATUS_KO = "KO";
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+    public static final String STATUS_PENDING = "PENDING";
+
+    // Media types
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
     // Date formats
     public static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd";
@@ -11,6 +11,14 @@ public final class ErrorConstants {
     public static final String API_ERROR = "API_ERROR";
     public static final String INTERNAL_ERROR = "INTERNAL_ERROR";
     public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+    public static final String BULKHEAD_FULL = "BULKHEAD_FULL";
+    public static final String CONCURRENCY_LIMITED = "CONCURRENCY_LIMITED";
+    public static final String IDEMPOTENCY_KEY_MISMATCH = "IDEMPOTENCY_KEY_MISMATCH";
+    public static final String IDEMPOTENCY_OUTCOME_UNKNOWN = "IDEMPOTENCY_OUTCOME_UNKNOWN";
+    public static final String BULK_QUEUE_FULL = "BULK_QUEUE_FULL";
+    public static final String JOB_NOT_FOUND = "JOB_NOT_FOUND";
 
     // Error field names
     public static final String CODE = "code";
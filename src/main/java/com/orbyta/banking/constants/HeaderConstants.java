@@ -13,4 +13,5 @@ public final class HeaderConstants {
 
     // Other headers
     public static final String X_TIME_ZONE = "X-Time-Zone";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 }
@@ -21,4 +21,7 @@ public final class ValidationConstants {
     public static final int MAX_DESCRIPTION_LENGTH = 140;
     public static final int MAX_CREDITOR_NAME_LENGTH = 70;
     public static final int MAX_ADDRESS_LENGTH = 40;
+    public static final int MAX_BATCH_ACCOUNTS = 500;
+    public static final int MAX_BULK_TRANSFERS = 100_000;
+    public static final int MAX_BULK_PAGE_SIZE = 1_000;
 }
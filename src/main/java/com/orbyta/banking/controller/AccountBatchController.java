@@ -0,0 +1,68 @@
+package com.orbyta.banking.controller;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.batch.AccountOverviewPayload;
+import com.orbyta.banking.model.batch.BalanceBatchPayload;
+import com.orbyta.banking.model.batch.BalanceBatchRequest;
+import com.orbyta.banking.service.batch.AccountOverviewService;
+import com.orbyta.banking.service.batch.BalanceBatchService;
+
+import jakarta.validation.Valid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint che leggono più account in una sola richiesta.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping(ApiConstants.API_ACCOUNTS_BASE_PATH)
+public class AccountBatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBatchController.class);
+
+    private final BalanceBatchService balanceBatchService;
+    private final AccountOverviewService accountOverviewService;
+
+    public AccountBatchController(BalanceBatchService balanceBatchService,
+            AccountOverviewService accountOverviewService) {
+        this.balanceBatchService = balanceBatchService;
+        this.accountOverviewService = accountOverviewService;
+        logger.info("AccountBatchController initialized");
+    }
+
+    /**
+     * Saldi di più account: la risposta contiene un esito per ciascun account e
+     * il flag {@code partial} se alcuni saldi non sono disponibili.
+     */
+    @PostMapping(ApiConstants.BALANCES_BATCH_ENDPOINT)
+    public ResponseEntity<ApiResponse<BalanceBatchPayload>> getAccountBalances(
+            @RequestBody @Valid BalanceBatchRequest request) {
+
+        logger.info("Received request to get balances for {} accounts", request.getAccountIds().size());
+
+        BalanceBatchPayload payload = balanceBatchService.getBalances(request.getAccountIds());
+        return ResponseEntity.ok(new ApiResponse<>(ApiConstants.STATUS_OK, payload, null));
+    }
+
+    /**
+     * Account con i relativi saldi in un'unica risposta, al posto della lista
+     * degli account seguita da una richiesta di saldo per account.
+     */
+    @GetMapping(ApiConstants.OVERVIEW_ENDPOINT)
+    public ResponseEntity<ApiResponse<AccountOverviewPayload>> getAccountOverview() {
+        logger.info("Received request to get accounts overview");
+
+        ApiResponse<AccountOverviewPayload> response = accountOverviewService.getOverview();
+        return ResponseEntity.ok(response);
+    }
+}
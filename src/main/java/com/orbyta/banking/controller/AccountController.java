@@ -1,6 +1,7 @@
 package com.orbyta.banking.controller;
 
 import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.HeaderConstants;
 import com.orbyta.banking.model.ApiResponse;
 import com.orbyta.banking.model.account.AccountsPayload;
 import com.orbyta.banking.model.balance.Balance;
@@ -8,21 +9,27 @@ import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
 import com.orbyta.banking.model.transaction.TransactionsPayload;
 import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.TransactionStream;
 
 import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(ApiConstants.API_ACCOUNTS_BASE_PATH)
 public class AccountController {
 
@@ -63,15 +70,43 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Transazioni in streaming NDJSON, una per riga, scritte man mano che
+     * arrivano da Fabrick: pensato per intervalli molto ampi.
+     */
+    @GetMapping("/{accountId}" + ApiConstants.TRANSACTIONS_STREAM_ENDPOINT)
+    public ResponseEntity<StreamingResponseBody> streamAccountTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = true) String fromAccountingDate,
+            @RequestParam(required = true) String toAccountingDate) {
+
+        logger.info("Received request to stream transactions for account: {} from: {} to: {}",
+                accountId, fromAccountingDate, toAccountingDate);
+
+        TransactionStream transactions = fabrickService.openTransactionStream(
+                accountId, fromAccountingDate, toAccountingDate);
+        StreamingResponseBody body = output -> {
+            try (transactions) {
+                long count = transactions.writeTo(output);
+                logger.info("Streamed {} transactions for account: {}", count, accountId);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping("/{accountId}" + ApiConstants.MONEY_TRANSFERS_ENDPOINT)
     public ResponseEntity<ApiResponse<MoneyTransferResponse>> createMoneyTransfer(
             @PathVariable String accountId,
+            @RequestHeader(value = HeaderConstants.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @RequestBody @Valid MoneyTransferRequest request) {
 
         logger.info("Received request to create money transfer for account: {} with amount: {} {}",
                 accountId, request.getAmount(), request.getCurrency());
 
-        ApiResponse<MoneyTransferResponse> response = fabrickService.createMoneyTransfer(accountId, request);
+        ApiResponse<MoneyTransferResponse> response = fabrickService.createMoneyTransfer(accountId, request,
+                idempotencyKey);
         return ResponseEntity.ok(response);
     }
 }
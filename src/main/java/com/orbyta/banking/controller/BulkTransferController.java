@@ -0,0 +1,82 @@
+package com.orbyta.banking.controller;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.bulk.BulkTransferJobPayload;
+import com.orbyta.banking.model.bulk.BulkTransferRequest;
+import com.orbyta.banking.service.bulk.BulkTransferService;
+
+import jakarta.validation.Valid;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Bonifici in blocco: la richiesta viene accettata subito come job e l'esito
+ * dei singoli bonifici si consulta con l'endpoint di stato.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping(ApiConstants.API_ACCOUNTS_BASE_PATH)
+public class BulkTransferController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkTransferController.class);
+
+    private final BulkTransferService bulkTransferService;
+
+    public BulkTransferController(BulkTransferService bulkTransferService) {
+        this.bulkTransferService = bulkTransferService;
+        logger.info("BulkTransferController initialized");
+    }
+
+    /**
+     * Valida tutti i bonifici e li accoda come job: la risposta 202 contiene
+     * l'ID del job e l'header Location dell'endpoint di stato.
+     */
+    @PostMapping("/{accountId}" + ApiConstants.BULK_MONEY_TRANSFERS_ENDPOINT)
+    public ResponseEntity<ApiResponse<BulkTransferJobPayload>> submitBulkTransfer(
+            @PathVariable String accountId,
+            @RequestBody @Valid BulkTransferRequest request) {
+
+        logger.info("Received request to create {} money transfers for account: {}", request.getTransfers().size(),
+                accountId);
+
+        BulkTransferJobPayload payload = bulkTransferService.submit(accountId, request.getTransfers());
+        URI location = UriComponentsBuilder.fromPath(ApiConstants.API_ACCOUNTS_BASE_PATH)
+                .path("/{accountId}" + ApiConstants.BULK_MONEY_TRANSFERS_ENDPOINT + "/{jobId}")
+                .buildAndExpand(accountId, payload.getJobId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(new ApiResponse<>(ApiConstants.STATUS_OK, payload, null));
+    }
+
+    /**
+     * Stato del job con gli esiti dei bonifici da {@code offset}, al più
+     * {@code limit} per risposta.
+     */
+    @GetMapping("/{accountId}" + ApiConstants.BULK_MONEY_TRANSFERS_ENDPOINT + "/{jobId}")
+    public ResponseEntity<ApiResponse<BulkTransferJobPayload>> getBulkTransfer(
+            @PathVariable String accountId,
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        logger.debug("Received request to get bulk transfer job {} for account: {}", jobId, accountId);
+
+        BulkTransferJobPayload payload = bulkTransferService.getJob(accountId, jobId, offset, limit);
+        return ResponseEntity.ok(new ApiResponse<>(ApiConstants.STATUS_OK, payload, null));
+    }
+}
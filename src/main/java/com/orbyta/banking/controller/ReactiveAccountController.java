@@ -0,0 +1,81 @@
+package com.orbyta.banking.controller;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.ReactiveFabrickService;
+
+import jakarta.validation.Valid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoint non bloccanti, attivi con il profilo "reactive" al posto di
+ * {@link AccountController}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(ApiConstants.API_ACCOUNTS_BASE_PATH)
+public class ReactiveAccountController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAccountController.class);
+
+    private final ReactiveFabrickService fabrickService;
+
+    public ReactiveAccountController(ReactiveFabrickService fabrickService) {
+        this.fabrickService = fabrickService;
+        logger.info("ReactiveAccountController initialized");
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<AccountsPayload>>> getAccounts() {
+        logger.info("Received request to get account information");
+        return fabrickService.getAccounts().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{accountId}" + ApiConstants.BALANCE_ENDPOINT)
+    public Mono<ResponseEntity<ApiResponse<Balance>>> getAccountBalance(@PathVariable String accountId) {
+        logger.info("Received request to get balance for account: {}", accountId);
+        return fabrickService.getAccountBalance(accountId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{accountId}" + ApiConstants.TRANSACTIONS_ENDPOINT)
+    public Mono<ResponseEntity<ApiResponse<TransactionsPayload>>> getAccountTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = true) String fromAccountingDate,
+            @RequestParam(required = true) String toAccountingDate) {
+
+        logger.info("Received request to get transactions for account: {} from: {} to: {}",
+                accountId, fromAccountingDate, toAccountingDate);
+
+        return fabrickService.getAccountTransactions(accountId, fromAccountingDate, toAccountingDate)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{accountId}" + ApiConstants.MONEY_TRANSFERS_ENDPOINT)
+    public Mono<ResponseEntity<ApiResponse<MoneyTransferResponse>>> createMoneyTransfer(
+            @PathVariable String accountId,
+            @RequestBody @Valid MoneyTransferRequest request) {
+
+        logger.info("Received request to create money transfer for account: {} with amount: {} {}",
+                accountId, request.getAmount(), request.getCurrency());
+
+        return fabrickService.createMoneyTransfer(accountId, request).map(ResponseEntity::ok);
+    }
+}
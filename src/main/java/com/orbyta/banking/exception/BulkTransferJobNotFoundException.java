@@ -0,0 +1,19 @@
+package com.orbyta.banking.exception;
+
+/**
+ * Job di bonifici in blocco inesistente, scaduto o appartenente a un altro
+ * account. Viene restituito al client come 404.
+ */
+public class BulkTransferJobNotFoundException extends RuntimeException {
+
+    private final String jobId;
+
+    public BulkTransferJobNotFoundException(String jobId) {
+        super("Bulk transfer job " + jobId + " not found");
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+}
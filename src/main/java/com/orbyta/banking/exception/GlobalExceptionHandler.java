@@ -8,15 +8,21 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.MissingRequestValueException;
 
 import com.orbyta.banking.model.ApiResponse;
 
@@ -75,6 +81,104 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Chiamata verso Fabrick rifiutata da circuit breaker o bulkhead: il client
+     * riceve subito un 503, con Retry-After quando il circuito è aperto.
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        logger.warn("External API call rejected: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ex.getCode());
+        errorDetails.put(ErrorConstants.DESCRIPTION, "External API temporarily unavailable");
+        errorDetails.put(ErrorConstants.DETAILS, ex.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+        }
+        return response.body(apiResponse);
+    }
+
+    /**
+     * Risposta di Fabrick con esito KO o senza i dati attesi, rilevata prima di
+     * scrivere qualcosa al client.
+     */
+    @ExceptionHandler(UpstreamErrorResponseException.class)
+    public ResponseEntity<ApiResponse<Object>> handleUpstreamErrorResponse(UpstreamErrorResponseException ex) {
+        logger.error("External API returned an error response: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.API_ERROR);
+        errorDetails.put(ErrorConstants.DESCRIPTION, ex.getMessage());
+        errorDetails.put(ErrorConstants.DETAILS, ex.getUpstreamError());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.BAD_GATEWAY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        logger.warn("Idempotency key reused: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.IDEMPOTENCY_KEY_MISMATCH);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Idempotency key already used for a different request");
+        errorDetails.put(ErrorConstants.DETAILS, ex.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Tentativo ripetuto di un bonifico dall'esito incerto: la chiave non può
+     * essere riusata senza rischiare un doppio addebito.
+     */
+    @ExceptionHandler(IdempotencyOutcomeUnknownException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotencyOutcomeUnknown(
+            IdempotencyOutcomeUnknownException ex) {
+        logger.warn("Retry of money transfer with unknown outcome: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.IDEMPOTENCY_OUTCOME_UNKNOWN);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Outcome of the original request is unknown");
+        errorDetails.put(ErrorConstants.DETAILS, ex.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(BulkTransferJobNotFoundException.class)
+    public ResponseEntity<ApiResponse<Object>> handleBulkTransferJobNotFound(BulkTransferJobNotFoundException ex) {
+        logger.warn("Bulk transfer job not found: {}", ex.getJobId());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.JOB_NOT_FOUND);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Bulk transfer job not found or expired");
+        errorDetails.put(ErrorConstants.DETAILS, ex.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception ex) {
         logger.error("Unexpected error occurred", ex);
@@ -94,10 +198,78 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         logger.warn("Validation error occurred: {}", ex.getMessage());
+        return buildValidationErrorResponse(ex.getBindingResult());
+    }
+
+    /**
+     * Errori di validazione del body sul percorso reattivo (profilo "reactive").
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Object>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        logger.warn("Validation error occurred: {}", ex.getMessage());
+        return buildValidationErrorResponse(ex.getBindingResult());
+    }
+
+    /**
+     * Parametri obbligatori mancanti sul percorso reattivo (profilo "reactive").
+     */
+    @ExceptionHandler(MissingRequestValueException.class)
+    public ResponseEntity<ApiResponse<Object>> handleMissingRequestValue(MissingRequestValueException ex) {
+        String paramName = ex.getName();
+        logger.warn("Missing required parameter: {}", paramName);
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.MISSING_PARAMETER);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Required parameter '" + paramName + "' is missing");
+        errorDetails.put(ErrorConstants.PARAM, paramName);
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Errori del WebClient verso Fabrick, mappati come quelli del RestTemplate:
+     * gli errori 4xx dell'upstream vengono restituiti con lo stesso status.
+     */
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ApiResponse<Object>> handleWebClientException(WebClientException ex) {
+        logger.error("WebClient exception occurred while calling external API", ex);
+
+        Map<String, Object> errorDetails = new HashMap<>();
+
+        if (ex instanceof WebClientResponseException responseEx && responseEx.getStatusCode().is4xxClientError()) {
+            logger.error("HTTP client error: {} - {}", responseEx.getStatusCode(),
+                    responseEx.getResponseBodyAsString());
+
+            errorDetails.put(ErrorConstants.CODE, ErrorConstants.API_ERROR);
+            errorDetails.put(ErrorConstants.DESCRIPTION, "Error calling external API: " + responseEx.getStatusCode());
+            errorDetails.put(ErrorConstants.DETAILS, responseEx.getResponseBodyAsString());
+
+            ApiResponse<Object> apiResponse = new ApiResponse<>();
+            apiResponse.setStatus(ApiConstants.STATUS_KO);
+            apiResponse.setError(errorDetails);
+
+            return new ResponseEntity<>(apiResponse, responseEx.getStatusCode());
+        }
+
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.API_ERROR);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Error calling external API");
+        errorDetails.put(ErrorConstants.DETAILS, ex.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        return new ResponseEntity<>(apiResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 
+    private ResponseEntity<ApiResponse<Object>> buildValidationErrorResponse(BindingResult bindingResult) {
         Map<String, String> validationErrors = new HashMap<>();
 
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = error instanceof FieldError
                     ? ((FieldError) error).getField()
                     : error.getObjectName();
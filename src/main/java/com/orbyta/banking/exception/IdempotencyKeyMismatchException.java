@@ -0,0 +1,19 @@
+package com.orbyta.banking.exception;
+
+/**
+ * Chiave di idempotenza già usata per un bonifico diverso (altro account o
+ * altri dati). Viene restituita al client come 422.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency key " + idempotencyKey + " was already used for a different money transfer");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,22 @@
+package com.orbyta.banking.exception;
+
+/**
+ * Tentativo ripetuto di un bonifico il cui primo invio è terminato senza un
+ * esito certo (timeout o errore 5xx dopo l'invio della richiesta): Fabrick
+ * potrebbe averlo eseguito, quindi la chiave non viene riusata. Viene
+ * restituita al client come 409.
+ */
+public class IdempotencyOutcomeUnknownException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyOutcomeUnknownException(String idempotencyKey) {
+        super("Outcome of the money transfer with idempotency key " + idempotencyKey
+                + " is unknown: check the account transactions before retrying with a new key");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
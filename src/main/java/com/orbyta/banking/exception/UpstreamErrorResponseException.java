@@ -0,0 +1,23 @@
+package com.orbyta.banking.exception;
+
+/**
+ * Risposta di Fabrick ricevuta con successo HTTP ma con esito KO o senza i
+ * dati attesi. Viene restituita al client come 502 con l'errore riportato da
+ * Fabrick, se presente.
+ */
+public class UpstreamErrorResponseException extends RuntimeException {
+
+    private final Object upstreamError;
+
+    public UpstreamErrorResponseException(String message, Object upstreamError) {
+        super(message);
+        this.upstreamError = upstreamError;
+    }
+
+    /**
+     * Campo {@code error} della risposta di Fabrick, {@code null} se assente.
+     */
+    public Object getUpstreamError() {
+        return upstreamError;
+    }
+}
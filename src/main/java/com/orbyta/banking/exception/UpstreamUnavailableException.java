@@ -0,0 +1,40 @@
+package com.orbyta.banking.exception;
+
+import java.time.Duration;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+/**
+ * Chiamata verso Fabrick rifiutata senza essere eseguita: circuit breaker
+ * aperto oppure troppe chiamate in corso per l'operazione. Viene restituita al
+ * client come 503 con il codice di errore indicato.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final FabrickOperation operation;
+    private final String code;
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(FabrickOperation operation, String code, String message,
+            Duration retryAfter) {
+        super(message);
+        this.operation = operation;
+        this.code = code;
+        this.retryAfter = retryAfter;
+    }
+
+    public FabrickOperation getOperation() {
+        return operation;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Attesa suggerita prima di riprovare, {@code null} se non nota.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
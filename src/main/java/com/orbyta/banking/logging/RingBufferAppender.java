@@ -0,0 +1,245 @@
+package com.orbyta.banking.logging;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+/**
+ * Appender Logback asincrono: i thread delle richieste inseriscono gli eventi
+ * in un buffer circolare senza lock e un thread dedicato li scrive sugli
+ * appender collegati. Gli appender su stream scrivono senza flush per evento:
+ * il flush avviene una volta per blocco di eventi, quando il buffer si svuota
+ * o dopo {@code batchSize} eventi.
+ *
+ * A buffer pieno il comportamento dipende da {@code fullPolicy}: DROP scarta
+ * gli eventi fino a INFO (conteggiati in {@link #getDroppedCount()}), BLOCK
+ * attende che si liberi spazio. Come per il {@code discardingThreshold} di
+ * {@code AsyncAppender}, WARN ed ERROR non vengono mai scartati: anche con
+ * DROP il chiamante attende che si liberi spazio. Con {@code async=false} gli
+ * eventi vengono scritti direttamente dal thread chiamante, come senza questo
+ * appender.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public enum FullPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private boolean async = true;
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private FullPolicy fullPolicy = FullPolicy.DROP;
+    private long maxFlushTime = 1000;
+
+    private MpscRingBuffer<ILoggingEvent> buffer;
+    private Thread worker;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to RingBufferAppender [" + name + "]");
+            return;
+        }
+
+        if (async) {
+            buffer = new MpscRingBuffer<>(capacity);
+            forEachStreamAppender(appender -> appender.setImmediateFlush(false));
+            running = true;
+            worker = new Thread(this::drainLoop, "logback-ring-buffer-" + name);
+            worker.setDaemon(true);
+            worker.start();
+            addInfo("RingBufferAppender [" + name + "] started (capacity=" + buffer.capacity() + ", batchSize="
+                    + batchSize + ", fullPolicy=" + fullPolicy + ")");
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        if (worker != null) {
+            running = false;
+            LockSupport.unpark(worker);
+            try {
+                worker.join(maxFlushTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                addWarn("RingBufferAppender [" + name + "] stopped with " + buffer.size()
+                        + " events not yet written");
+            }
+            worker = null;
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!async) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+
+        // messaggio formattato, thread e MDC vanno fissati nel thread chiamante
+        event.prepareForDeferredProcessing();
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (fullPolicy == FullPolicy.DROP && isDiscardable(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        while (!buffer.offer(event)) {
+            if (!running) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+    }
+
+    private static boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.INFO_INT;
+    }
+
+    private void drainLoop() {
+        while (running || buffer.size() > 0) {
+            int written = 0;
+            ILoggingEvent event;
+            while (written < batchSize && (event = buffer.poll()) != null) {
+                appenders.appendLoopOnAppenders(event);
+                written++;
+            }
+
+            if (written > 0) {
+                flush();
+            } else if (running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void flush() {
+        forEachStreamAppender(appender -> {
+            try {
+                if (appender.isStarted() && appender.getOutputStream() != null) {
+                    appender.getOutputStream().flush();
+                }
+            } catch (IOException e) {
+                addError("Failed to flush appender [" + appender.getName() + "]", e);
+            }
+        });
+    }
+
+    private void forEachStreamAppender(Consumer<OutputStreamAppender<ILoggingEvent>> action) {
+        Iterator<Appender<ILoggingEvent>> iterator = appenders.iteratorForAppenders();
+        while (iterator.hasNext()) {
+            if (iterator.next() instanceof OutputStreamAppender<ILoggingEvent> streamAppender) {
+                action.accept(streamAppender);
+            }
+        }
+    }
+
+    /**
+     * Eventi in attesa di essere scritti.
+     */
+    public int getQueueDepth() {
+        MpscRingBuffer<ILoggingEvent> current = buffer;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * Eventi fino a INFO scartati perché il buffer era pieno.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueueCapacity() {
+        MpscRingBuffer<ILoggingEvent> current = buffer;
+        return current != null ? current.capacity() : 0;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void setFullPolicy(String fullPolicy) {
+        this.fullPolicy = FullPolicy.valueOf(fullPolicy.trim().toUpperCase());
+    }
+
+    public void setMaxFlushTime(long maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,55 @@
+package com.orbyta.banking.logging;
+
+import java.util.Iterator;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Espone le metriche dei {@link RingBufferAppender} configurati in Logback:
+ * eventi in coda ({@code logback.async.queue.depth}), capacità del buffer e
+ * eventi scartati a buffer pieno ({@code logback.async.dropped}).
+ */
+@Component
+public class RingBufferAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+
+        for (Logger logger : loggerContext.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof RingBufferAppender appender) {
+                    bind(registry, appender);
+                }
+            }
+        }
+    }
+
+    private static void bind(MeterRegistry registry, RingBufferAppender appender) {
+        Gauge.builder("logback.async.queue.depth", appender, RingBufferAppender::getQueueDepth)
+                .description("Eventi di log in attesa di essere scritti")
+                .tag("appender", appender.getName())
+                .register(registry);
+        Gauge.builder("logback.async.queue.capacity", appender, RingBufferAppender::getQueueCapacity)
+                .description("Capacità del buffer degli eventi di log")
+                .tag("appender", appender.getName())
+                .register(registry);
+        FunctionCounter.builder("logback.async.dropped", appender, RingBufferAppender::getDroppedCount)
+                .description("Eventi di log scartati perché il buffer era pieno")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
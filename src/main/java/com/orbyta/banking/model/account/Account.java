@@ -1,5 +1,7 @@
 package com.orbyta.banking.model.account;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.orbyta.banking.model.json.InternedStringDeserializer;
 import java.util.Date;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -12,15 +14,20 @@ public class Account {
 
     private String accountId;
     private String iban;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String abiCode;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String cabCode;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String countryCode;
     private String internationalCin;
     private String nationalCin;
     private String account;
     private String alias;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String productName;
     private String holderName;
     private Date activatedDate;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String currency;
 }
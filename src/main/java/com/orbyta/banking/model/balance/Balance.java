@@ -1,5 +1,7 @@
 package com.orbyta.banking.model.balance;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.orbyta.banking.model.json.InternedStringDeserializer;
 import java.math.BigDecimal;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -12,5 +14,6 @@ public class Balance {
     private String date;
     private BigDecimal balance;
     private BigDecimal availableBalance;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String currency;
 }
@@ -0,0 +1,30 @@
+package com.orbyta.banking.model.batch;
+
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.balance.Balance;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountOverview {
+
+    private Account account;
+
+    /**
+     * Esito della lettura del saldo: OK, KO oppure TIMEOUT.
+     */
+    private String balanceStatus;
+
+    /**
+     * Il saldo, presente solo con esito OK.
+     */
+    private Balance balance;
+
+    /**
+     * Dettagli dell'errore sul saldo, presenti con esito KO o TIMEOUT.
+     */
+    private Object balanceError;
+}
@@ -0,0 +1,23 @@
+package com.orbyta.banking.model.batch;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountOverviewPayload {
+
+    /**
+     * True se il saldo di almeno un account non è disponibile.
+     */
+    private boolean partial;
+
+    /**
+     * Gli account nell'ordine restituito da Fabrick, ciascuno con il proprio
+     * saldo.
+     */
+    private List<AccountOverview> list;
+}
@@ -0,0 +1,29 @@
+package com.orbyta.banking.model.batch;
+
+import com.orbyta.banking.model.balance.Balance;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBatchItem {
+
+    private String accountId;
+
+    /**
+     * Esito della lettura: OK, KO oppure TIMEOUT.
+     */
+    private String status;
+
+    /**
+     * Il saldo, presente solo con esito OK.
+     */
+    private Balance balance;
+
+    /**
+     * Dettagli dell'errore, presenti con esito KO o TIMEOUT.
+     */
+    private Object error;
+}
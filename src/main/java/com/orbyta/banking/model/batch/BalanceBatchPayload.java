@@ -0,0 +1,22 @@
+package com.orbyta.banking.model.batch;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBatchPayload {
+
+    /**
+     * True se almeno un saldo non è stato letto (esito KO o TIMEOUT).
+     */
+    private boolean partial;
+
+    /**
+     * Un elemento per account, nell'ordine della richiesta.
+     */
+    private List<BalanceBatchItem> list;
+}
@@ -0,0 +1,25 @@
+package com.orbyta.banking.model.batch;
+
+import com.orbyta.banking.constants.ValidationConstants;
+import java.util.List;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceBatchRequest {
+
+    /**
+     * Obbligatorio. Gli ID degli account di cui leggere il saldo; i duplicati
+     * vengono letti una sola volta.
+     */
+    @NotEmpty(message = "La lista degli account è obbligatoria")
+    @Size(max = ValidationConstants.MAX_BATCH_ACCOUNTS, message = "La lista degli account non deve superare i "
+            + ValidationConstants.MAX_BATCH_ACCOUNTS + " elementi")
+    private List<@NotBlank(message = "L'ID dell'account è obbligatorio") String> accountIds;
+}
@@ -0,0 +1,31 @@
+package com.orbyta.banking.model.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferItem {
+
+    /**
+     * Posizione del bonifico nella richiesta, a partire da 0.
+     */
+    private int index;
+
+    /**
+     * Esito del bonifico: PENDING, OK oppure KO.
+     */
+    private String status;
+
+    /**
+     * L'ID del bonifico restituito da Fabrick, presente solo con esito OK.
+     */
+    private String moneyTransferId;
+
+    /**
+     * Dettagli dell'errore, presenti solo con esito KO.
+     */
+    private Object error;
+}
@@ -0,0 +1,51 @@
+package com.orbyta.banking.model.bulk;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferJobPayload {
+
+    private String jobId;
+
+    private String accountId;
+
+    private BulkTransferJobState state;
+
+    /**
+     * Numero di bonifici del job.
+     */
+    private int total;
+
+    /**
+     * Bonifici ancora senza esito.
+     */
+    private int pending;
+
+    private int succeeded;
+
+    private int failed;
+
+    private Instant createdAt;
+
+    /**
+     * Presente solo con stato COMPLETED.
+     */
+    private Instant completedAt;
+
+    /**
+     * Posizione del primo elemento di {@code list}.
+     */
+    private int offset;
+
+    /**
+     * Esiti dei bonifici da {@code offset}, al più quanti richiesti; vuota
+     * nella risposta di accettazione del job.
+     */
+    private List<BulkTransferItem> list;
+}
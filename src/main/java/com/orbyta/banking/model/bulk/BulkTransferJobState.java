@@ -0,0 +1,22 @@
+package com.orbyta.banking.model.bulk;
+
+/**
+ * Stato di un job di bonifici in blocco.
+ */
+public enum BulkTransferJobState {
+
+    /**
+     * Accettato, nessun bonifico ancora avviato.
+     */
+    QUEUED,
+
+    /**
+     * Almeno un bonifico avviato e alcuni ancora da eseguire.
+     */
+    RUNNING,
+
+    /**
+     * Tutti i bonifici hanno un esito.
+     */
+    COMPLETED
+}
@@ -0,0 +1,27 @@
+package com.orbyta.banking.model.bulk;
+
+import com.orbyta.banking.constants.ValidationConstants;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import java.util.List;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferRequest {
+
+    /**
+     * Obbligatorio. I bonifici da eseguire, validati tutti prima di accettare
+     * il job.
+     */
+    @NotEmpty(message = "La lista dei bonifici è obbligatoria")
+    @Size(max = ValidationConstants.MAX_BULK_TRANSFERS, message = "La lista dei bonifici non deve superare i "
+            + ValidationConstants.MAX_BULK_TRANSFERS + " elementi")
+    private List<@NotNull(message = "Il bonifico è obbligatorio") @Valid MoneyTransferRequest> transfers;
+}
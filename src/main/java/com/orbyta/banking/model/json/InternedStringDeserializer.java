@@ -0,0 +1,41 @@
+package com.orbyta.banking.model.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * Deserializzatore per i campi stringa a bassa cardinalità dei modelli di
+ * Fabrick ({@code @JsonDeserialize(using = InternedStringDeserializer.class)}).
+ *
+ * Il valore viene cercato nella tabella condivisa {@link #INTERNER} a partire
+ * dal buffer di caratteri del parser: le occorrenze ripetute dello stesso
+ * valore, anche in risposte diverse, diventano la stessa istanza di
+ * {@link String} e non vengono allocate di nuovo. I token diversi da una
+ * stringa seguono le regole standard di Jackson.
+ */
+public class InternedStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tabella condivisa da tutti i campi annotati.
+     */
+    public static final StringInterner INTERNER = new StringInterner(4096, 64);
+
+    public InternedStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return INTERNER.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return INTERNER.intern(StringDeserializer.instance.deserialize(parser, context));
+    }
+}
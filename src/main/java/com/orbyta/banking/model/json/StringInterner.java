@@ -0,0 +1,101 @@
+package com.orbyta.banking.model.json;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Tabella limitata di stringhe canoniche per i valori a bassa cardinalità
+ * delle risposte di Fabrick (valute, tipi di transazione, codici ABI e CAB).
+ *
+ * La tabella ha un numero fisso di posizioni e non rimuove mai le voci: una
+ * volta piena, i valori nuovi vengono restituiti come nuove stringhe senza
+ * essere aggiunti, così valori inattesi ad alta cardinalità non possono farla
+ * crescere. Anche i valori più lunghi di {@code maxLength} non vengono
+ * aggiunti. La ricerca confronta direttamente i caratteri del parser, quindi
+ * un valore già presente non alloca nulla; la tabella è sicura per l'uso
+ * concorrente senza lock.
+ */
+public final class StringInterner {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final int MAX_PROBES = 8;
+
+    private final String[] slots;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity  numero di posizioni, arrotondato alla potenza di due successiva
+     * @param maxLength lunghezza massima dei valori aggiunti alla tabella
+     */
+    public StringInterner(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Restituisce la stringa canonica per i caratteri indicati.
+     */
+    public String intern(char[] chars, int offset, int length) {
+        return intern(chars, offset, length, null);
+    }
+
+    /**
+     * Restituisce la stringa canonica uguale a {@code value}.
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        return intern(value.toCharArray(), 0, value.length(), value);
+    }
+
+    // value, se presente, è la stringa già costruita con gli stessi caratteri
+    private String intern(char[] chars, int offset, int length, String value) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int index = spread(hash) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            String current = (String) SLOTS.getAcquire(slots, index);
+            if (current == null) {
+                if (value == null) {
+                    value = new String(chars, offset, length);
+                }
+                current = (String) SLOTS.compareAndExchange(slots, index, null, value);
+                if (current == null) {
+                    return value;
+                }
+            }
+            if (current.hashCode() == hash && matches(current, chars, offset, length)) {
+                return current;
+            }
+            index = (index + 1) & mask;
+        }
+        return value != null ? value : new String(chars, offset, length);
+    }
+
+    private static boolean matches(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
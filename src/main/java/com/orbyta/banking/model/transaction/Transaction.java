@@ -1,5 +1,7 @@
 package com.orbyta.banking.model.transaction;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.orbyta.banking.model.json.InternedStringDeserializer;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +17,7 @@ public class Transaction {
     private String valueDate;
     private TransactionType type;
     private BigDecimal amount;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String currency;
     private String description;
 }
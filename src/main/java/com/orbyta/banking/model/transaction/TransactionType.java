@@ -1,5 +1,7 @@
 package com.orbyta.banking.model.transaction;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.orbyta.banking.model.json.InternedStringDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +10,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TransactionType {
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String enumeration;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String value;
 }
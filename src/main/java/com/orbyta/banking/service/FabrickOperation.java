@@ -0,0 +1,26 @@
+package com.orbyta.banking.service;
+
+/**
+ * Operazioni esposte dall'API Fabrick, usate come chiave per metriche e
+ * politiche applicate alle chiamate upstream.
+ */
+public enum FabrickOperation {
+
+    GET_ACCOUNTS("getAccounts"),
+    GET_BALANCE("getAccountBalance"),
+    GET_TRANSACTIONS("getAccountTransactions"),
+    CREATE_MONEY_TRANSFER("createMoneyTransfer");
+
+    private final String tagValue;
+
+    FabrickOperation(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /**
+     * Nome dell'operazione usato come tag delle metriche.
+     */
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,37 @@
+package com.orbyta.banking.service;
+
+import org.springframework.core.ParameterizedTypeReference;
+
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+/**
+ * Tipi generici delle risposte di Fabrick per ogni endpoint, risolti una volta
+ * sola e condivisi da {@link FabrickService} e {@link ReactiveFabrickService}
+ * invece di creare e risolvere un nuovo {@link ParameterizedTypeReference} a
+ * ogni chiamata.
+ */
+final class FabrickResponseTypes {
+
+    static final ParameterizedTypeReference<ApiResponse<AccountsPayload>> ACCOUNTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    static final ParameterizedTypeReference<ApiResponse<Balance>> BALANCE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    static final ParameterizedTypeReference<ApiResponse<TransactionsPayload>> TRANSACTIONS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    static final ParameterizedTypeReference<ApiResponse<MoneyTransferResponse>> MONEY_TRANSFER =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private FabrickResponseTypes() {
+    }
+}
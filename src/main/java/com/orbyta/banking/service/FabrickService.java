@@ -7,21 +7,45 @@ import com.orbyta.banking.model.account.AccountsPayload;
 import com.orbyta.banking.model.balance.Balance;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.Transaction;
 import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.BalanceCache;
+import com.orbyta.banking.service.cache.TransactionRangeCache;
+import com.orbyta.banking.service.coalescing.RequestCoalescer;
+import com.orbyta.banking.service.hedging.RequestHedger;
+import com.orbyta.banking.service.idempotency.IdempotencyStore;
+import com.orbyta.banking.service.metrics.UpstreamMetrics;
+import com.orbyta.banking.service.resilience.UpstreamGuard;
+import com.orbyta.banking.service.sharding.TransactionRangeSharder;
+import com.orbyta.banking.service.store.TransactionStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 @Service
 public class FabrickService {
 
@@ -30,17 +54,51 @@ public class FabrickService {
         private final RestTemplate restTemplate;
         private final String apiUrl;
         private final String apiKey;
+        private final BalanceCache balanceCache;
+        private final TransactionRangeCache transactionRangeCache;
+        private final TransactionStore transactionStore;
+        private final RequestCoalescer requestCoalescer;
+        private final TransactionRangeSharder transactionRangeSharder;
+        private final UpstreamMetrics upstreamMetrics;
+        private final UpstreamGuard upstreamGuard;
+        private final RequestHedger requestHedger;
+        private final IdempotencyStore idempotencyStore;
+        private final ObjectMapper objectMapper;
+        private final ObjectReader transactionReader;
+        private final ObjectWriter transactionWriter;
 
         public FabrickService(RestTemplate restTemplate,
                         @Value("${api.banking.url}") String apiUrl,
-                        @Value("${api.banking.key}") String apiKey) {
+                        @Value("${api.banking.key}") String apiKey,
+                        BalanceCache balanceCache,
+                        TransactionRangeCache transactionRangeCache,
+                        TransactionStore transactionStore,
+                        RequestCoalescer requestCoalescer,
+                        TransactionRangeSharder transactionRangeSharder,
+                        UpstreamMetrics upstreamMetrics,
+                        UpstreamGuard upstreamGuard,
+                        RequestHedger requestHedger,
+                        IdempotencyStore idempotencyStore,
+                        ObjectMapper objectMapper) {
                 this.restTemplate = restTemplate;
                 this.apiUrl = apiUrl;
                 this.apiKey = apiKey;
+                this.balanceCache = balanceCache;
+                this.transactionRangeCache = transactionRangeCache;
+                this.transactionStore = transactionStore;
+                this.requestCoalescer = requestCoalescer;
+                this.transactionRangeSharder = transactionRangeSharder;
+                this.upstreamMetrics = upstreamMetrics;
+                this.upstreamGuard = upstreamGuard;
+                this.requestHedger = requestHedger;
+                this.idempotencyStore = idempotencyStore;
+                this.objectMapper = objectMapper;
+                this.transactionReader = objectMapper.readerFor(Transaction.class);
+                this.transactionWriter = objectMapper.writerFor(Transaction.class);
                 logger.info("FabrickService initialized with API URL: {}", apiUrl);
         }
 
-        private HttpHeaders getHeaders() {
+        HttpHeaders getHeaders() {
                 HttpHeaders headers = new HttpHeaders();
                 headers.set(HeaderConstants.AUTH_SCHEMA, HeaderConstants.AUTH_SCHEMA_VALUE);
                 headers.set(HeaderConstants.API_KEY, apiKey);
@@ -48,6 +106,11 @@ public class FabrickService {
         }
 
         public ApiResponse<AccountsPayload> getAccounts() {
+                return requestCoalescer.execute(FabrickOperation.GET_ACCOUNTS, null, List.of(),
+                                () -> upstreamGuard.execute(FabrickOperation.GET_ACCOUNTS, this::fetchAccounts));
+        }
+
+        private ApiResponse<AccountsPayload> fetchAccounts() {
                 logger.debug("Fetching account info from external API");
                 HttpEntity<?> entity = new HttpEntity<>(getHeaders());
 
@@ -55,18 +118,33 @@ public class FabrickService {
                                 .toUriString();
 
                 logger.debug("Calling GET {}", url);
-                ResponseEntity<ApiResponse<AccountsPayload>> response = restTemplate.exchange(
-                                url,
-                                HttpMethod.GET,
-                                entity,
-                                new ParameterizedTypeReference<ApiResponse<AccountsPayload>>() {
-                                });
+                ResponseEntity<ApiResponse<AccountsPayload>> response = requestHedger.execute(
+                                FabrickOperation.GET_ACCOUNTS,
+                                () -> upstreamMetrics.record(FabrickOperation.GET_ACCOUNTS,
+                                                () -> restTemplate.exchange(
+                                                                url,
+                                                                HttpMethod.GET,
+                                                                entity,
+                                                                FabrickResponseTypes.ACCOUNTS)));
 
                 logger.info("Account info API response status: {}", response.getStatusCode());
                 return response.getBody();
         }
 
         public ApiResponse<Balance> getAccountBalance(String accountId) {
+                return balanceCache.get(accountId, this::fetchAccountBalance);
+        }
+
+        private ApiResponse<Balance> fetchAccountBalance(String accountId) {
+                // la chiave include l'ultima invalidazione: una lettura partita dopo un bonifico
+                // non può agganciarsi a una chiamata iniziata prima e riceverne il saldo vecchio
+                String epoch = String.valueOf(balanceCache.invalidationEpoch(accountId));
+                return requestCoalescer.execute(FabrickOperation.GET_BALANCE, accountId, List.of(epoch),
+                                () -> upstreamGuard.execute(FabrickOperation.GET_BALANCE,
+                                                () -> exchangeAccountBalance(accountId)));
+        }
+
+        private ApiResponse<Balance> exchangeAccountBalance(String accountId) {
                 logger.debug("Fetching balance for account: {}", accountId);
                 HttpEntity<?> entity = new HttpEntity<>(getHeaders());
 
@@ -74,12 +152,14 @@ public class FabrickService {
                                 .toUriString();
 
                 logger.debug("Calling GET {}", balanceUrl);
-                ResponseEntity<ApiResponse<Balance>> response = restTemplate.exchange(
-                                balanceUrl,
-                                HttpMethod.GET,
-                                entity,
-                                new ParameterizedTypeReference<ApiResponse<Balance>>() {
-                                });
+                ResponseEntity<ApiResponse<Balance>> response = requestHedger.execute(
+                                FabrickOperation.GET_BALANCE,
+                                () -> upstreamMetrics.record(FabrickOperation.GET_BALANCE,
+                                                () -> restTemplate.exchange(
+                                                                balanceUrl,
+                                                                HttpMethod.GET,
+                                                                entity,
+                                                                FabrickResponseTypes.BALANCE)));
 
                 logger.info("Balance API response status: {} for account: {}", response.getStatusCode(), accountId);
                 return response.getBody();
@@ -87,6 +167,46 @@ public class FabrickService {
 
         public ApiResponse<TransactionsPayload> getAccountTransactions(String accountId, String fromAccountingDate,
                         String toAccountingDate) {
+                LocalDate from = parseAccountingDate(fromAccountingDate);
+                LocalDate to = parseAccountingDate(toAccountingDate);
+                if (from == null || to == null || from.isAfter(to)) {
+                        // la validazione dell'intervallo resta a carico dell'upstream
+                        return fetchAccountTransactions(accountId, fromAccountingDate, toAccountingDate);
+                }
+
+                // i sotto-intervalli mancanti in cache vengono letti dall'archivio locale, che scarica a
+                // blocchi in parallelo solo i giorni non archiviati e quelli non ancora chiusi
+                return transactionRangeCache.get(accountId, from, to,
+                                (id, rangeFrom, rangeTo) -> transactionStore.get(id, rangeFrom, rangeTo,
+                                                this::loadTransactionRange));
+        }
+
+        /**
+         * Aggiorna l'archivio locale delle transazioni fino all'ultima giornata
+         * chiusa per tutti gli account archiviati.
+         */
+        public void syncStoredTransactions() {
+                transactionStore.syncAll(this::loadTransactionRange);
+        }
+
+        private ApiResponse<TransactionsPayload> loadTransactionRange(String accountId, LocalDate from,
+                        LocalDate to) {
+                return transactionRangeSharder.load(accountId, from, to,
+                                (chunkId, chunkFrom, chunkTo) -> fetchAccountTransactions(chunkId,
+                                                chunkFrom.toString(), chunkTo.toString()));
+        }
+
+        private ApiResponse<TransactionsPayload> fetchAccountTransactions(String accountId, String fromAccountingDate,
+                        String toAccountingDate) {
+                return requestCoalescer.execute(FabrickOperation.GET_TRANSACTIONS, accountId,
+                                List.of(String.valueOf(fromAccountingDate), String.valueOf(toAccountingDate)),
+                                () -> upstreamGuard.execute(FabrickOperation.GET_TRANSACTIONS,
+                                                () -> exchangeAccountTransactions(accountId, fromAccountingDate,
+                                                                toAccountingDate)));
+        }
+
+        private ApiResponse<TransactionsPayload> exchangeAccountTransactions(String accountId,
+                        String fromAccountingDate, String toAccountingDate) {
                 logger.debug("Fetching transactions for account: {} from: {} to: {}", accountId, fromAccountingDate,
                                 toAccountingDate);
                 HttpEntity<?> entity = new HttpEntity<>(getHeaders());
@@ -97,19 +217,109 @@ public class FabrickService {
                                 .toUriString();
 
                 logger.debug("Calling GET {}", transactionsUrl);
-                ResponseEntity<ApiResponse<TransactionsPayload>> response = restTemplate.exchange(
-                                transactionsUrl,
-                                HttpMethod.GET,
-                                entity,
-                                new ParameterizedTypeReference<ApiResponse<TransactionsPayload>>() {
-                                });
+                ResponseEntity<ApiResponse<TransactionsPayload>> response = requestHedger.execute(
+                                FabrickOperation.GET_TRANSACTIONS,
+                                () -> upstreamMetrics.record(FabrickOperation.GET_TRANSACTIONS,
+                                                () -> restTemplate.exchange(
+                                                                transactionsUrl,
+                                                                HttpMethod.GET,
+                                                                entity,
+                                                                FabrickResponseTypes.TRANSACTIONS)));
 
                 logger.info("Transactions API response status: {} for account: {}", response.getStatusCode(),
                                 accountId);
                 return response.getBody();
         }
 
+        /**
+         * Apre la risposta di Fabrick con le transazioni dell'intervallo senza
+         * leggerne le transazioni, che verranno copiate in streaming dal
+         * chiamante. Gli errori HTTP dell'upstream e le risposte KO o senza
+         * {@code payload.list} vengono sollevati qui, prima che al client sia
+         * stato scritto qualcosa. Cache e accorpamento delle richieste non vengono
+         * usati.
+         */
+        public TransactionStream openTransactionStream(String accountId, String fromAccountingDate,
+                        String toAccountingDate) {
+                logger.debug("Streaming transactions for account: {} from: {} to: {}", accountId, fromAccountingDate,
+                                toAccountingDate);
+                String transactionsUrl = buildAccountUrl(accountId, ApiConstants.TRANSACTIONS_ENDPOINT)
+                                .queryParam("fromAccountingDate", fromAccountingDate)
+                                .queryParam("toAccountingDate", toAccountingDate)
+                                .toUriString();
+                URI uri = restTemplate.getUriTemplateHandler().expand(transactionsUrl);
+
+                logger.debug("Calling GET {}", transactionsUrl);
+                ClientHttpResponse response = upstreamGuard.execute(FabrickOperation.GET_TRANSACTIONS,
+                                () -> openTransactionResponse(uri, accountId));
+                try {
+                        return TransactionStream.open(response, objectMapper.getFactory(), transactionReader,
+                                        transactionWriter);
+                } catch (IOException e) {
+                        throw new ResourceAccessException(
+                                        "I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+                }
+        }
+
+        /**
+         * Esegue la richiesta e verifica lo stato della risposta. Metriche e
+         * circuit breaker misurano la chiamata fino alla ricezione degli header:
+         * il corpo viene copiato dopo.
+         */
+        private ClientHttpResponse openTransactionResponse(URI uri, String accountId) {
+                UpstreamMetrics.Sample sample = upstreamMetrics.start(FabrickOperation.GET_TRANSACTIONS);
+                ClientHttpResponse response;
+                try {
+                        ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+                        request.getHeaders().putAll(getHeaders());
+                        response = request.execute();
+                } catch (IOException e) {
+                        ResourceAccessException failure = new ResourceAccessException(
+                                        "I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+                        sample.stop(failure);
+                        throw failure;
+                }
+
+                try {
+                        ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+                        if (errorHandler.hasError(response)) {
+                                errorHandler.handleError(uri, HttpMethod.GET, response);
+                        }
+                        HttpStatusCode status = response.getStatusCode();
+                        sample.stop(status.value());
+                        logger.info("Transactions stream API response status: {} for account: {}", status,
+                                        accountId);
+                } catch (IOException e) {
+                        response.close();
+                        ResourceAccessException failure = new ResourceAccessException(
+                                        "I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+                        sample.stop(failure);
+                        throw failure;
+                } catch (RuntimeException e) {
+                        response.close();
+                        sample.stop(e);
+                        throw e;
+                }
+                return response;
+        }
+
         public ApiResponse<MoneyTransferResponse> createMoneyTransfer(String accountId, MoneyTransferRequest request) {
+                return createMoneyTransfer(accountId, request, null);
+        }
+
+        /**
+         * Crea il bonifico una sola volta per {@code idempotencyKey}: i tentativi
+         * ripetuti con la stessa chiave ricevono la risposta del primo. Senza
+         * chiave ogni chiamata crea un nuovo bonifico.
+         */
+        public ApiResponse<MoneyTransferResponse> createMoneyTransfer(String accountId, MoneyTransferRequest request,
+                        String idempotencyKey) {
+                return idempotencyStore.execute(accountId, idempotencyKey, request,
+                                () -> exchangeMoneyTransfer(accountId, request));
+        }
+
+        private ApiResponse<MoneyTransferResponse> exchangeMoneyTransfer(String accountId,
+                        MoneyTransferRequest request) {
                 logger.debug("Creating money transfer for account: {} with amount: {} {}",
                                 accountId, request.getAmount(), request.getCurrency());
 
@@ -123,20 +333,35 @@ public class FabrickService {
                                 .toUriString();
 
                 logger.debug("Calling POST {}", moneyTransferUrl);
-                ResponseEntity<ApiResponse<MoneyTransferResponse>> response = restTemplate.exchange(
-                                moneyTransferUrl,
-                                HttpMethod.POST,
-                                entity,
-                                new ParameterizedTypeReference<ApiResponse<MoneyTransferResponse>>() {
-                                });
+                ResponseEntity<ApiResponse<MoneyTransferResponse>> response;
+                try {
+                        response = upstreamGuard.execute(FabrickOperation.CREATE_MONEY_TRANSFER,
+                                        () -> upstreamMetrics.record(FabrickOperation.CREATE_MONEY_TRANSFER,
+                                                        () -> restTemplate.exchange(
+                                                                moneyTransferUrl,
+                                                                HttpMethod.POST,
+                                                                entity,
+                                                                FabrickResponseTypes.MONEY_TRANSFER)));
+                } finally {
+                        // anche un bonifico fallito può aver modificato il saldo
+                        balanceCache.invalidate(accountId);
+                }
 
                 logger.info("Money transfer API response status: {} for account: {}", response.getStatusCode(),
                                 accountId);
                 return response.getBody();
         }
 
+        private static LocalDate parseAccountingDate(String accountingDate) {
+                try {
+                        return LocalDate.parse(accountingDate);
+                } catch (DateTimeParseException e) {
+                        return null;
+                }
+        }
+
         // Metodo per costruire l'URL per le operazioni sull'account
-        private UriComponentsBuilder buildAccountUrl(String accountId, String path) {
+        UriComponentsBuilder buildAccountUrl(String accountId, String path) {
                 return UriComponentsBuilder.fromUriString(apiUrl)
                                 .pathSegment(accountId)
                                 .path(path);
@@ -0,0 +1,141 @@
+package com.orbyta.banking.service;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.HeaderConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante non bloccante di {@link FabrickService}: le chiamate verso Fabrick
+ * non occupano un thread per la durata della risposta, quindi il numero di
+ * richieste in volo è limitato dal pool di connessioni e non dai thread.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveFabrickService {
+
+        private static final Logger logger = LoggerFactory.getLogger(ReactiveFabrickService.class);
+
+        private final WebClient webClient;
+        private final String apiUrl;
+        private final String apiKey;
+
+        public ReactiveFabrickService(WebClient fabrickWebClient,
+                        @Value("${api.banking.url}") String apiUrl,
+                        @Value("${api.banking.key}") String apiKey) {
+                this.webClient = fabrickWebClient;
+                this.apiUrl = apiUrl;
+                this.apiKey = apiKey;
+                logger.info("ReactiveFabrickService initialized with API URL: {}", apiUrl);
+        }
+
+        private void setHeaders(HttpHeaders headers) {
+                headers.set(HeaderConstants.AUTH_SCHEMA, HeaderConstants.AUTH_SCHEMA_VALUE);
+                headers.set(HeaderConstants.API_KEY, apiKey);
+        }
+
+        public Mono<ApiResponse<AccountsPayload>> getAccounts() {
+                logger.debug("Fetching account info from external API");
+                String url = UriComponentsBuilder.fromUriString(apiUrl)
+                                .toUriString();
+
+                logger.debug("Calling GET {}", url);
+                return webClient.get()
+                                .uri(url)
+                                .headers(this::setHeaders)
+                                .retrieve()
+                                .toEntity(FabrickResponseTypes.ACCOUNTS)
+                                .mapNotNull(response -> {
+                                        logger.info("Account info API response status: {}", response.getStatusCode());
+                                        return response.getBody();
+                                });
+        }
+
+        public Mono<ApiResponse<Balance>> getAccountBalance(String accountId) {
+                logger.debug("Fetching balance for account: {}", accountId);
+                String balanceUrl = buildAccountUrl(accountId, ApiConstants.BALANCE_ENDPOINT)
+                                .toUriString();
+
+                logger.debug("Calling GET {}", balanceUrl);
+                return webClient.get()
+                                .uri(balanceUrl)
+                                .headers(this::setHeaders)
+                                .retrieve()
+                                .toEntity(FabrickResponseTypes.BALANCE)
+                                .mapNotNull(response -> {
+                                        logger.info("Balance API response status: {} for account: {}",
+                                                        response.getStatusCode(), accountId);
+                                        return response.getBody();
+                                });
+        }
+
+        public Mono<ApiResponse<TransactionsPayload>> getAccountTransactions(String accountId,
+                        String fromAccountingDate, String toAccountingDate) {
+                logger.debug("Fetching transactions for account: {} from: {} to: {}", accountId, fromAccountingDate,
+                                toAccountingDate);
+                String transactionsUrl = buildAccountUrl(accountId, ApiConstants.TRANSACTIONS_ENDPOINT)
+                                .queryParam("fromAccountingDate", fromAccountingDate)
+                                .queryParam("toAccountingDate", toAccountingDate)
+                                .toUriString();
+
+                logger.debug("Calling GET {}", transactionsUrl);
+                return webClient.get()
+                                .uri(transactionsUrl)
+                                .headers(this::setHeaders)
+                                .retrieve()
+                                .toEntity(FabrickResponseTypes.TRANSACTIONS)
+                                .mapNotNull(response -> {
+                                        logger.info("Transactions API response status: {} for account: {}",
+                                                        response.getStatusCode(), accountId);
+                                        return response.getBody();
+                                });
+        }
+
+        public Mono<ApiResponse<MoneyTransferResponse>> createMoneyTransfer(String accountId,
+                        MoneyTransferRequest request) {
+                logger.debug("Creating money transfer for account: {} with amount: {} {}",
+                                accountId, request.getAmount(), request.getCurrency());
+                String moneyTransferUrl = buildAccountUrl(accountId, ApiConstants.MONEY_TRANSFERS_ENDPOINT)
+                                .toUriString();
+
+                logger.debug("Calling POST {}", moneyTransferUrl);
+                return webClient.post()
+                                .uri(moneyTransferUrl)
+                                .headers(headers -> {
+                                        setHeaders(headers);
+                                        headers.set(HeaderConstants.X_TIME_ZONE, ApiConstants.TIMEZONE_EUROPE_ROME);
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(request)
+                                .retrieve()
+                                .toEntity(FabrickResponseTypes.MONEY_TRANSFER)
+                                .mapNotNull(response -> {
+                                        logger.info("Money transfer API response status: {} for account: {}",
+                                                        response.getStatusCode(), accountId);
+                                        return response.getBody();
+                                });
+        }
+
+        // Metodo per costruire l'URL per le operazioni sull'account
+        private UriComponentsBuilder buildAccountUrl(String accountId, String path) {
+                return UriComponentsBuilder.fromUriString(apiUrl)
+                                .pathSegment(accountId)
+                                .path(path);
+        }
+}
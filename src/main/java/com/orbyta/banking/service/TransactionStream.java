@@ -0,0 +1,191 @@
+package com.orbyta.banking.service;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamErrorResponseException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Risposta aperta di Fabrick con le transazioni di un intervallo, da copiare
+ * verso il client in formato NDJSON (una transazione per riga). Il corpo
+ * upstream viene letto token per token: in memoria c'è al più una transazione
+ * alla volta, indipendentemente dall'ampiezza dell'intervallo.
+ *
+ * L'apertura ({@link #open}) legge la risposta fino all'inizio di
+ * {@code payload.list}: una risposta KO o senza transazioni viene segnalata con
+ * {@link UpstreamErrorResponseException} prima che la risposta al client
+ * venga avviata. Durante la copia ({@link #writeTo}) status e header NDJSON
+ * sono già stati inviati: un corpo interrotto o un elemento della lista che
+ * non è una transazione viene segnalato con una riga finale
+ * {@code {"status":"KO",...}}, anche se nessuna transazione è stata scritta.
+ */
+public class TransactionStream implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionStream.class);
+
+    private static final String STATUS_FIELD = "status";
+    private static final String ERROR_FIELD = "error";
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String LIST_FIELD = "list";
+
+    private final ClientHttpResponse response;
+    private final JsonParser parser;
+    private final JsonFactory jsonFactory;
+    private final ObjectReader transactionReader;
+    private final ObjectWriter transactionWriter;
+
+    private TransactionStream(ClientHttpResponse response, JsonParser parser, JsonFactory jsonFactory,
+            ObjectReader transactionReader, ObjectWriter transactionWriter) {
+        this.response = response;
+        this.parser = parser;
+        this.jsonFactory = jsonFactory;
+        this.transactionReader = transactionReader;
+        // il flush dopo ogni riga annullerebbe il buffer del container: si svuota solo dopo la prima
+        this.transactionWriter = transactionWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Legge la risposta fino all'inizio di {@code payload.list}. In caso di
+     * errore la risposta viene chiusa.
+     *
+     * @throws UpstreamErrorResponseException se la risposta ha esito KO o non
+     *                                        contiene {@code payload.list}
+     */
+    static TransactionStream open(ClientHttpResponse response, JsonFactory jsonFactory,
+            ObjectReader transactionReader, ObjectWriter transactionWriter) throws IOException {
+        JsonParser parser = null;
+        try {
+            parser = jsonFactory.createParser(response.getBody());
+            moveToTransactionList(parser);
+            return new TransactionStream(response, parser, jsonFactory, transactionReader, transactionWriter);
+        } catch (IOException | RuntimeException e) {
+            if (parser != null) {
+                parser.close();
+            }
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copia le transazioni di {@code payload.list} su {@code output}, nell'ordine
+     * ricevuto. La prima riga viene inviata subito, le successive seguono il
+     * buffer del container. Se la lettura si interrompe viene scritta una
+     * riga finale di errore.
+     *
+     * @return il numero di transazioni scritte
+     */
+    public long writeTo(OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Unexpected " + token + " in transaction list");
+                    }
+                    Transaction transaction = transactionReader.readValue(parser);
+                    transactionWriter.writeValue(generator, transaction);
+                    generator.writeRaw('\n');
+                    if (++count == 1) {
+                        generator.flush();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // status e header sono già stati inviati: l'errore può essere solo una riga dello stream
+                logger.warn("Transaction stream interrupted after {} transactions: {}", count, e.getMessage());
+                writeError(generator, e);
+            }
+            generator.flush();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            logger.debug("Unable to close transaction stream parser", e);
+        }
+        response.close();
+    }
+
+    private static void writeError(JsonGenerator generator, Exception failure) throws IOException {
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.API_ERROR);
+        errorDetails.put(ErrorConstants.DESCRIPTION, "Transaction stream interrupted");
+        errorDetails.put(ErrorConstants.DETAILS, failure.getMessage());
+
+        ApiResponse<Object> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(ApiConstants.STATUS_KO);
+        apiResponse.setError(errorDetails);
+
+        generator.writeObject(apiResponse);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Posiziona il parser sull'inizio dell'array {@code payload.list}, saltando
+     * gli altri campi della risposta.
+     *
+     * @throws UpstreamErrorResponseException se lo status precede la lista ed è
+     *                                        KO, o se la lista manca
+     */
+    private static void moveToTransactionList(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new UpstreamErrorResponseException("External API returned an unexpected response", null);
+        }
+        String status = null;
+        Object error = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (STATUS_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                status = parser.getText();
+            } else if (ERROR_FIELD.equals(field)) {
+                error = parser.readValueAsTree();
+            } else if (PAYLOAD_FIELD.equals(field) && value == JsonToken.START_OBJECT
+                    && !ApiConstants.STATUS_KO.equals(status)) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String payloadField = parser.currentName();
+                    JsonToken payloadValue = parser.nextToken();
+                    if (LIST_FIELD.equals(payloadField) && payloadValue == JsonToken.START_ARRAY) {
+                        return;
+                    }
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (ApiConstants.STATUS_KO.equals(status)) {
+            throw new UpstreamErrorResponseException("External API returned a KO response", error);
+        }
+        throw new UpstreamErrorResponseException("External API response has no transaction list", error);
+    }
+}
@@ -0,0 +1,84 @@
+package com.orbyta.banking.service.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.batch.AccountOverview;
+import com.orbyta.banking.model.batch.AccountOverviewPayload;
+import com.orbyta.banking.model.batch.BalanceBatchItem;
+import com.orbyta.banking.model.batch.BalanceBatchPayload;
+import com.orbyta.banking.service.FabrickService;
+
+/**
+ * Panoramica degli account con i relativi saldi in un'unica risposta: la
+ * lista degli account viene letta da Fabrick e i saldi vengono poi letti in
+ * parallelo tramite {@link BalanceBatchService}.
+ *
+ * L'intera operazione ha una scadenza complessiva: il tempo rimasto dopo la
+ * lettura degli account è quello concesso ai saldi, e i saldi non pronti allo
+ * scadere vengono segnati TIMEOUT.
+ */
+public class AccountOverviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountOverviewService.class);
+
+    private final FabrickService fabrickService;
+    private final BalanceBatchService balanceBatchService;
+    private final Duration deadline;
+
+    public AccountOverviewService(FabrickService fabrickService, BalanceBatchService balanceBatchService,
+            Duration deadline) {
+        this.fabrickService = fabrickService;
+        this.balanceBatchService = balanceBatchService;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Restituisce gli account con i relativi saldi. Se la lettura degli account
+     * non va a buon fine, la risposta di Fabrick viene restituita così com'è.
+     */
+    public ApiResponse<AccountOverviewPayload> getOverview() {
+        long start = System.nanoTime();
+
+        ApiResponse<AccountsPayload> accountsResponse = fabrickService.getAccounts();
+        if (accountsResponse == null || !ApiConstants.STATUS_OK.equals(accountsResponse.getStatus())) {
+            return new ApiResponse<>(accountsResponse != null ? accountsResponse.getStatus() : null, null,
+                    accountsResponse != null ? accountsResponse.getError() : null);
+        }
+
+        List<Account> accounts = accountsResponse.getPayload() != null
+                && accountsResponse.getPayload().getList() != null
+                        ? accountsResponse.getPayload().getList()
+                        : List.of();
+        if (accounts.isEmpty()) {
+            return new ApiResponse<>(ApiConstants.STATUS_OK, new AccountOverviewPayload(false, List.of()), null);
+        }
+
+        Duration remaining = deadline.minusNanos(System.nanoTime() - start);
+        logger.debug("Fetching balances for {} accounts with {} ms left", accounts.size(), remaining.toMillis());
+
+        BalanceBatchPayload balances = balanceBatchService.getBalances(
+                accounts.stream().map(Account::getAccountId).toList(), remaining);
+        Map<String, BalanceBatchItem> balancesById = balances.getList().stream()
+                .collect(Collectors.toMap(BalanceBatchItem::getAccountId, Function.identity()));
+
+        List<AccountOverview> overview = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            BalanceBatchItem balance = balancesById.get(account.getAccountId());
+            overview.add(new AccountOverview(account, balance.getStatus(), balance.getBalance(), balance.getError()));
+        }
+        return new ApiResponse<>(ApiConstants.STATUS_OK, new AccountOverviewPayload(balances.isPartial(), overview),
+                null);
+    }
+}
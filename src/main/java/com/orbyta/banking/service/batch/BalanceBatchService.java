@@ -0,0 +1,244 @@
+package com.orbyta.banking.service.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.batch.BalanceBatchItem;
+import com.orbyta.banking.model.batch.BalanceBatchPayload;
+import com.orbyta.banking.service.FabrickService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Legge i saldi di più account in parallelo tramite
+ * {@link FabrickService#getAccountBalance(String)}, passando quindi da cache e
+ * accorpamento delle richieste.
+ *
+ * Al più {@code maxParallelism} letture della stessa richiesta sono in volo
+ * contemporaneamente: ogni lettura che termina libera il posto per l'account
+ * successivo. Un account che non risponde entro {@code itemTimeout} viene
+ * segnato TIMEOUT senza attendere oltre, ma la sua lettura occupa il posto
+ * finché non termina, entro il timeout di risposta del client HTTP, così le
+ * chiamate in volo non superano mai il limite. Le letture scadute non vengono
+ * interrotte perché altre richieste possono essersi accodate alla stessa
+ * chiamata tramite l'accorpamento.
+ *
+ * Poiché un posto può restare occupato fino al timeout del client HTTP, ogni
+ * richiesta ha anche una scadenza complessiva ({@code deadline}): allo scadere
+ * gli account non ancora letti vengono segnati TIMEOUT invece di attendere che
+ * le chiamate bloccate liberino i posti.
+ */
+public class BalanceBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceBatchService.class);
+
+    private final FabrickService fabrickService;
+    private final int maxParallelism;
+    private final Duration itemTimeout;
+    private final Duration deadline;
+    private final ExecutorService executor;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter timedOut;
+
+    public BalanceBatchService(FabrickService fabrickService, int maxParallelism, Duration itemTimeout,
+            Duration deadline, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.fabrickService = fabrickService;
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.itemTimeout = itemTimeout;
+        this.deadline = deadline;
+        this.executor = executor;
+        this.succeeded = itemCounter(meterRegistry, "ok");
+        this.failed = itemCounter(meterRegistry, "ko");
+        this.timedOut = itemCounter(meterRegistry, "timeout");
+    }
+
+    /**
+     * Legge i saldi degli account indicati, restituendo un elemento per account
+     * nell'ordine ricevuto (i duplicati vengono letti una sola volta), entro la
+     * scadenza complessiva configurata.
+     */
+    public BalanceBatchPayload getBalances(List<String> accountIds) {
+        return getBalances(accountIds, deadline);
+    }
+
+    /**
+     * Come {@link #getBalances(List)}, con la scadenza complessiva indicata: allo scadere
+     * di {@code deadline} non vengono avviate altre letture e gli account non
+     * ancora completati vengono segnati TIMEOUT.
+     */
+    public BalanceBatchPayload getBalances(List<String> accountIds, Duration deadline) {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(accountIds));
+        logger.debug("Fetching balances for {} accounts (maxParallelism={}, itemTimeout={}, deadline={})",
+                ids.size(), maxParallelism, itemTimeout, deadline);
+
+        Batch batch = new Batch(ids);
+        if (deadline.isPositive()) {
+            for (int i = 0; i < Math.min(maxParallelism, ids.size()); i++) {
+                batch.startNext();
+            }
+            batch.await(deadline);
+        }
+
+        List<BalanceBatchItem> items = new ArrayList<>(ids.size());
+        boolean partial = false;
+        for (int i = 0; i < ids.size(); i++) {
+            BalanceBatchItem item = batch.results.get(i).getNow(null);
+            if (item == null) {
+                item = timeoutItem(ids.get(i), "Balance not available within the request deadline " + deadline);
+            }
+            count(item);
+            partial |= !ApiConstants.STATUS_OK.equals(item.getStatus());
+            items.add(item);
+        }
+
+        if (partial) {
+            logger.warn("Balance batch completed partially: {} accounts, {} not available", ids.size(),
+                    items.stream().filter(item -> !ApiConstants.STATUS_OK.equals(item.getStatus())).count());
+        }
+        return new BalanceBatchPayload(partial, items);
+    }
+
+    private BalanceBatchItem toItem(String accountId, ApiResponse<Balance> response, Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+
+        if (failure == null) {
+            if (response != null && ApiConstants.STATUS_OK.equals(response.getStatus())) {
+                return new BalanceBatchItem(accountId, ApiConstants.STATUS_OK, response.getPayload(), null);
+            }
+            return errorItem(accountId, ErrorConstants.API_ERROR, "External API returned a KO response",
+                    response != null ? response.getError() : null);
+        }
+        if (failure instanceof TimeoutException) {
+            return timeoutItem(accountId, "Balance not available within " + itemTimeout);
+        }
+
+        logger.warn("Balance for account {} failed in batch: {}", accountId, failure.getMessage());
+        if (failure instanceof UpstreamUnavailableException unavailableEx) {
+            return errorItem(accountId, unavailableEx.getCode(), "External API temporarily unavailable",
+                    unavailableEx.getMessage());
+        }
+        if (failure instanceof HttpClientErrorException httpEx) {
+            return errorItem(accountId, ErrorConstants.API_ERROR,
+                    "Error calling external API: " + httpEx.getStatusCode(), httpEx.getResponseBodyAsString());
+        }
+        if (failure instanceof RestClientException) {
+            return errorItem(accountId, ErrorConstants.API_ERROR, "Error calling external API", failure.getMessage());
+        }
+        return errorItem(accountId, ErrorConstants.INTERNAL_ERROR, "An unexpected error occurred",
+                failure.getMessage());
+    }
+
+    private static BalanceBatchItem errorItem(String accountId, String code, String description, Object details) {
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, code);
+        errorDetails.put(ErrorConstants.DESCRIPTION, description);
+        errorDetails.put(ErrorConstants.DETAILS, details);
+        return new BalanceBatchItem(accountId, ApiConstants.STATUS_KO, null, errorDetails);
+    }
+
+    private static BalanceBatchItem timeoutItem(String accountId, String description) {
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put(ErrorConstants.CODE, ErrorConstants.TIMEOUT);
+        errorDetails.put(ErrorConstants.DESCRIPTION, description);
+        return new BalanceBatchItem(accountId, ApiConstants.STATUS_TIMEOUT, null, errorDetails);
+    }
+
+    private void count(BalanceBatchItem item) {
+        switch (item.getStatus()) {
+            case ApiConstants.STATUS_OK -> succeeded.increment();
+            case ApiConstants.STATUS_TIMEOUT -> timedOut.increment();
+            default -> failed.increment();
+        }
+    }
+
+    private static Counter itemCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fabrick.batch.items")
+                .description("Letture di account eseguite nelle richieste multi-account, per esito")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stato di una singola richiesta multi-account: gli account vengono avviati
+     * in ordine, uno per ogni posto che si libera.
+     */
+    private final class Batch {
+
+        private final List<String> ids;
+        private final List<CompletableFuture<BalanceBatchItem>> results;
+        private final AtomicInteger next = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Batch(List<String> ids) {
+            this.ids = ids;
+            this.results = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                results.add(new CompletableFuture<>());
+            }
+        }
+
+        private void startNext() {
+            int index;
+            while (!closed && (index = next.getAndIncrement()) < ids.size()) {
+                String accountId = ids.get(index);
+                CompletableFuture<BalanceBatchItem> result = results.get(index);
+                try {
+                    CompletableFuture<ApiResponse<Balance>> call = CompletableFuture
+                            .supplyAsync(() -> fabrickService.getAccountBalance(accountId), executor);
+                    // il risultato può scadere prima della chiamata, il posto si libera solo alla sua fine
+                    call.copy()
+                            .orTimeout(itemTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .handle((response, failure) -> toItem(accountId, response, failure))
+                            .thenAccept(result::complete);
+                    call.whenComplete((response, failure) -> startNext());
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // executor saturo: l'account viene segnato KO e si passa al successivo
+                    logger.warn("Balance for account {} rejected by the executor", accountId);
+                    result.complete(errorItem(accountId, ErrorConstants.INTERNAL_ERROR, "Executor saturated", null));
+                }
+            }
+        }
+
+        private void await(Duration deadline) {
+            CompletableFuture<Void> all = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+            try {
+                all.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                closed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            } catch (ExecutionException e) {
+                // i risultati vengono sempre completati normalmente
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
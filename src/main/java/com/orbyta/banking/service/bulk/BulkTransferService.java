@@ -0,0 +1,344 @@
+package com.orbyta.banking.service.bulk;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.constants.ValidationConstants;
+import com.orbyta.banking.exception.BulkTransferJobNotFoundException;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.bulk.BulkTransferItem;
+import com.orbyta.banking.model.bulk.BulkTransferJobPayload;
+import com.orbyta.banking.model.bulk.BulkTransferJobState;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.service.FabrickOperation;
+import com.orbyta.banking.service.FabrickService;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bonifici in blocco eseguiti in background: il job viene accettato subito e
+ * i bonifici vengono inviati tramite
+ * {@link FabrickService#createMoneyTransfer(String, MoneyTransferRequest)} da
+ * {@code workers} thread condivisi tra tutti i job, al ritmo consentito da
+ * {@code rateLimiter}.
+ *
+ * I worker prendono un bonifico alla volta dai job in coda a turno, così un
+ * job piccolo non attende la fine di uno grande. Un bonifico rifiutato senza
+ * essere inviato ({@link UpstreamUnavailableException}, ad esempio circuito
+ * aperto) viene ritentato fino a {@code maxAttempts} volte a distanza di
+ * {@code retryBackoff}; gli altri errori non vengono ritentati perché il
+ * bonifico potrebbe essere stato eseguito.
+ *
+ * La memoria resta limitata: i bonifici in attesa in tutti i job sono al più
+ * {@code maxQueuedItems}, ogni richiesta viene rilasciata appena inviata e
+ * degli esiti si conservano solo ID del bonifico o codice e descrizione
+ * dell'errore. I job completati vengono rimossi dopo {@code retention}.
+ */
+public class BulkTransferService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkTransferService.class);
+
+    // esiti in Job.statuses, 0 per i bonifici ancora da eseguire
+    private static final byte SUCCEEDED = 1;
+    private static final byte FAILED = 2;
+
+    private final FabrickService fabrickService;
+    private final RateLimiter rateLimiter;
+    private final int maxQueuedItems;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final BlockingQueue<Job> runQueue = new LinkedBlockingQueue<>();
+    private final AtomicInteger queuedItems = new AtomicInteger();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private final Counter succeeded;
+    private final Counter failed;
+    private volatile boolean closed;
+
+    public BulkTransferService(FabrickService fabrickService, int workers, RateLimiter rateLimiter,
+            int maxQueuedItems, int maxAttempts, Duration retryBackoff, Duration retention, Clock clock,
+            MeterRegistry meterRegistry) {
+        this.fabrickService = fabrickService;
+        this.rateLimiter = rateLimiter;
+        this.maxQueuedItems = maxQueuedItems;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+        this.clock = clock;
+        this.succeeded = itemCounter(meterRegistry, "ok");
+        this.failed = itemCounter(meterRegistry, "ko");
+
+        Gauge.builder("fabrick.bulk.queued", queuedItems, AtomicInteger::get)
+                .description("Bonifici in blocco accettati e non ancora inviati")
+                .register(meterRegistry);
+        Gauge.builder("fabrick.bulk.jobs", jobs,
+                j -> j.values().stream().filter(job -> !job.isCompleted()).count())
+                .description("Job di bonifici in blocco non ancora completati")
+                .register(meterRegistry);
+
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            workerThreads.add(Thread.ofVirtual().name("bulk-transfer-" + i).start(this::work));
+        }
+        logger.info("Bulk transfer service started (workers={}, maxQueuedItems={})", workerThreads.size(),
+                maxQueuedItems);
+    }
+
+    private static Counter itemCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fabrick.bulk.items")
+                .description("Bonifici in blocco eseguiti, per esito")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accetta i bonifici per l'esecuzione in background e restituisce lo stato
+     * iniziale del job. Se la coda non ha posto per tutti i bonifici il job
+     * viene rifiutato con {@link UpstreamUnavailableException}
+     * ({@code BULK_QUEUE_FULL}).
+     */
+    public BulkTransferJobPayload submit(String accountId, List<MoneyTransferRequest> transfers) {
+        removeExpiredJobs();
+
+        int total = transfers.size();
+        if (queuedItems.addAndGet(total) > maxQueuedItems) {
+            queuedItems.addAndGet(-total);
+            logger.warn("Bulk transfer job of {} items rejected for account {}: queue full", total, accountId);
+            throw new UpstreamUnavailableException(FabrickOperation.CREATE_MONEY_TRANSFER,
+                    ErrorConstants.BULK_QUEUE_FULL, "Bulk transfer queue full (" + maxQueuedItems + " items)",
+                    estimatedWait());
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), accountId, transfers, clock.instant());
+        BulkTransferJobPayload accepted = job.toPayload(0, 0);
+        jobs.put(job.id, job);
+        runQueue.add(job);
+        logger.info("Accepted bulk transfer job {} with {} items for account {}", job.id, total, accountId);
+        return accepted;
+    }
+
+    /**
+     * Stato del job con gli esiti dei bonifici da {@code offset}, al più
+     * {@code limit} (massimo {@value ValidationConstants#MAX_BULK_PAGE_SIZE}).
+     */
+    public BulkTransferJobPayload getJob(String accountId, String jobId, int offset, int limit) {
+        removeExpiredJobs();
+
+        Job job = jobs.get(jobId);
+        if (job == null || !job.accountId.equals(accountId)) {
+            throw new BulkTransferJobNotFoundException(jobId);
+        }
+        int pageSize = Math.max(0, Math.min(limit, ValidationConstants.MAX_BULK_PAGE_SIZE));
+        return job.toPayload(Math.max(0, offset), pageSize);
+    }
+
+    private Duration estimatedWait() {
+        double permitsPerSecond = rateLimiter.getRateLimiterConfig().getLimitForPeriod() * 1e9
+                / rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod().toNanos();
+        return Duration.ofSeconds(Math.max(1, (long) (queuedItems.get() / permitsPerSecond)));
+    }
+
+    private void removeExpiredJobs() {
+        Instant oldest = clock.instant().minus(retention);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(oldest));
+    }
+
+    /**
+     * Ciclo di un worker: prende il prossimo bonifico del primo job in coda e
+     * rimette il job in fondo se ha altri bonifici da avviare.
+     */
+    private void work() {
+        while (!closed) {
+            Job job;
+            try {
+                job = runQueue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            int index = job.next.getAndIncrement();
+            if (index >= job.total) {
+                continue;
+            }
+            if (index + 1 < job.total) {
+                runQueue.add(job);
+            }
+            MoneyTransferRequest request = job.take(index);
+            queuedItems.decrementAndGet();
+            try {
+                execute(job, index, request);
+            } catch (InterruptedException e) {
+                job.fail(index, ErrorConstants.INTERNAL_ERROR, "Bulk transfer service stopped");
+                return;
+            }
+        }
+    }
+
+    private void execute(Job job, int index, MoneyTransferRequest request) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            while (!rateLimiter.acquirePermission()) {
+                if (closed) {
+                    throw new InterruptedException();
+                }
+            }
+            try {
+                ApiResponse<MoneyTransferResponse> response = fabrickService.createMoneyTransfer(job.accountId,
+                        request);
+                if (response != null && ApiConstants.STATUS_OK.equals(response.getStatus())
+                        && response.getPayload() != null) {
+                    job.succeed(index, response.getPayload().getMoneyTransferId());
+                } else {
+                    job.fail(index, ErrorConstants.API_ERROR, "External API returned a KO response");
+                }
+                return;
+            } catch (UpstreamUnavailableException e) {
+                // il bonifico non è stato inviato: si può ritentare senza rischio di duplicati
+                if (attempt >= maxAttempts) {
+                    job.fail(index, e.getCode(), e.getMessage());
+                    return;
+                }
+                logger.debug("Bulk transfer {}[{}] rejected ({}), retrying in {}", job.id, index, e.getCode(),
+                        retryBackoff);
+                Thread.sleep(retryBackoff);
+            } catch (HttpClientErrorException e) {
+                job.fail(index, ErrorConstants.API_ERROR, "Error calling external API: " + e.getStatusCode());
+                return;
+            } catch (RestClientException e) {
+                job.fail(index, ErrorConstants.API_ERROR, "Error calling external API: " + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Bulk transfer {}[{}] failed unexpectedly", job.id, index, e);
+                job.fail(index, ErrorConstants.INTERNAL_ERROR, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        workerThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Un job di bonifici in blocco. Gli esiti sono conservati in array
+     * compatti, accessibili solo sincronizzati sul job.
+     */
+    private final class Job {
+
+        private final String id;
+        private final String accountId;
+        private final int total;
+        private final Instant createdAt;
+        private final MoneyTransferRequest[] requests;
+        private final byte[] statuses;
+        private final String[] moneyTransferIds;
+        private final String[] errorCodes;
+        private final String[] errorDescriptions;
+        private final AtomicInteger next = new AtomicInteger();
+        private int succeededCount;
+        private int failedCount;
+        private volatile Instant completedAt;
+
+        private Job(String id, String accountId, List<MoneyTransferRequest> transfers, Instant createdAt) {
+            this.id = id;
+            this.accountId = accountId;
+            this.total = transfers.size();
+            this.createdAt = createdAt;
+            this.requests = transfers.toArray(MoneyTransferRequest[]::new);
+            this.statuses = new byte[total];
+            this.moneyTransferIds = new String[total];
+            this.errorCodes = new String[total];
+            this.errorDescriptions = new String[total];
+        }
+
+        private synchronized MoneyTransferRequest take(int index) {
+            MoneyTransferRequest request = requests[index];
+            requests[index] = null;
+            return request;
+        }
+
+        private synchronized void succeed(int index, String moneyTransferId) {
+            statuses[index] = SUCCEEDED;
+            moneyTransferIds[index] = moneyTransferId;
+            succeededCount++;
+            succeeded.increment();
+            completeIfDone();
+        }
+
+        private synchronized void fail(int index, String code, String description) {
+            statuses[index] = FAILED;
+            errorCodes[index] = code;
+            errorDescriptions[index] = description;
+            failedCount++;
+            failed.increment();
+            completeIfDone();
+        }
+
+        private void completeIfDone() {
+            if (succeededCount + failedCount == total) {
+                completedAt = clock.instant();
+                logger.info("Bulk transfer job {} completed: {} succeeded, {} failed", id, succeededCount,
+                        failedCount);
+            }
+        }
+
+        private boolean isCompleted() {
+            return completedAt != null;
+        }
+
+        private synchronized BulkTransferJobPayload toPayload(int offset, int limit) {
+            BulkTransferJobState state;
+            if (completedAt != null) {
+                state = BulkTransferJobState.COMPLETED;
+            } else if (next.get() > 0) {
+                state = BulkTransferJobState.RUNNING;
+            } else {
+                state = BulkTransferJobState.QUEUED;
+            }
+
+            int end = (int) Math.min(total, (long) offset + limit);
+            List<BulkTransferItem> items = new ArrayList<>(Math.max(0, end - offset));
+            for (int i = offset; i < end; i++) {
+                items.add(toItem(i));
+            }
+            return new BulkTransferJobPayload(id, accountId, state, total, total - succeededCount - failedCount,
+                    succeededCount, failedCount, createdAt, completedAt, offset, items);
+        }
+
+        private BulkTransferItem toItem(int index) {
+            return switch (statuses[index]) {
+                case SUCCEEDED -> new BulkTransferItem(index, ApiConstants.STATUS_OK, moneyTransferIds[index], null);
+                case FAILED -> {
+                    Map<String, Object> errorDetails = new HashMap<>();
+                    errorDetails.put(ErrorConstants.CODE, errorCodes[index]);
+                    errorDetails.put(ErrorConstants.DESCRIPTION, errorDescriptions[index]);
+                    yield new BulkTransferItem(index, ApiConstants.STATUS_KO, null, errorDetails);
+                }
+                default -> new BulkTransferItem(index, ApiConstants.STATUS_PENDING, null, null);
+            };
+        }
+    }
+}
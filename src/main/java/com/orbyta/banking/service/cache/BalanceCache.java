@@ -0,0 +1,113 @@
+package com.orbyta.banking.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache dei saldi per account con TTL e dimensione massima.
+ *
+ * Un bonifico invalida il saldo dell'account di addebito. Per evitare che una
+ * lettura partita prima del bonifico rimetta in cache il saldo vecchio, ogni
+ * invalidazione viene marcata con un numero di sequenza: un caricamento
+ * iniziato prima dell'ultima invalidazione non viene salvato. Lo stesso
+ * numero ({@link #invalidationEpoch(String)}) separa le letture coalescenti:
+ * una lettura successiva al bonifico non si aggancia a una chiamata partita
+ * prima.
+ */
+public class BalanceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCache.class);
+
+    public static final String CACHE_NAME = "fabrick.balance";
+
+    private final boolean enabled;
+    private final Cache<String, ApiResponse<Balance>> cache;
+    private final Cache<String, Long> invalidations;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public BalanceCache(boolean enabled, Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // le invalidazioni servono solo finché può essere in corso un caricamento
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.plusMinutes(1))
+                .maximumSize(maxSize)
+                .build();
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+            logger.info("Balance cache enabled (ttl={}, maxSize={})", ttl, maxSize);
+        }
+    }
+
+    /**
+     * Restituisce il saldo in cache oppure lo carica tramite il loader. Vengono
+     * salvate solo le risposte con esito OK.
+     */
+    public ApiResponse<Balance> get(String accountId, Function<String, ApiResponse<Balance>> loader) {
+        if (!enabled) {
+            return loader.apply(accountId);
+        }
+
+        ApiResponse<Balance> cached = cache.getIfPresent(accountId);
+        if (cached != null) {
+            logger.debug("Balance cache hit for account: {}", accountId);
+            return cached;
+        }
+
+        long loadSequence = sequence.get();
+        ApiResponse<Balance> response = loader.apply(accountId);
+
+        if (response != null && ApiConstants.STATUS_OK.equals(response.getStatus())) {
+            cache.asMap().compute(accountId,
+                    (key, current) -> isInvalidatedAfter(key, loadSequence) ? current : response);
+        }
+        return response;
+    }
+
+    /**
+     * Rimuove il saldo dell'account e scarta i caricamenti ancora in corso.
+     */
+    public void invalidate(String accountId) {
+        // la sequenza viene aggiornata anche a cache disattivata: serve comunque
+        // a non riusare le letture coalescenti partite prima del bonifico
+        invalidations.put(accountId, sequence.incrementAndGet());
+        if (!enabled) {
+            return;
+        }
+        cache.invalidate(accountId);
+        logger.debug("Balance cache invalidated for account: {}", accountId);
+    }
+
+    /**
+     * Restituisce il numero di sequenza dell'ultima invalidazione dell'account,
+     * {@code 0} se non ce ne sono state. Due letture con lo stesso valore sono
+     * entrambe successive all'ultimo bonifico noto.
+     */
+    public long invalidationEpoch(String accountId) {
+        Long invalidatedAt = invalidations.getIfPresent(accountId);
+        return invalidatedAt != null ? invalidatedAt : 0;
+    }
+
+    private boolean isInvalidatedAfter(String accountId, long loadSequence) {
+        Long invalidatedAt = invalidations.getIfPresent(accountId);
+        return invalidatedAt != null && invalidatedAt > loadSequence;
+    }
+}
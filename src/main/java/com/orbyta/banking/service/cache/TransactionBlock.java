@@ -0,0 +1,324 @@
+package com.orbyta.banking.service.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+
+/**
+ * Blocco immutabile di transazioni memorizzato per colonne, usato dalla cache
+ * delle transazioni al posto di una lista di {@link Transaction}.
+ *
+ * Gli ID sono concatenati in un unico array di byte UTF-8, le date contabili
+ * e di valuta sono giorni dall'epoch ({@code int}), gli importi sono valore
+ * non scalato ({@code long}) più scala, mentre tipo, valuta e descrizione
+ * sono codici in un dizionario del blocco, così i valori ripetuti sono
+ * memorizzati una sola volta. La conversione è senza perdita: una colonna di
+ * date o importi che non rientra nella rappresentazione compatta (data non
+ * ISO, importo oltre il {@code long}) viene conservata così com'è.
+ *
+ * Le righe mantengono l'ordine ricevuto; {@link #get(int)} e
+ * {@link #toList()} ricostruiscono nuove istanze del modello a ogni lettura.
+ */
+public final class TransactionBlock {
+
+    private static final TransactionBlock EMPTY = of(List.of());
+
+    private final int size;
+    private final Utf8Column transactionIds;
+    private final Utf8Column operationIds;
+    private final DateColumn accountingDates;
+    private final DateColumn valueDates;
+    private final DictionaryColumn<TransactionType> types;
+    private final AmountColumn amounts;
+    private final DictionaryColumn<String> currencies;
+    private final DictionaryColumn<String> descriptions;
+
+    private TransactionBlock(List<Transaction> transactions) {
+        this.size = transactions.size();
+        this.transactionIds = Utf8Column.of(transactions, Transaction::getTransactionId);
+        this.operationIds = Utf8Column.of(transactions, Transaction::getOperationId);
+        this.accountingDates = DateColumn.of(transactions, Transaction::getAccountingDate);
+        this.valueDates = DateColumn.of(transactions, Transaction::getValueDate);
+        this.types = DictionaryColumn.of(transactions, Transaction::getType, TransactionBlock::copyType);
+        this.amounts = AmountColumn.of(transactions);
+        this.currencies = DictionaryColumn.of(transactions, Transaction::getCurrency, Function.identity());
+        this.descriptions = DictionaryColumn.of(transactions, Transaction::getDescription, Function.identity());
+    }
+
+    /**
+     * Blocco con le transazioni indicate, nello stesso ordine.
+     */
+    public static TransactionBlock of(List<Transaction> transactions) {
+        return new TransactionBlock(transactions);
+    }
+
+    public static TransactionBlock empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Data contabile della riga come giorno dall'epoch, oppure
+     * {@link Integer#MIN_VALUE} se assente o non in formato ISO.
+     */
+    public int accountingEpochDay(int row) {
+        return accountingDates.epochDay(row);
+    }
+
+    /**
+     * Ricostruisce la transazione della riga.
+     */
+    public Transaction get(int row) {
+        TransactionType type = types.get(row);
+        return new Transaction(
+                transactionIds.get(row),
+                operationIds.get(row),
+                accountingDates.get(row),
+                valueDates.get(row),
+                type == null ? null : copyType(type),
+                amounts.get(row),
+                currencies.get(row),
+                descriptions.get(row));
+    }
+
+    /**
+     * Ricostruisce le transazioni delle righe [fromRow, toRow).
+     */
+    public List<Transaction> toList(int fromRow, int toRow) {
+        List<Transaction> result = new ArrayList<>(toRow - fromRow);
+        for (int row = fromRow; row < toRow; row++) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    public List<Transaction> toList() {
+        return toList(0, size);
+    }
+
+    // il tipo è mutabile: il dizionario ne conserva una copia e ne restituisce una copia
+    private static TransactionType copyType(TransactionType type) {
+        return new TransactionType(type.getEnumeration(), type.getValue());
+    }
+
+    /**
+     * Stringhe concatenate in un unico array UTF-8 con gli offset di inizio di
+     * ogni riga; le righe nulle hanno offset codificato come -(inizio + 1).
+     */
+    private static final class Utf8Column {
+
+        private final byte[] data;
+        private final int[] offsets;
+
+        private Utf8Column(byte[] data, int[] offsets) {
+            this.data = data;
+            this.offsets = offsets;
+        }
+
+        static <T> Utf8Column of(List<T> rows, Function<T, String> getter) {
+            byte[][] encoded = new byte[rows.size()][];
+            int length = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                String value = getter.apply(rows.get(i));
+                if (value != null) {
+                    encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+                    length += encoded[i].length;
+                }
+            }
+
+            byte[] data = new byte[length];
+            int[] offsets = new int[encoded.length + 1];
+            int position = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                if (encoded[i] == null) {
+                    offsets[i] = -position - 1;
+                } else {
+                    offsets[i] = position;
+                    System.arraycopy(encoded[i], 0, data, position, encoded[i].length);
+                    position += encoded[i].length;
+                }
+            }
+            offsets[encoded.length] = position;
+            return new Utf8Column(data, offsets);
+        }
+
+        String get(int row) {
+            int start = offsets[row];
+            if (start < 0) {
+                return null;
+            }
+            int next = offsets[row + 1];
+            int end = next < 0 ? -next - 1 : next;
+            return new String(data, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Date ISO come giorni dall'epoch; se un valore non è una data ISO
+     * l'intera colonna resta in formato testo.
+     */
+    private static final class DateColumn {
+
+        private static final int NULL_DAY = Integer.MIN_VALUE;
+
+        private final int[] epochDays;
+        private final Utf8Column text;
+
+        private DateColumn(int[] epochDays, Utf8Column text) {
+            this.epochDays = epochDays;
+            this.text = text;
+        }
+
+        static <T> DateColumn of(List<T> rows, Function<T, String> getter) {
+            int[] epochDays = new int[rows.size()];
+            for (int i = 0; i < epochDays.length; i++) {
+                String value = getter.apply(rows.get(i));
+                if (value == null) {
+                    epochDays[i] = NULL_DAY;
+                    continue;
+                }
+                try {
+                    LocalDate date = LocalDate.parse(value);
+                    if (!date.toString().equals(value)) {
+                        return new DateColumn(null, Utf8Column.of(rows, getter));
+                    }
+                    epochDays[i] = Math.toIntExact(date.toEpochDay());
+                } catch (DateTimeParseException | ArithmeticException e) {
+                    return new DateColumn(null, Utf8Column.of(rows, getter));
+                }
+            }
+            return new DateColumn(epochDays, null);
+        }
+
+        int epochDay(int row) {
+            if (epochDays != null) {
+                return epochDays[row];
+            }
+            String value = text.get(row);
+            try {
+                return value == null ? NULL_DAY : Math.toIntExact(LocalDate.parse(value).toEpochDay());
+            } catch (DateTimeParseException | ArithmeticException e) {
+                return NULL_DAY;
+            }
+        }
+
+        String get(int row) {
+            if (epochDays == null) {
+                return text.get(row);
+            }
+            return epochDays[row] == NULL_DAY ? null : LocalDate.ofEpochDay(epochDays[row]).toString();
+        }
+    }
+
+    /**
+     * Importi come valore non scalato e scala (ad esempio -10.00 è -1000 con
+     * scala 2); se un importo non rientra l'intera colonna resta in
+     * {@link BigDecimal}.
+     */
+    private static final class AmountColumn {
+
+        private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+        private final long[] unscaled;
+        private final byte[] scales;
+        private final BigDecimal[] decimals;
+
+        private AmountColumn(long[] unscaled, byte[] scales, BigDecimal[] decimals) {
+            this.unscaled = unscaled;
+            this.scales = scales;
+            this.decimals = decimals;
+        }
+
+        static AmountColumn of(List<Transaction> rows) {
+            long[] unscaled = new long[rows.size()];
+            byte[] scales = new byte[rows.size()];
+            for (int i = 0; i < unscaled.length; i++) {
+                BigDecimal amount = rows.get(i).getAmount();
+                if (amount == null) {
+                    scales[i] = NULL_SCALE;
+                } else if (amount.scale() > NULL_SCALE && amount.scale() <= Byte.MAX_VALUE
+                        && amount.unscaledValue().bitLength() < Long.SIZE) {
+                    unscaled[i] = amount.unscaledValue().longValue();
+                    scales[i] = (byte) amount.scale();
+                } else {
+                    return new AmountColumn(null, null,
+                            rows.stream().map(Transaction::getAmount).toArray(BigDecimal[]::new));
+                }
+            }
+            return new AmountColumn(unscaled, scales, null);
+        }
+
+        BigDecimal get(int row) {
+            if (decimals != null) {
+                return decimals[row];
+            }
+            return scales[row] == NULL_SCALE ? null : BigDecimal.valueOf(unscaled[row], scales[row]);
+        }
+    }
+
+    /**
+     * Valori codificati con un dizionario del blocco: ogni valore distinto è
+     * memorizzato una volta e le righe ne contengono l'indice (-1 per null).
+     * I codici usano due byte finché il dizionario ha al più 65535 voci.
+     */
+    private static final class DictionaryColumn<T> {
+
+        private final Object[] dictionary;
+        private final char[] smallCodes;
+        private final int[] codes;
+
+        private DictionaryColumn(Object[] dictionary, char[] smallCodes, int[] codes) {
+            this.dictionary = dictionary;
+            this.smallCodes = smallCodes;
+            this.codes = codes;
+        }
+
+        static <R, T> DictionaryColumn<T> of(List<R> rows, Function<R, T> getter, Function<T, T> copy) {
+            Map<T, Integer> index = new HashMap<>();
+            List<T> values = new ArrayList<>();
+            int[] codes = new int[rows.size()];
+            for (int i = 0; i < codes.length; i++) {
+                T value = getter.apply(rows.get(i));
+                if (value == null) {
+                    codes[i] = -1;
+                } else {
+                    codes[i] = index.computeIfAbsent(value, key -> {
+                        values.add(copy.apply(key));
+                        return values.size() - 1;
+                    });
+                }
+            }
+
+            Object[] dictionary = values.toArray();
+            if (dictionary.length < Character.MAX_VALUE) {
+                char[] smallCodes = new char[codes.length];
+                for (int i = 0; i < codes.length; i++) {
+                    // il null diventa 0xFFFF, mai usato come indice
+                    smallCodes[i] = (char) codes[i];
+                }
+                return new DictionaryColumn<>(dictionary, smallCodes, null);
+            }
+            return new DictionaryColumn<>(dictionary, null, codes);
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int row) {
+            int code = smallCodes != null
+                    ? (smallCodes[row] == Character.MAX_VALUE ? -1 : smallCodes[row])
+                    : codes[row];
+            return code < 0 ? null : (T) dictionary[code];
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.orbyta.banking.service.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache delle transazioni per account organizzata per data contabile.
+ *
+ * Per ogni account vengono tenuti gli intervalli di date già scaricati: una
+ * nuova richiesta scarica da Fabrick solo i sotto-intervalli mancanti e li
+ * unisce a quelli in cache. I giorni già chiusi sono considerati immutabili,
+ * mentre la giornata odierna (e le successive) viene sempre richiesta
+ * all'upstream e mai salvata.
+ *
+ * Il risultato è ordinato per data contabile dalla più recente, come lo
+ * restituisce Fabrick, mantenendo l'ordine dell'upstream all'interno della
+ * stessa giornata, ed è privo di duplicati per transactionId.
+ *
+ * Una risposta servita in tutto o in parte dalla cache riporta lo status OK e
+ * il campo {@code error} dell'ultima risposta OK dell'upstream per l'account,
+ * così ha la stessa forma di una risposta scaricata per intero.
+ *
+ * Le transazioni in cache sono tenute in forma compatta per colonne
+ * ({@link TransactionBlock}) e ricostruite a ogni lettura, così i chiamanti
+ * ricevono sempre istanze proprie.
+ */
+public class TransactionRangeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRangeCache.class);
+
+    public static final String CACHE_NAME = "fabrick.transactions";
+
+    private final boolean enabled;
+    private final Clock clock;
+    private final Cache<String, AccountTransactions> accounts;
+    private final Counter hits;
+    private final Counter partialHits;
+    private final Counter misses;
+
+    public TransactionRangeCache(boolean enabled, long maxAccounts, Duration expireAfterAccess, Clock clock,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.partialHits = requestCounter(meterRegistry, "partial");
+        this.misses = requestCounter(meterRegistry, "miss");
+
+        if (enabled) {
+            logger.info("Transaction range cache enabled (maxAccounts={}, expireAfterAccess={})",
+                    maxAccounts, expireAfterAccess);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fabrick.transactions.cache.requests")
+                .description("Richieste di transazioni servite interamente, parzialmente o per nulla dalla cache")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restituisce le transazioni dell'intervallo [from, to], scaricando
+     * dall'upstream solo le parti non presenti in cache.
+     */
+    public ApiResponse<TransactionsPayload> get(String accountId, LocalDate from, LocalDate to,
+            TransactionRangeLoader loader) {
+        if (!enabled) {
+            return loader.load(accountId, from, to);
+        }
+
+        AccountTransactions account = accounts.get(accountId, key -> new AccountTransactions());
+        LocalDate today = LocalDate.now(clock);
+        Plan plan = account.plan(from, to);
+
+        if (plan.missing().isEmpty()) {
+            hits.increment();
+            logger.debug("Transactions for account {} from {} to {} served from cache", accountId, from, to);
+            return okResponse(flatten(plan.cached()), account.upstreamError);
+        }
+
+        DateRange firstMissing = plan.missing().get(0);
+        if (plan.missing().size() == 1 && firstMissing.from().equals(from) && firstMissing.to().equals(to)) {
+            misses.increment();
+            ApiResponse<TransactionsPayload> response = loader.load(accountId, from, to);
+            if (isOk(response)) {
+                account.upstreamError = response.getError();
+                Map<LocalDate, List<Transaction>> byDay = groupByAccountingDate(transactionsOf(response));
+                if (byDay != null) {
+                    account.store(firstMissing, byDay, today);
+                }
+            }
+            return response;
+        }
+
+        partialHits.increment();
+        Map<LocalDate, List<Transaction>> merged = new TreeMap<>(Comparator.reverseOrder());
+        merged.putAll(plan.cached());
+
+        for (DateRange range : plan.missing()) {
+            logger.debug("Fetching missing transactions for account {} from {} to {}",
+                    accountId, range.from(), range.to());
+            ApiResponse<TransactionsPayload> response = loader.load(accountId, range.from(), range.to());
+            if (!isOk(response)) {
+                return response;
+            }
+            account.upstreamError = response.getError();
+
+            Map<LocalDate, List<Transaction>> byDay = groupByAccountingDate(transactionsOf(response));
+            if (byDay == null) {
+                // date contabili non interpretabili: si rinuncia al merge e si chiede tutto l'intervallo
+                return loader.load(accountId, from, to);
+            }
+            account.store(range, byDay, today);
+            byDay.forEach((day, transactions) -> merged.merge(day, transactions, TransactionRangeCache::concat));
+        }
+
+        return okResponse(flatten(merged), account.upstreamError);
+    }
+
+    private static boolean isOk(ApiResponse<TransactionsPayload> response) {
+        return response != null && ApiConstants.STATUS_OK.equals(response.getStatus());
+    }
+
+    private static List<Transaction> transactionsOf(ApiResponse<TransactionsPayload> response) {
+        if (response.getPayload() == null || response.getPayload().getList() == null) {
+            return Collections.emptyList();
+        }
+        return response.getPayload().getList();
+    }
+
+    /**
+     * Raggruppa le transazioni per data contabile mantenendo l'ordine
+     * dell'upstream; restituisce null se una data non è interpretabile.
+     */
+    private static Map<LocalDate, List<Transaction>> groupByAccountingDate(List<Transaction> transactions) {
+        Map<LocalDate, List<Transaction>> byDay = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getAccountingDate() == null) {
+                return null;
+            }
+            try {
+                LocalDate day = LocalDate.parse(transaction.getAccountingDate());
+                byDay.computeIfAbsent(day, key -> new ArrayList<>()).add(transaction);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return byDay;
+    }
+
+    private static List<Transaction> concat(List<Transaction> first, List<Transaction> second) {
+        List<Transaction> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static List<Transaction> flatten(Map<LocalDate, List<Transaction>> byDay) {
+        List<Transaction> result = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        for (List<Transaction> transactions : byDay.values()) {
+            for (Transaction transaction : transactions) {
+                if (transaction.getTransactionId() == null || seenIds.add(transaction.getTransactionId())) {
+                    result.add(transaction);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ApiResponse<TransactionsPayload> okResponse(List<Transaction> transactions, Object error) {
+        ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(new TransactionsPayload(transactions));
+        response.setError(error);
+        return response;
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Intervalli da scaricare e giorni già presenti in cache (dal più recente).
+     */
+    private record Plan(List<DateRange> missing, NavigableMap<LocalDate, List<Transaction>> cached) {
+    }
+
+    /**
+     * Stato in cache di un singolo account: intervalli coperti e transazioni
+     * dei soli giorni chiusi, in un {@link TransactionBlock} ordinato per data
+     * contabile crescente (nell'ordine dell'upstream all'interno del giorno).
+     */
+    private static final class AccountTransactions {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeMap<LocalDate, LocalDate> covered = new TreeMap<>();
+        private TransactionBlock block = TransactionBlock.empty();
+        // campo error dell'ultima risposta OK, riportato sulle risposte servite dalla cache
+        private volatile Object upstreamError;
+
+        Plan plan(LocalDate from, LocalDate to) {
+            lock.lock();
+            try {
+                NavigableMap<LocalDate, List<Transaction>> cached = new TreeMap<>(Comparator.reverseOrder());
+                cached.putAll(days(firstRow(from), firstRow(to.plusDays(1))));
+                return new Plan(missingRanges(from, to), cached);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Salva i giorni chiusi dell'intervallo scaricato e lo segna come coperto.
+         * Il blocco è immutabile: viene ricostruito unendo i giorni già presenti
+         * a quelli nuovi.
+         */
+        void store(DateRange range, Map<LocalDate, List<Transaction>> byDay, LocalDate today) {
+            LocalDate lastClosedDay = today.minusDays(1);
+            LocalDate end = range.to().isAfter(lastClosedDay) ? lastClosedDay : range.to();
+            if (range.from().isAfter(end)) {
+                return;
+            }
+
+            lock.lock();
+            try {
+                TreeMap<LocalDate, List<Transaction>> days = days(0, block.size());
+                byDay.forEach((day, transactions) -> {
+                    if (!day.isBefore(range.from()) && !day.isAfter(end)) {
+                        days.put(day, transactions);
+                    }
+                });
+                List<Transaction> rows = new ArrayList<>();
+                days.values().forEach(rows::addAll);
+                block = TransactionBlock.of(rows);
+                addCoverage(range.from(), end);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Prima riga del blocco con data contabile non precedente a {@code day}.
+         */
+        private int firstRow(LocalDate day) {
+            long epochDay = day.toEpochDay();
+            int low = 0;
+            int high = block.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (block.accountingEpochDay(middle) < epochDay) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Transazioni delle righe [fromRow, toRow) raggruppate per data contabile.
+         */
+        private TreeMap<LocalDate, List<Transaction>> days(int fromRow, int toRow) {
+            TreeMap<LocalDate, List<Transaction>> days = new TreeMap<>();
+            for (int row = fromRow; row < toRow; row++) {
+                days.computeIfAbsent(LocalDate.ofEpochDay(block.accountingEpochDay(row)), key -> new ArrayList<>())
+                        .add(block.get(row));
+            }
+            return days;
+        }
+
+        private List<DateRange> missingRanges(LocalDate from, LocalDate to) {
+            List<DateRange> missing = new ArrayList<>();
+            LocalDate cursor = from;
+
+            Map.Entry<LocalDate, LocalDate> floor = covered.floorEntry(from);
+            NavigableMap<LocalDate, LocalDate> candidates = covered.tailMap(
+                    floor != null ? floor.getKey() : from, true);
+
+            for (Map.Entry<LocalDate, LocalDate> interval : candidates.entrySet()) {
+                if (interval.getKey().isAfter(to)) {
+                    break;
+                }
+                if (interval.getValue().isBefore(cursor)) {
+                    continue;
+                }
+                if (interval.getKey().isAfter(cursor)) {
+                    missing.add(new DateRange(cursor, interval.getKey().minusDays(1)));
+                }
+                cursor = interval.getValue().plusDays(1);
+                if (cursor.isAfter(to)) {
+                    return missing;
+                }
+            }
+            missing.add(new DateRange(cursor, to));
+            return missing;
+        }
+
+        private void addCoverage(LocalDate from, LocalDate to) {
+            LocalDate start = from;
+            LocalDate end = to;
+
+            Map.Entry<LocalDate, LocalDate> lower = covered.floorEntry(from);
+            if (lower != null && !lower.getValue().plusDays(1).isBefore(from)) {
+                start = lower.getKey();
+                end = lower.getValue().isAfter(end) ? lower.getValue() : end;
+                covered.remove(lower.getKey());
+            }
+
+            Map.Entry<LocalDate, LocalDate> next = covered.ceilingEntry(start);
+            while (next != null && !next.getKey().isAfter(end.plusDays(1))) {
+                end = next.getValue().isAfter(end) ? next.getValue() : end;
+                covered.remove(next.getKey());
+                next = covered.ceilingEntry(start);
+            }
+            covered.put(start, end);
+        }
+    }
+}
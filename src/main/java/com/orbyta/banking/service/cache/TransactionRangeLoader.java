@@ -0,0 +1,16 @@
+package com.orbyta.banking.service.cache;
+
+import java.time.LocalDate;
+
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+/**
+ * Caricamento dall'upstream delle transazioni di un intervallo di date
+ * contabili (estremi inclusi).
+ */
+@FunctionalInterface
+public interface TransactionRangeLoader {
+
+    ApiResponse<TransactionsPayload> load(String accountId, LocalDate fromAccountingDate, LocalDate toAccountingDate);
+}
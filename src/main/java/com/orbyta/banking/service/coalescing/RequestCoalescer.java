@@ -0,0 +1,114 @@
+package com.orbyta.banking.service.coalescing;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Accorpa le letture identiche concorrenti verso Fabrick (single-flight): per
+ * ogni chiave (operazione, account, parametri) è in corso al massimo una
+ * chiamata upstream, e tutte le richieste in attesa ne condividono il
+ * risultato o l'eccezione.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final boolean enabled;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<FabrickOperation, Counter> requestCounters = new EnumMap<>(FabrickOperation.class);
+    private final Map<FabrickOperation, Counter> upstreamCounters = new EnumMap<>(FabrickOperation.class);
+
+    public RequestCoalescer(@Value("${api.banking.coalescing.enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+
+        for (FabrickOperation operation : FabrickOperation.values()) {
+            Counter requests = Counter.builder("fabrick.coalescing.requests")
+                    .description("Richieste di lettura ricevute")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+            Counter upstreamCalls = Counter.builder("fabrick.coalescing.upstream.calls")
+                    .description("Chiamate upstream effettivamente eseguite")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+            Gauge.builder("fabrick.coalescing.fan.in", () -> fanIn(requests, upstreamCalls))
+                    .description("Richieste servite per ogni chiamata upstream")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+
+            requestCounters.put(operation, requests);
+            upstreamCounters.put(operation, upstreamCalls);
+        }
+    }
+
+    /**
+     * Esegue la chiamata, oppure si accoda a quella identica già in corso.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(FabrickOperation operation, String accountId, List<String> params, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        Key key = new Key(operation, accountId, params);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        requestCounters.get(operation).increment();
+
+        if (existing != null) {
+            logger.debug("Joining in-flight {} call for account: {}", operation.getTagValue(), accountId);
+            return (T) await(existing);
+        }
+
+        upstreamCounters.get(operation).increment();
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static double fanIn(Counter requests, Counter upstreamCalls) {
+        double calls = upstreamCalls.count();
+        return calls == 0 ? 1.0 : requests.count() / calls;
+    }
+
+    private record Key(FabrickOperation operation, String accountId, List<String> params) {
+    }
+}
@@ -0,0 +1,275 @@
+package com.orbyta.banking.service.hedging;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Richieste di copertura (hedging) per le letture verso Fabrick: se la
+ * chiamata non ha risposto entro il percentile {@code percentile} delle
+ * durate recenti dell'operazione, ne viene inviata una seconda identica; si
+ * usa la prima risposta arrivata e l'altra chiamata viene interrotta.
+ *
+ * Le chiamate di copertura sono limitate da un budget: ogni richiesta
+ * accumula {@code budgetRatio} crediti (fino a {@value #MAX_BUDGET_TOKENS}) e
+ * ogni copertura ne consuma uno, quindi il carico aggiuntivo resta sotto
+ * {@code budgetRatio} delle richieste. Finché un'operazione non ha almeno
+ * {@code minSamples} durate registrate non viene coperta.
+ *
+ * Solo le letture sono idempotenti: {@code createMoneyTransfer} non viene mai
+ * coperta. Se la prima chiamata fallisce prima del ritardo, l'errore viene
+ * restituito senza copertura; se fallisce dopo, si attende l'altra.
+ */
+public class RequestHedger implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final Set<FabrickOperation> HEDGEABLE = EnumSet.of(FabrickOperation.GET_ACCOUNTS,
+            FabrickOperation.GET_BALANCE, FabrickOperation.GET_TRANSACTIONS);
+    static final int MAX_BUDGET_TOKENS = 10;
+    private static final long TOKEN = 1_000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetDeposit;
+    private final int windowSize;
+    private final int minSamples;
+    private final ExecutorService executor;
+    private final AtomicLong budget = new AtomicLong();
+    private final Map<FabrickOperation, OperationStats> stats = new EnumMap<>(FabrickOperation.class);
+
+    public RequestHedger(boolean enabled, double percentile, Duration minDelay, double budgetRatio, int windowSize,
+            int minSamples, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetDeposit = Math.round(budgetRatio * TOKEN);
+        this.windowSize = windowSize;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.executor = executor;
+
+        for (FabrickOperation operation : HEDGEABLE) {
+            OperationStats operationStats = new OperationStats(operation, meterRegistry);
+            Gauge.builder("fabrick.hedging.delay", operationStats, s -> s.delayNanos / 1_000_000.0)
+                    .description("Ritardo corrente prima della chiamata di copertura (ms)")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+            stats.put(operation, operationStats);
+        }
+    }
+
+    /**
+     * Esegue la chiamata, inviandone una copia se la prima tarda oltre il
+     * ritardo corrente dell'operazione e il budget lo consente.
+     */
+    public <T> T execute(FabrickOperation operation, Supplier<T> call) {
+        OperationStats operationStats = stats.get(operation);
+        if (!enabled || operationStats == null) {
+            return call.get();
+        }
+
+        depositBudget();
+        long delayNanos = operationStats.delayNanos;
+        if (delayNanos <= 0) {
+            long start = System.nanoTime();
+            T result = call.get();
+            operationStats.record(System.nanoTime() - start);
+            return result;
+        }
+
+        Race<T> race = new Race<>(operationStats, call);
+        try {
+            race.launch(false);
+            try {
+                return race.winner.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (race.hedge()) {
+                    logger.debug("Hedging {} call after {} ms", operation.getTagValue(), delayNanos / 1_000_000);
+                }
+            }
+            return race.winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for " + operation.getTagValue());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            race.cancelAll();
+        }
+    }
+
+    private void depositBudget() {
+        budget.getAndUpdate(tokens -> Math.min(MAX_BUDGET_TOKENS * TOKEN, tokens + budgetDeposit));
+    }
+
+    private boolean withdrawBudget() {
+        long tokens;
+        do {
+            tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    /**
+     * Ritardo corrente prima della copertura, zero se l'operazione non ha
+     * ancora abbastanza campioni.
+     */
+    public Duration getDelay(FabrickOperation operation) {
+        OperationStats operationStats = stats.get(operation);
+        return operationStats == null ? Duration.ZERO : Duration.ofNanos(operationStats.delayNanos);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gara tra la chiamata originale e la sua eventuale copertura.
+     */
+    private final class Race<T> {
+
+        private final OperationStats operationStats;
+        private final Supplier<T> call;
+        private final long startNanos = System.nanoTime();
+        private final CompletableFuture<T> winner = new CompletableFuture<>();
+        private final Future<?>[] attempts = new Future<?>[2];
+        private int launched;
+        private int failed;
+        private RuntimeException firstFailure;
+
+        Race(OperationStats operationStats, Supplier<T> call) {
+            this.operationStats = operationStats;
+            this.call = call;
+        }
+
+        synchronized void launch(boolean hedge) {
+            attempts[launched++] = executor.submit(() -> run(hedge));
+        }
+
+        /**
+         * Invia la copertura se la gara è ancora aperta e il budget lo
+         * consente.
+         */
+        synchronized boolean hedge() {
+            if (winner.isDone()) {
+                return false;
+            }
+            if (!withdrawBudget()) {
+                operationStats.budgetExhausted.increment();
+                return false;
+            }
+            operationStats.hedged.increment();
+            launch(true);
+            return true;
+        }
+
+        private void run(boolean hedge) {
+            try {
+                T result = call.get();
+                if (winner.complete(result)) {
+                    // se vince la copertura, la durata della chiamata originale è almeno questa
+                    operationStats.record(System.nanoTime() - startNanos);
+                    if (hedge) {
+                        operationStats.hedgeWins.increment();
+                    }
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            } catch (Error e) {
+                winner.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private synchronized void fail(RuntimeException e) {
+            if (firstFailure == null) {
+                firstFailure = e;
+            }
+            if (++failed == launched) {
+                winner.completeExceptionally(firstFailure);
+            }
+        }
+
+        synchronized void cancelAll() {
+            for (int i = 0; i < launched; i++) {
+                attempts[i].cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Durate recenti e contatori di un'operazione.
+     */
+    private final class OperationStats {
+
+        private final long[] samples = new long[windowSize];
+        private final Counter hedged;
+        private final Counter hedgeWins;
+        private final Counter budgetExhausted;
+        private int next;
+        private int count;
+        private volatile long delayNanos;
+
+        OperationStats(FabrickOperation operation, MeterRegistry meterRegistry) {
+            this.hedged = counter(meterRegistry, operation, "sent");
+            this.hedgeWins = counter(meterRegistry, operation, "won");
+            this.budgetExhausted = counter(meterRegistry, operation, "budget_exhausted");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, FabrickOperation operation, String outcome) {
+            return Counter.builder("fabrick.hedging.requests")
+                    .description("Chiamate di copertura verso Fabrick")
+                    .tag("operation", operation.getTagValue())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Registra la durata di una richiesta e ricalcola il ritardo ogni decimo
+         * della finestra.
+         */
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= minSamples && next % Math.max(1, samples.length / 10) == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+                delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.orbyta.banking.service.idempotency;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.orbyta.banking.exception.IdempotencyKeyMismatchException;
+import com.orbyta.banking.exception.IdempotencyOutcomeUnknownException;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Risultati dei bonifici per chiave di idempotenza ({@code Idempotency-Key}),
+ * così i tentativi ripetuti dei client non generano un secondo bonifico.
+ *
+ * Per ogni coppia account e chiave viene eseguita al più una chiamata: le
+ * richieste concorrenti con la stessa chiave attendono quella in corso e ne
+ * ricevono il risultato, quelle successive ricevono la risposta salvata finché
+ * non scade ({@code ttl}, al più {@code maxSize} chiavi). Una chiave riusata
+ * con un bonifico diverso viene rifiutata con
+ * {@link IdempotencyKeyMismatchException}.
+ *
+ * Vengono salvate le risposte ricevute da Fabrick. Se la chiamata fallisce,
+ * l'errore viene restituito a tutte le richieste in attesa e la chiave resta
+ * libera per un nuovo tentativo solo quando il bonifico certamente non è
+ * stato eseguito: chiamata rifiutata prima dell'invio
+ * ({@link UpstreamUnavailableException}) o respinta da Fabrick con un 4xx.
+ * Negli altri casi (timeout, errori di rete, 5xx) la richiesta potrebbe essere
+ * stata eseguita: la chiave viene salvata con esito sconosciuto e i tentativi
+ * successivi ricevono {@link IdempotencyOutcomeUnknownException} invece di
+ * inviare un secondo bonifico.
+ *
+ * Se è indicato un file, ogni risposta salvata vi viene aggiunta come riga
+ * JSON e all'avvio le risposte non scadute vengono ricaricate; il file viene
+ * riscritto con le sole voci valide all'avvio e quando le righe aggiunte
+ * superano {@code maxSize}.
+ */
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final String CACHE_NAME = "fabrick.idempotency";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long maxSize;
+    private final Path file;
+    private final Clock clock;
+    private final ObjectWriter requestWriter;
+    private final ObjectReader entryReader;
+    private final ObjectWriter entryWriter;
+    private final Cache<String, StoredResponse> responses;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+    private final Counter mismatched;
+    private final Counter unknown;
+    private long appendedSinceCompaction;
+
+    public IdempotencyStore(boolean enabled, Duration ttl, long maxSize, Path file, Clock clock,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.file = file;
+        this.clock = clock;
+        this.requestWriter = objectMapper.writerFor(MoneyTransferRequest.class);
+        this.entryReader = objectMapper.readerFor(StoredResponse.class);
+        this.entryWriter = objectMapper.writerFor(StoredResponse.class);
+        // la scadenza parte dalla creazione della risposta, anche per quelle ricaricate dal file
+        this.responses = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, StoredResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, StoredResponse stored, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), stored.createdAt().plus(ttl)).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, StoredResponse stored, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, stored, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, StoredResponse stored, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.joined = counter(meterRegistry, "joined");
+        this.mismatched = counter(meterRegistry, "mismatch");
+        this.unknown = counter(meterRegistry, "unknown");
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+            if (file != null) {
+                load();
+            }
+            logger.info("Idempotency store enabled (ttl={}, maxSize={}, file={})", ttl, maxSize, file);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fabrick.idempotency.requests")
+                .description("Bonifici con chiave di idempotenza, per esito")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Esegue il bonifico una sola volta per chiave: restituisce la risposta
+     * salvata, attende la chiamata in corso oppure esegue {@code call}.
+     */
+    public ApiResponse<MoneyTransferResponse> execute(String accountId, String idempotencyKey,
+            MoneyTransferRequest request, Supplier<ApiResponse<MoneyTransferResponse>> call) {
+        if (!enabled || idempotencyKey == null || idempotencyKey.isBlank()) {
+            return call.get();
+        }
+
+        String key = accountId + '/' + idempotencyKey;
+        String fingerprint = fingerprint(accountId, request);
+
+        StoredResponse stored = responses.getIfPresent(key);
+        if (stored != null) {
+            return replay(idempotencyKey, stored, fingerprint);
+        }
+
+        InFlight created = new InFlight(fingerprint);
+        InFlight current = inFlight.putIfAbsent(key, created);
+        if (current != null) {
+            checkFingerprint(idempotencyKey, current.fingerprint, fingerprint);
+            joined.increment();
+            logger.debug("Waiting for in-flight money transfer with idempotency key: {}", idempotencyKey);
+            return join(current.result);
+        }
+
+        try {
+            // la chiamata concorrente potrebbe aver appena salvato la risposta
+            stored = responses.getIfPresent(key);
+            if (stored != null) {
+                ApiResponse<MoneyTransferResponse> response = replay(idempotencyKey, stored, fingerprint);
+                created.result.complete(response);
+                return response;
+            }
+
+            executed.increment();
+            ApiResponse<MoneyTransferResponse> response;
+            try {
+                response = call.get();
+            } catch (RuntimeException | Error e) {
+                if (!isNotExecuted(e)) {
+                    logger.warn("Money transfer with idempotency key {} failed with unknown outcome: {}",
+                            idempotencyKey, e.toString());
+                    save(key, new StoredResponse(key, fingerprint, clock.instant(), null, true));
+                }
+                throw e;
+            }
+            save(key, new StoredResponse(key, fingerprint, clock.instant(), response, false));
+            created.result.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            created.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private ApiResponse<MoneyTransferResponse> replay(String idempotencyKey, StoredResponse stored,
+            String fingerprint) {
+        checkFingerprint(idempotencyKey, stored.fingerprint(), fingerprint);
+        if (stored.outcomeUnknown()) {
+            unknown.increment();
+            throw new IdempotencyOutcomeUnknownException(idempotencyKey);
+        }
+        replayed.increment();
+        logger.info("Replaying money transfer response for idempotency key: {}", idempotencyKey);
+        return stored.response();
+    }
+
+    /**
+     * Indica se l'errore garantisce che il bonifico non sia stato eseguito:
+     * chiamata non inviata oppure respinta da Fabrick con un 4xx.
+     */
+    private static boolean isNotExecuted(Throwable e) {
+        return e instanceof UpstreamUnavailableException || e instanceof HttpClientErrorException;
+    }
+
+    private void checkFingerprint(String idempotencyKey, String expected, String actual) {
+        if (!expected.equals(actual)) {
+            mismatched.increment();
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+    }
+
+    private static ApiResponse<MoneyTransferResponse> join(
+            CompletableFuture<ApiResponse<MoneyTransferResponse>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(String accountId, MoneyTransferRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(accountId.getBytes(StandardCharsets.UTF_8));
+            digest.update(requestWriter.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint money transfer request", e);
+        }
+    }
+
+    private void save(String key, StoredResponse stored) {
+        responses.put(key, stored);
+        if (file == null) {
+            return;
+        }
+
+        synchronized (this) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entryWriter.writeValueAsString(stored));
+                writer.newLine();
+            } catch (IOException e) {
+                // la risposta resta comunque in memoria
+                logger.error("Unable to persist idempotency key {} to {}", key, file, e);
+                return;
+            }
+            if (++appendedSinceCompaction > maxSize) {
+                compact();
+            }
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        Instant oldest = clock.instant().minus(ttl);
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    StoredResponse stored = entryReader.readValue(line);
+                    if (stored.createdAt().isAfter(oldest)) {
+                        responses.put(stored.key(), stored);
+                        loaded++;
+                    }
+                } catch (JsonProcessingException e) {
+                    // riga troncata da un arresto durante la scrittura
+                    logger.warn("Skipping unreadable idempotency entry in {}", file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load idempotency store from " + file, e);
+        }
+
+        logger.info("Loaded {} idempotency keys from {}", loaded, file);
+        synchronized (this) {
+            compact();
+        }
+    }
+
+    /**
+     * Riscrive il file con le sole risposte ancora valide. Va invocato
+     * sincronizzato sull'istanza.
+     */
+    private void compact() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (StoredResponse stored : responses.asMap().values()) {
+                writer.write(entryWriter.writeValueAsString(stored));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            logger.error("Unable to compact idempotency store {}", file, e);
+            return;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            appendedSinceCompaction = 0;
+        } catch (IOException e) {
+            logger.error("Unable to compact idempotency store {}", file, e);
+        }
+    }
+
+    /**
+     * Risposta salvata per una chiave, con l'impronta del bonifico originale.
+     * Con {@code outcomeUnknown} la chiamata è fallita dopo l'invio e non c'è
+     * una risposta.
+     */
+    record StoredResponse(String key, String fingerprint, Instant createdAt,
+            ApiResponse<MoneyTransferResponse> response, boolean outcomeUnknown) {
+    }
+
+    private static final class InFlight {
+
+        private final String fingerprint;
+        private final CompletableFuture<ApiResponse<MoneyTransferResponse>> result = new CompletableFuture<>();
+
+        InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
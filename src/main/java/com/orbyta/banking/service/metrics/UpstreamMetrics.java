@@ -0,0 +1,147 @@
+package com.orbyta.banking.service.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Metriche delle chiamate HTTP verso Fabrick, per operazione: latenza con
+ * istogramma dei percentili ({@code fabrick.upstream.requests}, tag
+ * {@code operation}, {@code status}, {@code outcome}), errori per codice HTTP
+ * ({@code fabrick.upstream.errors}) e chiamate in volo
+ * ({@code fabrick.upstream.inflight}).
+ *
+ * Le chiamate senza risposta HTTP (timeout, connessione rifiutata) hanno
+ * status {@code IO_ERROR}; quelle interrotte perché non più necessarie, ad
+ * esempio la perdente di una richiesta di copertura, hanno status
+ * {@code CANCELLED} e non vengono contate tra gli errori.
+ */
+@Component
+public class UpstreamMetrics {
+
+    static final String STATUS_IO_ERROR = "IO_ERROR";
+    static final String STATUS_UNKNOWN = "UNKNOWN";
+    static final String STATUS_CANCELLED = "CANCELLED";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<FabrickOperation, AtomicInteger> inFlight = new EnumMap<>(FabrickOperation.class);
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public UpstreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (FabrickOperation operation : FabrickOperation.values()) {
+            AtomicInteger calls = new AtomicInteger();
+            Gauge.builder("fabrick.upstream.inflight", calls, AtomicInteger::get)
+                    .description("Chiamate verso Fabrick in corso")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+            inFlight.put(operation, calls);
+        }
+    }
+
+    /**
+     * Esegue la chiamata misurandone durata ed esito.
+     */
+    public <T> ResponseEntity<T> record(FabrickOperation operation, Supplier<ResponseEntity<T>> call) {
+        Sample sample = start(operation);
+        ResponseEntity<T> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            sample.stop(e);
+            throw e;
+        }
+        sample.stop(response != null && response.getStatusCode() != null ? response.getStatusCode().value() : -1);
+        return response;
+    }
+
+    /**
+     * Avvia la misura di una chiamata il cui esito viene noto più tardi, ad
+     * esempio quando la risposta viene letta in streaming.
+     */
+    public Sample start(FabrickOperation operation) {
+        inFlight.get(operation).incrementAndGet();
+        return new Sample(operation, System.nanoTime());
+    }
+
+    private void stop(Sample sample, String status, Outcome outcome) {
+        inFlight.get(sample.operation).decrementAndGet();
+        long elapsed = System.nanoTime() - sample.startNanos;
+
+        String key = sample.operation.name() + ':' + status;
+        timers.computeIfAbsent(key, k -> Timer.builder("fabrick.upstream.requests")
+                .description("Durata delle chiamate verso Fabrick")
+                .tag("operation", sample.operation.getTagValue())
+                .tag("status", status)
+                .tag("outcome", outcome.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (outcome != Outcome.SUCCESS && !STATUS_CANCELLED.equals(status)) {
+            errorCounters.computeIfAbsent(key, k -> Counter.builder("fabrick.upstream.errors")
+                    .description("Chiamate verso Fabrick fallite, per codice HTTP")
+                    .tag("operation", sample.operation.getTagValue())
+                    .tag("status", status)
+                    .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    /**
+     * Misura in corso di una singola chiamata.
+     */
+    public final class Sample {
+
+        private final FabrickOperation operation;
+        private final long startNanos;
+
+        private Sample(FabrickOperation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Chiamata terminata con una risposta HTTP.
+         */
+        public void stop(int statusCode) {
+            if (statusCode < 0) {
+                UpstreamMetrics.this.stop(this, STATUS_UNKNOWN, Outcome.UNKNOWN);
+            } else {
+                UpstreamMetrics.this.stop(this, String.valueOf(statusCode), Outcome.forStatus(statusCode));
+            }
+        }
+
+        /**
+         * Chiamata terminata con un'eccezione: gli errori HTTP mantengono il loro
+         * codice, le chiamate interrotte vengono registrate come
+         * {@code CANCELLED} e le altre come {@code IO_ERROR}.
+         */
+        public void stop(Throwable failure) {
+            if (failure instanceof RestClientResponseException httpEx) {
+                stop(httpEx.getStatusCode().value());
+            } else if (Thread.currentThread().isInterrupted()) {
+                UpstreamMetrics.this.stop(this, STATUS_CANCELLED, Outcome.UNKNOWN);
+            } else {
+                UpstreamMetrics.this.stop(this, STATUS_IO_ERROR, Outcome.UNKNOWN);
+            }
+        }
+    }
+}
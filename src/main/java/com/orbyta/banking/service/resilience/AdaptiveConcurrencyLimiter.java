@@ -0,0 +1,299 @@
+package com.orbyta.banking.service.resilience;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limite adattivo alle chiamate contemporanee verso Fabrick, calcolato con un
+ * algoritmo a gradiente sul tempo di risposta osservato.
+ *
+ * Ogni operazione ({@link FabrickOperation}) ha un proprio limite, con tempo
+ * di risposta a vuoto e finestre di campioni separati, come il circuit breaker
+ * e il bulkhead di {@link UpstreamGuard}: le operazioni hanno tempi di risposta
+ * diversi, e un rallentamento di una non deve ridurre il limite delle altre.
+ *
+ * Il limite viene aggiornato a ogni finestra di campioni con il tempo di
+ * risposta medio della finestra. Il tempo di risposta a vuoto è la media più
+ * bassa osservata nelle ultime due finestre di durata {@code baselineWindow},
+ * così dopo un rallentamento duraturo di Fabrick il riferimento si aggiorna
+ * entro due finestre. Finché la media resta entro {@code rttTolerance} volte
+ * quel valore il limite tende a {@code limite + sqrt(limite)}; quando la media
+ * sale il limite viene ridotto in proporzione, e una finestra con errori 5xx o
+ * di rete lo riduce del 10%. Il limite non cresce se le chiamate in corso sono
+ * meno di metà del limite, perché in quel caso il carico non dice nulla sulla
+ * capacità di Fabrick.
+ *
+ * Le chiamate oltre il limite attendono al più {@code maxQueueWait} in una coda
+ * di {@code maxQueueSize} posti, poi vengono rifiutate con
+ * {@link UpstreamUnavailableException} ({@code CONCURRENCY_LIMITED}).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final int MIN_SAMPLES_PER_WINDOW = 10;
+    private static final long MIN_SAMPLE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+    private final long baselineWindowNanos;
+    private final Map<FabrickOperation, OperationLimit> limits = new EnumMap<>(FabrickOperation.class);
+
+    public AdaptiveConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit,
+            double rttTolerance, int maxQueueSize, Duration maxQueueWait, Duration baselineWindow,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.baselineWindowNanos = baselineWindow.toNanos();
+
+        for (FabrickOperation operation : FabrickOperation.values()) {
+            OperationLimit operationLimit = new OperationLimit(operation,
+                    Math.max(minLimit, Math.min(maxLimit, initialLimit)), meterRegistry);
+            limits.put(operation, operationLimit);
+
+            String tag = operation.getTagValue();
+            Gauge.builder("fabrick.limiter.limit", operationLimit, l -> (int) l.limit)
+                    .description("Limite corrente di chiamate contemporanee verso Fabrick")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("fabrick.limiter.inflight", operationLimit, l -> l.inFlight)
+                    .description("Chiamate verso Fabrick in corso sotto il limite adattivo")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("fabrick.limiter.queued", operationLimit, l -> l.queued)
+                    .description("Chiamate in attesa di un posto sotto il limite adattivo")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("fabrick.limiter.baseline.rtt", operationLimit, l -> l.baselineRttNanos() / 1_000_000.0)
+                    .description("Tempo di risposta a vuoto stimato (ms)")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Esegue la chiamata quando c'è un posto sotto il limite corrente
+     * dell'operazione e ne usa la durata per aggiornare il limite.
+     */
+    public <T> T execute(FabrickOperation operation, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        OperationLimit operationLimit = limits.get(operation);
+        int inFlightAtStart = operationLimit.acquire();
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return call.get();
+        } catch (HttpServerErrorException | ResourceAccessException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            operationLimit.release(System.nanoTime() - start, inFlightAtStart, dropped);
+        }
+    }
+
+    /**
+     * Registra la durata di una chiamata conclusa per l'operazione. I campioni
+     * vengono raccolti in finestre di almeno {@value #MIN_SAMPLES_PER_WINDOW}
+     * chiamate e almeno un tempo di risposta medio, e il limite viene
+     * aggiornato alla chiusura di ogni finestra.
+     */
+    void onSample(FabrickOperation operation, long now, long rttNanos, int inFlightAtStart, boolean dropped) {
+        OperationLimit operationLimit = limits.get(operation);
+        operationLimit.lock.lock();
+        try {
+            operationLimit.onSample(now, rttNanos, inFlightAtStart, dropped);
+        } finally {
+            operationLimit.lock.unlock();
+        }
+    }
+
+    /**
+     * Limite corrente di chiamate contemporanee per l'operazione.
+     */
+    public int getLimit(FabrickOperation operation) {
+        return (int) limits.get(operation).limit;
+    }
+
+    public int getInFlight(FabrickOperation operation) {
+        return limits.get(operation).inFlight;
+    }
+
+    public int getQueued(FabrickOperation operation) {
+        return limits.get(operation).queued;
+    }
+
+    long getBaselineRttNanos(FabrickOperation operation) {
+        return limits.get(operation).baselineRttNanos();
+    }
+
+    /**
+     * Limite, chiamate in corso e finestre di campioni di una operazione.
+     */
+    private final class OperationLimit {
+
+        private final FabrickOperation operation;
+        private final Counter rejected;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition permitReleased = lock.newCondition();
+
+        // stato protetto da lock
+        private volatile double limit;
+        private volatile int inFlight;
+        private volatile int queued;
+        private long currentWindowMinRtt = Long.MAX_VALUE;
+        private long previousWindowMinRtt = Long.MAX_VALUE;
+        private long baselineWindowStart = System.nanoTime();
+        private long sampleWindowStart = System.nanoTime();
+        private int sampleCount;
+        private long sampleRttSum;
+        private int sampleMaxInFlight;
+        private boolean sampleDropped;
+
+        OperationLimit(FabrickOperation operation, double initialLimit, MeterRegistry meterRegistry) {
+            this.operation = operation;
+            this.limit = initialLimit;
+            this.rejected = Counter.builder("fabrick.limiter.rejected")
+                    .description("Chiamate rifiutate dal limite adattivo")
+                    .tag("operation", operation.getTagValue())
+                    .register(meterRegistry);
+        }
+
+        int acquire() {
+            lock.lock();
+            try {
+                if (inFlight < (int) limit) {
+                    return ++inFlight;
+                }
+                if (queued >= maxQueueSize || maxQueueWaitNanos <= 0) {
+                    throw reject();
+                }
+
+                queued++;
+                try {
+                    long remaining = maxQueueWaitNanos;
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            throw reject();
+                        }
+                        remaining = permitReleased.awaitNanos(remaining);
+                    }
+                    return ++inFlight;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject();
+                } finally {
+                    queued--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+            lock.lock();
+            try {
+                inFlight--;
+                onSample(System.nanoTime(), rttNanos, inFlightAtStart, dropped);
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // va invocato con il lock acquisito
+        void onSample(long now, long rttNanos, int inFlightAtStart, boolean dropped) {
+            sampleCount++;
+            sampleRttSum += rttNanos;
+            sampleMaxInFlight = Math.max(sampleMaxInFlight, inFlightAtStart);
+            sampleDropped |= dropped;
+
+            long averageRtt = sampleRttSum / sampleCount;
+            if (sampleCount < MIN_SAMPLES_PER_WINDOW
+                    || now - sampleWindowStart < Math.max(averageRtt, MIN_SAMPLE_WINDOW_NANOS)) {
+                return;
+            }
+
+            int maxInFlight = sampleMaxInFlight;
+            boolean windowDropped = sampleDropped;
+            sampleWindowStart = now;
+            sampleCount = 0;
+            sampleRttSum = 0;
+            sampleMaxInFlight = 0;
+            sampleDropped = false;
+
+            if (windowDropped) {
+                updateLimit(limit * DROP_BACKOFF, averageRtt);
+                return;
+            }
+
+            if (now - baselineWindowStart >= baselineWindowNanos) {
+                previousWindowMinRtt = currentWindowMinRtt;
+                currentWindowMinRtt = Long.MAX_VALUE;
+                baselineWindowStart = now;
+            }
+            currentWindowMinRtt = Math.min(currentWindowMinRtt, averageRtt);
+
+            double gradient = Math.max(MIN_GRADIENT,
+                    Math.min(1.0, rttTolerance * baselineRttNanos() / averageRtt));
+            if (gradient == 1.0 && maxInFlight < limit / 2) {
+                return;
+            }
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            updateLimit(limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING, averageRtt);
+        }
+
+        private void updateLimit(double newLimit, long rttNanos) {
+            double previous = limit;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            if ((int) limit != (int) previous) {
+                logger.debug("Concurrency limit for {} changed from {} to {} (rtt {} ms, baseline {} ms)",
+                        operation.getTagValue(), (int) previous, (int) limit, rttNanos / 1_000_000,
+                        baselineRttNanos() / 1_000_000);
+            }
+        }
+
+        private UpstreamUnavailableException reject() {
+            rejected.increment();
+            logger.debug("Rejected {} call: concurrency limit {} reached", operation.getTagValue(), (int) limit);
+            return new UpstreamUnavailableException(operation, ErrorConstants.CONCURRENCY_LIMITED,
+                    "Concurrency limit reached for " + operation.getTagValue(), null);
+        }
+
+        long baselineRttNanos() {
+            long baseline = Math.min(currentWindowMinRtt, previousWindowMinRtt);
+            return baseline == Long.MAX_VALUE ? 0 : baseline;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.orbyta.banking.service.resilience;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Protegge le chiamate verso Fabrick con un bulkhead e un circuit breaker per
+ * operazione: quando un'operazione degrada, le sue chiamate vengono rifiutate
+ * subito con {@link UpstreamUnavailableException} invece di occupare i thread
+ * delle richieste, e le altre operazioni non ne risentono.
+ *
+ * Dentro il circuit breaker la chiamata passa dal limite adattivo di
+ * concorrenza ({@link AdaptiveConcurrencyLimiter}), che tiene un limite
+ * separato per ogni operazione: un'operazione lenta riduce solo il proprio.
+ * Il limite resta attivo anche quando circuit breaker e bulkhead sono
+ * disabilitati.
+ *
+ * Lo stato dei circuiti è esposto dalle metriche {@code resilience4j.*}; ogni
+ * cambio di stato incrementa {@code fabrick.circuitbreaker.transitions} (tag
+ * {@code operation}, {@code from}, {@code to}).
+ */
+public class UpstreamGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private final boolean enabled;
+    private final Duration waitDurationInOpenState;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<FabrickOperation, CircuitBreaker> circuitBreakers = new EnumMap<>(FabrickOperation.class);
+    private final Map<FabrickOperation, Bulkhead> bulkheads = new EnumMap<>(FabrickOperation.class);
+
+    public UpstreamGuard(boolean enabled, CircuitBreakerConfig circuitBreakerConfig, BulkheadConfig bulkheadConfig,
+            AdaptiveConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.waitDurationInOpenState = Duration.ofMillis(
+                circuitBreakerConfig.getWaitIntervalFunctionInOpenState().apply(1));
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        for (FabrickOperation operation : FabrickOperation.values()) {
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(operation.getTagValue());
+            circuitBreaker.getEventPublisher().onStateTransition(event -> {
+                logger.warn("Circuit breaker for {} changed state: {}", operation.getTagValue(),
+                        event.getStateTransition());
+                Counter.builder("fabrick.circuitbreaker.transitions")
+                        .description("Cambi di stato dei circuit breaker verso Fabrick")
+                        .tag("operation", operation.getTagValue())
+                        .tag("from", event.getStateTransition().getFromState().name())
+                        .tag("to", event.getStateTransition().getToState().name())
+                        .register(meterRegistry)
+                        .increment();
+            });
+            circuitBreakers.put(operation, circuitBreaker);
+            bulkheads.put(operation, bulkheadRegistry.bulkhead(operation.getTagValue()));
+        }
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Esegue la chiamata se il circuito dell'operazione non è aperto e c'è un
+     * posto libero nel bulkhead e sotto il limite adattivo.
+     */
+    public <T> T execute(FabrickOperation operation, Supplier<T> call) {
+        Supplier<T> limited = () -> concurrencyLimiter.execute(operation, call);
+        if (!enabled) {
+            return limited.get();
+        }
+
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkheads.get(operation),
+                CircuitBreaker.decorateSupplier(circuitBreakers.get(operation), limited));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            logger.debug("Rejected {} call: circuit breaker open", operation.getTagValue());
+            throw new UpstreamUnavailableException(operation, ErrorConstants.CIRCUIT_OPEN,
+                    "Circuit breaker open for " + operation.getTagValue(), waitDurationInOpenState);
+        } catch (BulkheadFullException e) {
+            logger.debug("Rejected {} call: bulkhead full", operation.getTagValue());
+            throw new UpstreamUnavailableException(operation, ErrorConstants.BULKHEAD_FULL,
+                    "Too many concurrent calls for " + operation.getTagValue(), null);
+        }
+    }
+
+    /**
+     * Stato corrente del circuito dell'operazione.
+     */
+    public CircuitBreaker.State getState(FabrickOperation operation) {
+        return circuitBreakers.get(operation).getState();
+    }
+}
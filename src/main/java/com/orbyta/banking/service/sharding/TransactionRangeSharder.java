@@ -0,0 +1,222 @@
+package com.orbyta.banking.service.sharding;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.TransactionRangeLoader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Suddivide un intervallo di date contabili in blocchi di ampiezza fissa e li
+ * scarica in parallelo, con un numero massimo di blocchi in volo per richiesta.
+ *
+ * Ogni blocco viene ripetuto da solo in caso di errore 5xx o di rete; gli
+ * errori 4xx non vengono ripetuti. I blocchi vengono poi concatenati dal più
+ * recente, mantenendo l'ordine dell'upstream al loro interno: il risultato è
+ * lo stesso di un'unica chiamata sull'intero intervallo.
+ *
+ * Se un blocco fallisce o riceve una risposta KO, quelli non ancora avviati
+ * non vengono più inviati all'upstream e quelli
+ * in corso non vengono più ripetuti, ma non vengono interrotti: altre
+ * richieste possono essersi accodate alla stessa chiamata tramite
+ * l'accorpamento delle richieste.
+ */
+public class TransactionRangeSharder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRangeSharder.class);
+
+    private final boolean enabled;
+    private final Period chunk;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final ExecutorService executor;
+    private final Counter shards;
+    private final Counter retries;
+
+    public TransactionRangeSharder(boolean enabled, Period chunk, int maxConcurrency, int maxAttempts,
+            Duration retryBackoff, ExecutorService executor, MeterRegistry meterRegistry) {
+        if (chunk.isZero() || chunk.isNegative()) {
+            throw new IllegalArgumentException("Sharding chunk must be positive: " + chunk);
+        }
+        this.enabled = enabled;
+        this.chunk = chunk;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.executor = executor;
+        this.shards = Counter.builder("fabrick.transactions.shards")
+                .description("Blocchi di date scaricati per le richieste di transazioni suddivise")
+                .register(meterRegistry);
+        this.retries = Counter.builder("fabrick.transactions.shard.retries")
+                .description("Blocchi di date ripetuti dopo un errore dell'upstream")
+                .register(meterRegistry);
+
+        if (enabled) {
+            logger.info("Transaction range sharding enabled (chunk={}, maxConcurrency={}, maxAttempts={})",
+                    chunk, this.maxConcurrency, this.maxAttempts);
+        }
+    }
+
+    /**
+     * Scarica l'intervallo [from, to] tramite {@code loader}, suddividendolo in
+     * blocchi quando è più ampio di un blocco.
+     */
+    public ApiResponse<TransactionsPayload> load(String accountId, LocalDate from, LocalDate to,
+            TransactionRangeLoader loader) {
+        List<LocalDate[]> ranges = split(from, to);
+        if (!enabled || ranges.size() == 1) {
+            return loader.load(accountId, from, to);
+        }
+
+        logger.debug("Loading transactions for account: {} from: {} to: {} in {} chunks",
+                accountId, from, to, ranges.size());
+        shards.increment(ranges.size());
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<ApiResponse<TransactionsPayload>>> futures = new ArrayList<>(ranges.size());
+        try {
+            for (LocalDate[] range : ranges) {
+                permits.acquire();
+                if (abandoned.get()) {
+                    // un blocco è già fallito: i successivi non vengono avviati
+                    logger.debug("Skipping {} transaction chunks for account {} after a failed chunk",
+                            ranges.size() - futures.size(), accountId);
+                    permits.release();
+                    break;
+                }
+                futures.add(submit(() -> {
+                    try {
+                        ApiResponse<TransactionsPayload> response = loadWithRetry(accountId, range[0], range[1],
+                                loader, abandoned);
+                        if (!isOk(response)) {
+                            abandoned.set(true);
+                        }
+                        return response;
+                    } catch (Exception | Error e) {
+                        abandoned.set(true);
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<ApiResponse<TransactionsPayload>> responses = new ArrayList<>(futures.size());
+            for (Future<ApiResponse<TransactionsPayload>> future : futures) {
+                ApiResponse<TransactionsPayload> response = future.get();
+                if (!isOk(response)) {
+                    return response;
+                }
+                responses.add(response);
+            }
+            return merge(responses);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while loading transactions for account " + accountId);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // su errore i blocchi restanti non servono più a questa richiesta, ma quelli in corso
+            // possono essere condivisi con altre richieste: si annullano senza interromperli
+            abandoned.set(true);
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * Blocchi consecutivi dal più recente al più vecchio, l'ultimo eventualmente
+     * più corto.
+     */
+    List<LocalDate[]> split(LocalDate from, LocalDate to) {
+        List<LocalDate[]> ranges = new ArrayList<>();
+        LocalDate start = from;
+        while (!start.isAfter(to)) {
+            LocalDate next = start.plus(chunk);
+            LocalDate end = next.minusDays(1).isAfter(to) ? to : next.minusDays(1);
+            ranges.add(0, new LocalDate[] { start, end });
+            start = next;
+        }
+        return ranges;
+    }
+
+    private Future<ApiResponse<TransactionsPayload>> submit(Callable<ApiResponse<TransactionsPayload>> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // executor saturo: il blocco viene scaricato dal thread chiamante
+            FutureTask<ApiResponse<TransactionsPayload>> inline = new FutureTask<>(task);
+            inline.run();
+            return inline;
+        }
+    }
+
+    private ApiResponse<TransactionsPayload> loadWithRetry(String accountId, LocalDate from, LocalDate to,
+            TransactionRangeLoader loader, AtomicBoolean abandoned) throws InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return loader.load(accountId, from, to);
+            } catch (HttpClientErrorException e) {
+                throw e;
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts || abandoned.get()) {
+                    throw e;
+                }
+                retries.increment();
+                logger.warn("Transactions chunk {}..{} for account {} failed (attempt {}/{}): {}",
+                        from, to, accountId, attempt, maxAttempts, e.getMessage());
+                Thread.sleep(retryBackoff.multipliedBy(attempt));
+            }
+        }
+    }
+
+    private static boolean isOk(ApiResponse<TransactionsPayload> response) {
+        return response != null && ApiConstants.STATUS_OK.equals(response.getStatus());
+    }
+
+    private static ApiResponse<TransactionsPayload> merge(List<ApiResponse<TransactionsPayload>> responses) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (ApiResponse<TransactionsPayload> response : responses) {
+            if (response.getPayload() != null && response.getPayload().getList() != null) {
+                transactions.addAll(response.getPayload().getList());
+            }
+        }
+
+        ApiResponse<TransactionsPayload> first = responses.get(0);
+        ApiResponse<TransactionsPayload> merged = new ApiResponse<>();
+        merged.setStatus(first.getStatus());
+        merged.setError(first.getError());
+        merged.setPayload(new TransactionsPayload(transactions));
+        return merged;
+    }
+}
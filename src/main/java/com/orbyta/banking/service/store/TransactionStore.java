@@ -0,0 +1,496 @@
+package com.orbyta.banking.service.store;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.TransactionRangeLoader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Archivio locale e persistente delle transazioni per account, su file
+ * NDJSON in sola aggiunta ({@code <accountId>.ndjson} in {@code directory}).
+ *
+ * Per ogni account l'archivio copre un intervallo contiguo di giornate
+ * contabili chiuse: ogni riga del file è un segmento con l'intervallo
+ * scaricato da Fabrick e le sue transazioni. Una richiesta legge dal file i
+ * giorni già archiviati, scarica e aggiunge solo quelli mancanti ai due
+ * estremi e chiede sempre all'upstream la giornata odierna e le successive,
+ * che non vengono mai archiviate. {@link #syncAll(TransactionRangeLoader)}
+ * porta ogni account archiviato fino a ieri, scaricando solo i giorni dopo
+ * l'ultimo sincronizzato.
+ *
+ * All'apertura una riga finale senza terminatore (aggiunta interrotta) viene
+ * troncata e la copertura comprende solo segmenti adiacenti tra loro: i giorni
+ * di un segmento illeggibile vengono scaricati di nuovo.
+ *
+ * In memoria resta solo l'indice dei segmenti (intervallo e posizione nel
+ * file), quindi una lettura analizza solo i segmenti che intersecano
+ * l'intervallo richiesto. Il risultato ha lo stesso ordine di
+ * {@link com.orbyta.banking.service.cache.TransactionRangeCache}: dalla data
+ * contabile più recente, senza duplicati per transactionId.
+ */
+public class TransactionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionStore.class);
+
+    private static final String FILE_SUFFIX = ".ndjson";
+    // l'ID diventa un nome di file: gli altri account vengono letti solo dall'upstream
+    private static final Pattern ACCOUNT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Clock clock;
+    private final ObjectReader segmentReader;
+    private final ObjectWriter segmentWriter;
+    private final Map<String, AccountStore> accounts = new ConcurrentHashMap<>();
+    private final Counter localRequests;
+    private final Counter fetchedRequests;
+    private final Counter appendedTransactions;
+
+    public TransactionStore(boolean enabled, Path directory, Clock clock, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled && directory != null;
+        this.directory = directory;
+        this.clock = clock;
+        this.segmentReader = objectMapper.readerFor(Segment.class);
+        this.segmentWriter = objectMapper.writerFor(Segment.class);
+        this.localRequests = requestCounter(meterRegistry, "local");
+        this.fetchedRequests = requestCounter(meterRegistry, "fetched");
+        this.appendedTransactions = Counter.builder("fabrick.transactions.store.appended")
+                .description("Transazioni scaricate da Fabrick e aggiunte all'archivio locale")
+                .register(meterRegistry);
+
+        if (this.enabled) {
+            openDirectory();
+            logger.info("Transaction store enabled (directory={}, accounts={})", directory, accounts.size());
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fabrick.transactions.store.requests")
+                .description("Richieste di transazioni servite dall'archivio locale, con o senza giorni scaricati")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void openDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    String accountId = name.substring(0, name.length() - FILE_SUFFIX.length());
+                    if (ACCOUNT_ID_PATTERN.matcher(accountId).matches()) {
+                        accounts.put(accountId, new AccountStore(file));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open transaction store " + directory, e);
+        }
+    }
+
+    /**
+     * Restituisce le transazioni dell'intervallo [from, to]: i giorni chiusi
+     * dall'archivio, scaricando con {@code upstream} solo quelli non ancora
+     * archiviati, e i giorni da oggi in poi sempre dall'upstream.
+     */
+    public ApiResponse<TransactionsPayload> get(String accountId, LocalDate from, LocalDate to,
+            TransactionRangeLoader upstream) {
+        LocalDate lastClosedDay = LocalDate.now(clock).minusDays(1);
+        if (!enabled || !ACCOUNT_ID_PATTERN.matcher(accountId).matches() || from.isAfter(lastClosedDay)) {
+            return upstream.load(accountId, from, to);
+        }
+
+        LocalDate closedTo = to.isAfter(lastClosedDay) ? lastClosedDay : to;
+        AccountStore account = accounts.computeIfAbsent(accountId,
+                key -> new AccountStore(directory.resolve(key + FILE_SUFFIX)));
+        Map<LocalDate, List<Transaction>> closed;
+
+        account.lock.lock();
+        try {
+            account.open();
+            ApiResponse<TransactionsPayload> failure;
+            boolean fetched = false;
+            if (account.isEmpty()) {
+                failure = account.extend(accountId, from, closedTo, upstream);
+                fetched = true;
+            } else {
+                failure = null;
+                if (from.isBefore(account.from)) {
+                    failure = account.extend(accountId, from, account.from.minusDays(1), upstream);
+                    fetched = true;
+                }
+                if (failure == null && closedTo.isAfter(account.through)) {
+                    failure = account.extend(accountId, account.through.plusDays(1), closedTo, upstream);
+                    fetched = true;
+                }
+            }
+            if (failure != null) {
+                // risposta OK con date non interpretabili: l'intervallo richiesto viene servito dall'upstream
+                return isOk(failure) ? upstream.load(accountId, from, to) : failure;
+            }
+            (fetched ? fetchedRequests : localRequests).increment();
+            closed = account.read(from, closedTo);
+        } finally {
+            account.lock.unlock();
+        }
+
+        List<Transaction> result = new ArrayList<>();
+        if (to.isAfter(lastClosedDay)) {
+            ApiResponse<TransactionsPayload> tail = upstream.load(accountId, lastClosedDay.plusDays(1), to);
+            if (!isOk(tail)) {
+                return tail;
+            }
+            result.addAll(transactionsOf(tail));
+        }
+        closed.values().forEach(result::addAll);
+        return okResponse(deduplicate(result));
+    }
+
+    /**
+     * Porta ogni account archiviato fino all'ultima giornata chiusa,
+     * scaricando solo i giorni successivi all'ultimo sincronizzato. Un errore
+     * su un account non interrompe la sincronizzazione degli altri.
+     */
+    public void syncAll(TransactionRangeLoader upstream) {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDate lastClosedDay = LocalDate.now(clock).minusDays(1);
+        int synced = 0;
+        for (Map.Entry<String, AccountStore> entry : accounts.entrySet()) {
+            AccountStore account = entry.getValue();
+            account.lock.lock();
+            try {
+                account.open();
+                if (account.isEmpty() || !lastClosedDay.isAfter(account.through)) {
+                    continue;
+                }
+                ApiResponse<TransactionsPayload> failure = account.extend(entry.getKey(),
+                        account.through.plusDays(1), lastClosedDay, upstream);
+                if (failure == null) {
+                    synced++;
+                } else {
+                    logger.warn("Transaction sync for account {} returned status {}", entry.getKey(),
+                            failure.getStatus());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Transaction sync for account {} failed: {}", entry.getKey(), e.getMessage());
+            } finally {
+                account.lock.unlock();
+            }
+        }
+        logger.info("Transaction store synced {} of {} accounts through {}", synced, accounts.size(),
+                lastClosedDay);
+    }
+
+    /**
+     * Account presenti nell'archivio.
+     */
+    public Set<String> getAccountIds() {
+        return Collections.unmodifiableSet(accounts.keySet());
+    }
+
+    private static boolean isOk(ApiResponse<TransactionsPayload> response) {
+        return response != null && ApiConstants.STATUS_OK.equals(response.getStatus());
+    }
+
+    private static List<Transaction> transactionsOf(ApiResponse<TransactionsPayload> response) {
+        if (response.getPayload() == null || response.getPayload().getList() == null) {
+            return Collections.emptyList();
+        }
+        return response.getPayload().getList();
+    }
+
+    private static List<Transaction> deduplicate(List<Transaction> transactions) {
+        List<Transaction> result = new ArrayList<>(transactions.size());
+        Set<String> seenIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getTransactionId() == null || seenIds.add(transaction.getTransactionId())) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    private static ApiResponse<TransactionsPayload> okResponse(List<Transaction> transactions) {
+        ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(new TransactionsPayload(transactions));
+        return response;
+    }
+
+    /**
+     * Una riga del file: le transazioni di un intervallo di giornate chiuse,
+     * nell'ordine restituito da Fabrick.
+     */
+    record Segment(LocalDate from, LocalDate to, List<Transaction> transactions) {
+    }
+
+    /**
+     * Posizione di un segmento nel file.
+     */
+    private record SegmentIndex(LocalDate from, LocalDate to, long offset, int length) {
+    }
+
+    /**
+     * Archivio di un singolo account: l'indice dei segmenti viene costruito
+     * alla prima lettura del file. Va usato con il lock acquisito.
+     */
+    private final class AccountStore {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Path file;
+        private final List<SegmentIndex> segments = new ArrayList<>();
+        private boolean opened;
+        // fine dell'ultima riga completa: le aggiunte partono da qui
+        private long length;
+        private LocalDate from;
+        private LocalDate through;
+
+        private AccountStore(Path file) {
+            this.file = file;
+        }
+
+        private boolean isEmpty() {
+            return from == null;
+        }
+
+        private void open() {
+            if (opened) {
+                return;
+            }
+            opened = true;
+            if (!Files.exists(file)) {
+                return;
+            }
+
+            byte[] content;
+            try {
+                content = Files.readAllBytes(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read transaction store " + file, e);
+            }
+            List<SegmentIndex> readable = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] == '\n') {
+                    SegmentIndex index = index(content, start, i - start);
+                    if (index != null) {
+                        readable.add(index);
+                    }
+                    start = i + 1;
+                }
+            }
+            length = start;
+            if (length < content.length) {
+                // una riga senza terminatore è un'aggiunta interrotta: le aggiunte successive ripartono da qui
+                logger.warn("Discarding {} bytes of interrupted append in {}", content.length - length, file);
+                truncate();
+            }
+            chain(readable);
+            logger.debug("Opened transaction store {} ({} segments, {} to {})", file, segments.size(), from,
+                    through);
+        }
+
+        private SegmentIndex index(byte[] content, int offset, int length) {
+            try {
+                Segment segment = segmentReader.readValue(content, offset, length);
+                return new SegmentIndex(segment.from(), segment.to(), offset, length);
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable segment in {} at offset {}", file, offset);
+                return null;
+            }
+        }
+
+        /**
+         * Costruisce la copertura con i soli segmenti che formano, a partire
+         * dal primo, una catena di intervalli adiacenti. Gli altri (ad esempio
+         * separati da un segmento illeggibile) vengono ignorati e i loro giorni
+         * scaricati di nuovo quando richiesti.
+         */
+        private void chain(List<SegmentIndex> readable) {
+            List<SegmentIndex> pending = new ArrayList<>(readable);
+            boolean extended = true;
+            while (extended) {
+                extended = false;
+                for (Iterator<SegmentIndex> iterator = pending.iterator(); iterator.hasNext();) {
+                    SegmentIndex index = iterator.next();
+                    if (isEmpty() || index.to().plusDays(1).equals(from)
+                            || index.from().minusDays(1).equals(through)) {
+                        segments.add(index);
+                        cover(index.from(), index.to());
+                        iterator.remove();
+                        extended = true;
+                    }
+                }
+            }
+            if (!pending.isEmpty()) {
+                logger.warn("Ignoring {} segments not contiguous with {} to {} in {}", pending.size(), from,
+                        through, file);
+            }
+        }
+
+        private void truncate() {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to truncate transaction store " + file, e);
+            }
+        }
+
+        private void cover(LocalDate segmentFrom, LocalDate segmentTo) {
+            from = from == null || segmentFrom.isBefore(from) ? segmentFrom : from;
+            through = through == null || segmentTo.isAfter(through) ? segmentTo : through;
+        }
+
+        /**
+         * Scarica l'intervallo [rangeFrom, rangeTo] e lo aggiunge al file.
+         * Restituisce la risposta dell'upstream se non è OK, altrimenti null.
+         */
+        private ApiResponse<TransactionsPayload> extend(String accountId, LocalDate rangeFrom, LocalDate rangeTo,
+                TransactionRangeLoader upstream) {
+            logger.debug("Fetching transactions for store of account {} from {} to {}", accountId, rangeFrom,
+                    rangeTo);
+            ApiResponse<TransactionsPayload> response = upstream.load(accountId, rangeFrom, rangeTo);
+            if (!isOk(response)) {
+                return response;
+            }
+
+            List<Transaction> transactions = new ArrayList<>();
+            for (Transaction transaction : transactionsOf(response)) {
+                LocalDate day = accountingDate(transaction);
+                if (day == null) {
+                    // date non interpretabili: l'intervallo non viene archiviato
+                    logger.warn("Transaction {} of account {} has no valid accounting date, not stored",
+                            transaction.getTransactionId(), accountId);
+                    return response;
+                }
+                if (!day.isBefore(rangeFrom) && !day.isAfter(rangeTo)) {
+                    transactions.add(transaction);
+                }
+            }
+            append(new Segment(rangeFrom, rangeTo, transactions));
+            appendedTransactions.increment(transactions.size());
+            return null;
+        }
+
+        private void append(Segment segment) {
+            byte[] line;
+            try {
+                byte[] json = segmentWriter.writeValueAsBytes(segment);
+                line = new byte[json.length + 1];
+                System.arraycopy(json, 0, line, 0, json.length);
+                line[json.length] = '\n';
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize transaction segment", e);
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // scarta i resti di un'aggiunta fallita in precedenza
+                long offset = length;
+                channel.truncate(offset);
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + buffer.position());
+                }
+                channel.force(false);
+                length = offset + line.length;
+                segments.add(new SegmentIndex(segment.from(), segment.to(), offset, line.length - 1));
+                cover(segment.from(), segment.to());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to append to transaction store " + file, e);
+            }
+        }
+
+        /**
+         * Legge i giorni [readFrom, readTo] dai soli segmenti che li
+         * intersecano, dal giorno più recente.
+         */
+        private Map<LocalDate, List<Transaction>> read(LocalDate readFrom, LocalDate readTo) {
+            Map<LocalDate, List<Transaction>> byDay = new TreeMap<>(Comparator.reverseOrder());
+            if (readFrom.isAfter(readTo)) {
+                return byDay;
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (SegmentIndex index : segments) {
+                    if (index.to().isBefore(readFrom) || index.from().isAfter(readTo)) {
+                        continue;
+                    }
+                    ByteBuffer buffer = ByteBuffer.allocate(index.length());
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, index.offset() + buffer.position()) < 0) {
+                            throw new EOFException("Truncated segment at offset " + index.offset());
+                        }
+                    }
+                    Segment segment = segmentReader.readValue(buffer.array());
+                    Map<LocalDate, List<Transaction>> segmentDays = new LinkedHashMap<>();
+                    for (Transaction transaction : segment.transactions()) {
+                        LocalDate day = accountingDate(transaction);
+                        if (!day.isBefore(readFrom) && !day.isAfter(readTo)) {
+                            segmentDays.computeIfAbsent(day, key -> new ArrayList<>()).add(transaction);
+                        }
+                    }
+                    segmentDays.forEach((day, transactions) -> byDay.merge(day, transactions, (a, b) -> {
+                        a.addAll(b);
+                        return a;
+                    }));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read transaction store " + file, e);
+            }
+            return byDay;
+        }
+    }
+
+    private static LocalDate accountingDate(Transaction transaction) {
+        if (transaction.getAccountingDate() == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(transaction.getAccountingDate());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
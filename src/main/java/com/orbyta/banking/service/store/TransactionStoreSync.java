@@ -0,0 +1,30 @@
+package com.orbyta.banking.service.store;
+
+import java.time.Duration;
+
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import com.orbyta.banking.service.FabrickService;
+
+/**
+ * Sincronizzazione periodica dell'archivio locale delle transazioni: ogni
+ * {@code interval}, a partire da un {@code interval} dopo l'avvio.
+ */
+public class TransactionStoreSync implements SchedulingConfigurer {
+
+    private final FabrickService fabrickService;
+    private final Duration interval;
+
+    public TransactionStoreSync(FabrickService fabrickService, Duration interval) {
+        this.fabrickService = fabrickService;
+        this.interval = interval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(fabrickService::syncStoredTransactions, interval,
+                interval));
+    }
+}
@@ -0,0 +1,74 @@
+package com.orbyta.banking.aspect;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimingInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Target target;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new Target());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TimingInterceptor("SERVICE", Duration.ofMillis(500), 10,
+                () -> meterRegistry));
+        target = (Target) proxyFactory.getProxy();
+    }
+
+    /**
+     * Test che verifica che ogni chiamata venga registrata sul timer del metodo.
+     *
+     * Questo test verifica che:
+     * - Il risultato del metodo venga restituito invariato
+     * - Il timer sia unico per metodo, con i tag di layer, classe e metodo
+     */
+    @Test
+    void invoke_shouldRecordEachCallOnMethodTimer() {
+        // When
+        for (int i = 0; i < 25; i++) {
+            assertEquals("ok", target.call());
+        }
+
+        // Then
+        Timer timer = meterRegistry.get("fabrick.method.duration")
+                .tag("layer", "SERVICE")
+                .tag("class", "Target")
+                .tag("method", "call")
+                .timer();
+        assertEquals(25, timer.count());
+    }
+
+    /**
+     * Test che verifica che le eccezioni vengano propagate e che anche le
+     * chiamate fallite vengano misurate.
+     */
+    @Test
+    void invoke_shouldRecordFailedCalls() {
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> target.fail());
+        assertEquals(1, meterRegistry.get("fabrick.method.duration").tag("method", "fail").timer().count());
+    }
+
+    static class Target {
+
+        public String call() {
+            return "ok";
+        }
+
+        public String fail() {
+            throw new IllegalStateException("failure");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.orbyta.banking.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.controller.AccountController;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.service.FabrickService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AccountController.class,
+        properties = "spring.jackson.default-property-inclusion=non_null")
+public class BinaryFormatsConfigTest {
+
+    private static final String BALANCE_URL = ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}"
+            + ApiConstants.BALANCE_ENDPOINT;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FabrickService fabrickService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Balance balance = new Balance();
+        balance.setBalance(new BigDecimal("1000.00"));
+        balance.setCurrency("EUR");
+        when(fabrickService.getAccountBalance(anyString()))
+                .thenReturn(new ApiResponse<>(ApiConstants.STATUS_OK, balance, null));
+    }
+
+    /**
+     * Test che verifica che CBOR e Smile usino l'ObjectMapper configurato da
+     * Spring Boot e non quello predefinito di Spring.
+     *
+     * Questo test verifica che:
+     * - Con spring.jackson.default-property-inclusion=non_null i campi nulli
+     * vengano omessi anche nelle risposte CBOR e Smile
+     * - I valori presenti vengano codificati
+     */
+    @Test
+    void binaryResponses_shouldUseBootConfiguredMapper() throws Exception {
+        // When
+        byte[] cbor = mockMvc.perform(get(BALANCE_URL, "14537780").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get(BALANCE_URL, "14537780").accept(ApiConstants.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ApiConstants.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        for (JsonNode body : new JsonNode[] { new CBORMapper().readTree(cbor), new SmileMapper().readTree(smile) }) {
+            assertFalse(body.has("error"));
+            assertFalse(body.get("payload").has("date"));
+            assertEquals("EUR", body.get("payload").get("currency").asText());
+        }
+    }
+
+    /**
+     * Test che verifica che al RestTemplate verso Fabrick vengano tolti i
+     * convertitori CBOR e Smile registrati da Spring, così l'header Accept
+     * propone solo JSON.
+     */
+    @Test
+    void removeBinaryConverters_shouldStripDefaultBinaryConverters() {
+        // Given
+        RestTemplate fabrickRestTemplate = new RestTemplate();
+        assertTrue(fabrickRestTemplate.getMessageConverters().stream()
+                .anyMatch(MappingJackson2CborHttpMessageConverter.class::isInstance));
+
+        // When
+        BinaryFormatsConfig.removeBinaryConverters(fabrickRestTemplate.getMessageConverters());
+
+        // Then
+        assertTrue(fabrickRestTemplate.getMessageConverters().stream()
+                .noneMatch(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                        || converter instanceof MappingJackson2SmileHttpMessageConverter));
+    }
+}
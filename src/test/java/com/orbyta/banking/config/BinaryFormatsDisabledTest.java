@@ -0,0 +1,65 @@
+package com.orbyta.banking.config;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.controller.AccountController;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.service.FabrickService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AccountController.class,
+        properties = "api.banking.binary-formats.enabled=false")
+public class BinaryFormatsDisabledTest {
+
+    private static final String BALANCE_URL = ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}"
+            + ApiConstants.BALANCE_ENDPOINT;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FabrickService fabrickService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    /**
+     * Test che verifica che con api.banking.binary-formats.enabled=false anche i
+     * convertitori CBOR e Smile predefiniti di Spring vengano rimossi.
+     *
+     * Questo test verifica che:
+     * - Le richieste con Accept CBOR o Smile ricevano 406
+     * - Le richieste JSON continuino a funzionare
+     */
+    @Test
+    void binaryResponses_shouldBeNotAcceptable() throws Exception {
+        // Given
+        Balance balance = new Balance();
+        balance.setBalance(new BigDecimal("1000.00"));
+        balance.setCurrency("EUR");
+        when(fabrickService.getAccountBalance(anyString()))
+                .thenReturn(new ApiResponse<>(ApiConstants.STATUS_OK, balance, null));
+
+        // When / Then
+        mockMvc.perform(get(BALANCE_URL, "14537780").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get(BALANCE_URL, "14537780").accept(ApiConstants.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get(BALANCE_URL, "14537780").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+}
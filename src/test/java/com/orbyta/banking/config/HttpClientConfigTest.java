@@ -0,0 +1,114 @@
+package com.orbyta.banking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    /**
+     * Test che verifica che il pool Apache venga configurato con limiti e
+     * timeout delle proprietà api.banking.http-client.*.
+     *
+     * Questo test verifica che:
+     * - Il pool abbia i limiti di connessioni totali e per host configurati
+     * - Il client usi i timeout di attesa del pool e di risposta e il keep-alive
+     * configurati
+     * - Il RestTemplate usi il client Apache
+     */
+    @Test
+    void apacheEngine_shouldApplyPoolLimitsAndTimeouts() {
+        // Given
+        contextRunner
+                .withPropertyValues(
+                        "api.banking.http-client.max-connections-total=40",
+                        "api.banking.http-client.max-connections-per-route=15",
+                        "api.banking.http-client.connection-request-timeout=750ms",
+                        "api.banking.http-client.response-timeout=4s",
+                        "api.banking.http-client.keep-alive=45s")
+                .run(context -> {
+                    // When
+                    InstrumentedConnectionManager connectionManager = context
+                            .getBean(InstrumentedConnectionManager.class);
+                    RequestConfig requestConfig = ((Configurable) context.getBean(CloseableHttpClient.class))
+                            .getConfig();
+
+                    // Then
+                    assertEquals(40, connectionManager.getMaxTotal());
+                    assertEquals(15, connectionManager.getDefaultMaxPerRoute());
+                    assertEquals(Timeout.ofMilliseconds(750), requestConfig.getConnectionRequestTimeout());
+                    assertEquals(Timeout.ofSeconds(4), requestConfig.getResponseTimeout());
+                    assertEquals(TimeValue.ofSeconds(45), requestConfig.getConnectionKeepAlive());
+                    assertInstanceOf(HttpComponentsClientHttpRequestFactory.class,
+                            context.getBean(ClientHttpRequestFactory.class));
+                });
+    }
+
+    /**
+     * Test che verifica che il tempo di attesa per ottenere una connessione dal
+     * pool venga registrato nel timer httpcomponents.httpclient.pool.lease.wait.
+     */
+    @Test
+    void apacheEngine_shouldRecordLeaseWait() {
+        contextRunner.run(context -> {
+            // Given
+            InstrumentedConnectionManager connectionManager = context.getBean(InstrumentedConnectionManager.class);
+            HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+
+            // When
+            ConnectionEndpoint endpoint = connectionManager.lease("test", route, Timeout.ofSeconds(1), null)
+                    .get(Timeout.ofSeconds(1));
+            connectionManager.release(endpoint, null, TimeValue.ZERO_MILLISECONDS);
+
+            // Then
+            Timer leaseWait = context.getBean(MeterRegistry.class).find("httpcomponents.httpclient.pool.lease.wait")
+                    .tag("httpclient", "fabrick")
+                    .timer();
+            assertNotNull(leaseWait);
+            assertEquals(1, leaseWait.count());
+            assertTrue(leaseWait.totalTime(TimeUnit.NANOSECONDS) > 0);
+        });
+    }
+
+    /**
+     * Test che verifica che con engine=jdk venga usato il client JDK e non
+     * venga creato il pool Apache, le cui proprietà vengono quindi ignorate.
+     */
+    @Test
+    void jdkEngine_shouldNotCreateApachePool() {
+        // Given
+        contextRunner
+                .withPropertyValues("api.banking.http-client.engine=jdk")
+                .run(context -> {
+                    // Then
+                    assertInstanceOf(JdkClientHttpRequestFactory.class, context.getBean(ClientHttpRequestFactory.class));
+                    assertTrue(context.getBeansOfType(InstrumentedConnectionManager.class).isEmpty());
+                    assertTrue(context.getBeansOfType(CloseableHttpClient.class).isEmpty());
+                });
+    }
+}
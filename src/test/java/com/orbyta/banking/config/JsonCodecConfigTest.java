@@ -0,0 +1,159 @@
+package com.orbyta.banking.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ValidationConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonCodecConfigTest {
+
+    private final ObjectMapper reflection = converterMapper(new RestTemplate());
+    private final ObjectMapper optimized = optimizedMapper();
+
+    /**
+     * Test che verifica che con gli accessori generati il JSON prodotto sia
+     * identico byte per byte a quello della reflection e che venga riletto
+     * senza differenze.
+     *
+     * Questo test verifica che:
+     * - Il modulo venga registrato sul convertitore JSON del RestTemplate
+     * - Richiesta e risposte di tutti gli endpoint producano gli stessi byte
+     * - La lettura con gli accessori generati restituisca gli stessi oggetti
+     */
+    @Test
+    void optimizedAccessors_shouldProduceIdenticalJson() throws Exception {
+        // Given
+        List<Sample<?>> samples = List.of(
+                new Sample<>(accounts(), new TypeReference<ApiResponse<AccountsPayload>>() {
+                }),
+                new Sample<>(new ApiResponse<>(ApiConstants.STATUS_OK,
+                        new Balance("2024-03-15", new BigDecimal("29.64"), new BigDecimal("29.64"), "EUR"), null),
+                        new TypeReference<ApiResponse<Balance>>() {
+                        }),
+                new Sample<>(transactions(), new TypeReference<ApiResponse<TransactionsPayload>>() {
+                }),
+                new Sample<>(moneyTransferRequest(), new TypeReference<MoneyTransferRequest>() {
+                }),
+                new Sample<>(moneyTransferResponse(), new TypeReference<ApiResponse<MoneyTransferResponse>>() {
+                }),
+                new Sample<>(new ApiResponse<>(ApiConstants.STATUS_KO, null,
+                        List.of(Map.of("code", "API000", "description", "Errore"))),
+                        new TypeReference<ApiResponse<Balance>>() {
+                        }));
+
+        // When / Then
+        assertTrue(optimized.getRegisteredModuleIds().contains("com.fasterxml.jackson.module.blackbird.BlackbirdModule"));
+        for (Sample<?> sample : samples) {
+            byte[] expected = reflection.writeValueAsBytes(sample.value());
+            byte[] actual = optimized.writeValueAsBytes(sample.value());
+            assertArrayEquals(expected, actual, new String(expected));
+            assertEquals(reflection.readValue(expected, sample.type()), optimized.readValue(actual, sample.type()));
+            assertEquals(sample.value(), optimized.readValue(actual, sample.type()));
+        }
+    }
+
+    private static ObjectMapper optimizedMapper() {
+        RestTemplate restTemplate = new RestTemplate();
+        JsonCodecConfig.registerOn(restTemplate, new JsonCodecConfig().blackbirdModule());
+        return converterMapper(restTemplate);
+    }
+
+    private static ObjectMapper converterMapper(RestTemplate restTemplate) {
+        return restTemplate.getMessageConverters().stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static ApiResponse<AccountsPayload> accounts() {
+        Account account = new Account("14537780", "IT40L0326822300052849400440", "03268", "22300", "IT", "40",
+                "L", "52849400440", "Test api", "Conto Websella", "LUCA TERRIBILE", new Date(1_459_296_000_000L),
+                "EUR");
+        return new ApiResponse<>(ApiConstants.STATUS_OK, new AccountsPayload(List.of(account)), null);
+    }
+
+    private static ApiResponse<TransactionsPayload> transactions() {
+        return new ApiResponse<>(ApiConstants.STATUS_OK, new TransactionsPayload(List.of(
+                new Transaction("1331714087", "00000000273015", "2019-04-01", "2019-04-01",
+                        new TransactionType("GBS_TRANSACTION_TYPE", "GBS_TRANSACTION_TYPE_0023"),
+                        new BigDecimal("-800.00"), "EUR", "BA JOHN DOE PAYMENT INVOICE 75/2017"),
+                new Transaction("1331714088", null, "2019-04-01", "2019-03-29", null,
+                        new BigDecimal("1E+3"), "EUR", "Stipendio àèìòù €"))), null);
+    }
+
+    private static MoneyTransferRequest moneyTransferRequest() {
+        MoneyTransferRequest.TaxRelief taxRelief = new MoneyTransferRequest.TaxRelief();
+        taxRelief.setTaxReliefId("L449");
+        taxRelief.setBeneficiaryType(ValidationConstants.NATURAL_PERSON);
+        taxRelief.setCreditorFiscalCode("56258745832");
+        taxRelief.setNaturalPersonBeneficiary(
+                new MoneyTransferRequest.TaxRelief.NaturalPersonBeneficiary("MRLFNC81L04A859L", null, null, null,
+                        null));
+
+        MoneyTransferRequest request = new MoneyTransferRequest();
+        request.setCreditor(new MoneyTransferRequest.Creditor("John Doe",
+                new MoneyTransferRequest.Creditor.Account("IT23A0336844430152923804660", "SELBIT2BXXX"),
+                new MoneyTransferRequest.Creditor.Address("Via Roma 1", "Milano", "IT")));
+        request.setExecutionDate(LocalDate.of(2019, 4, 1));
+        request.setUri("REMITTANCE_INFORMATION");
+        request.setDescription("Payment invoice 75/2017");
+        request.setAmount(new BigDecimal("800"));
+        request.setCurrency("EUR");
+        request.setUrgent(false);
+        request.setInstant(false);
+        request.setFeeType("SHA");
+        request.setFeeAccountId("45685475");
+        request.setTaxRelief(taxRelief);
+        return request;
+    }
+
+    private static ApiResponse<MoneyTransferResponse> moneyTransferResponse() {
+        MoneyTransferResponse response = new MoneyTransferResponse();
+        response.setMoneyTransferId("452516859427");
+        response.setStatus("EXECUTED");
+        response.setDirection("OUTGOING");
+        response.setCreditor(new MoneyTransferResponse.Creditor("John Doe",
+                new MoneyTransferResponse.Creditor.Account("IT23A0336844430152923804660", "SELBIT2BXXX"),
+                new MoneyTransferResponse.Creditor.Address(null, null, null)));
+        response.setDebtor(new MoneyTransferResponse.Debtor("LUCA TERRIBILE",
+                new MoneyTransferResponse.Debtor.Account("IT61F0326802230000052625016", null)));
+        response.setCro("1234566788907");
+        response.setTrn("AJFSAD1234566788907CCSFDGTGVGV");
+        response.setDescription("Payment invoice 75/2017");
+        response.setCreatedDatetime("2019-04-10T10:38:55.949+0100");
+        response.setAmount(new MoneyTransferResponse.Amount(new BigDecimal("800"), "EUR", new BigDecimal("800"),
+                "EUR", "2019-04-10", BigDecimal.ONE));
+        response.setFeeType("SHA");
+        response.setFees(List.of(
+                new MoneyTransferResponse.Fee("MK001", "Money transfer execution fee", new BigDecimal("0.25"), "EUR")));
+        response.setHasTaxRelief(true);
+        return new ApiResponse<>(ApiConstants.STATUS_OK, response, null);
+    }
+
+    private record Sample<T>(T value, TypeReference<T> type) {
+    }
+}
@@ -139,17 +139,17 @@ public class AccountControllerTest {
         // Given
         MoneyTransferRequest request = createSampleMoneyTransferRequest();
 
-        when(fabrickService.createMoneyTransfer(accountId, request))
+        when(fabrickService.createMoneyTransfer(accountId, request, "transfer-key-1"))
                 .thenReturn(moneyTransferApiResponse);
 
         // When
         ResponseEntity<ApiResponse<MoneyTransferResponse>> response = accountController.createMoneyTransfer(accountId,
-                request);
+                "transfer-key-1", request);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(moneyTransferApiResponse, response.getBody());
-        verify(fabrickService).createMoneyTransfer(accountId, request);
+        verify(fabrickService).createMoneyTransfer(accountId, request, "transfer-key-1");
     }
 
     private MoneyTransferRequest createSampleMoneyTransferRequest() {
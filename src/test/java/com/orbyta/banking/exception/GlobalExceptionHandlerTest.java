@@ -3,11 +3,13 @@ package com.orbyta.banking.exception;
 import com.orbyta.banking.constants.ApiConstants;
 import com.orbyta.banking.constants.ErrorConstants;
 import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.service.FabrickOperation;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -222,4 +225,90 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Il creditore è obbligatorio", validationErrors.get("creditor"));
         assertEquals("L'importo è obbligatorio", validationErrors.get("amount"));
     }
+
+    /**
+     * Test per la gestione delle chiamate rifiutate dal circuit breaker.
+     *
+     * Questo test verifica che la risposta abbia:
+     * - Status HTTP 503 SERVICE_UNAVAILABLE
+     * - Codice errore "CIRCUIT_OPEN"
+     * - Header Retry-After con l'attesa in secondi
+     */
+    @Test
+    void handleUpstreamUnavailable_shouldReturnServiceUnavailable() {
+        // Given
+        UpstreamUnavailableException ex = new UpstreamUnavailableException(FabrickOperation.GET_BALANCE,
+                ErrorConstants.CIRCUIT_OPEN, "Circuit breaker open for getAccountBalance", Duration.ofSeconds(10));
+
+        // When
+        ResponseEntity<ApiResponse<Object>> response = exceptionHandler.handleUpstreamUnavailable(ex);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("10", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        ApiResponse<Object> body = response.getBody();
+        assertNotNull(body);
+        assertEquals(ApiConstants.STATUS_KO, body.getStatus());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = (Map<String, Object>) body.getError();
+        assertEquals(ErrorConstants.CIRCUIT_OPEN, error.get(ErrorConstants.CODE));
+    }
+
+    /**
+     * Test per la gestione di una chiave di idempotenza riusata con un
+     * bonifico diverso.
+     *
+     * Questo test verifica che la risposta abbia:
+     * - Status HTTP 422 UNPROCESSABLE_ENTITY
+     * - Codice errore "IDEMPOTENCY_KEY_MISMATCH"
+     */
+    @Test
+    void handleIdempotencyKeyMismatch_shouldReturnUnprocessableEntity() {
+        // Given
+        IdempotencyKeyMismatchException ex = new IdempotencyKeyMismatchException("transfer-key-1");
+
+        // When
+        ResponseEntity<ApiResponse<Object>> response = exceptionHandler.handleIdempotencyKeyMismatch(ex);
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+
+        ApiResponse<Object> body = response.getBody();
+        assertNotNull(body);
+        assertEquals(ApiConstants.STATUS_KO, body.getStatus());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = (Map<String, Object>) body.getError();
+        assertEquals(ErrorConstants.IDEMPOTENCY_KEY_MISMATCH, error.get(ErrorConstants.CODE));
+    }
+
+    /**
+     * Test che verifica la gestione di un tentativo ripetuto di un bonifico
+     * dall'esito sconosciuto.
+     *
+     * Questo test verifica che:
+     * - Lo status HTTP sia 409 CONFLICT
+     * - Codice errore "IDEMPOTENCY_OUTCOME_UNKNOWN"
+     */
+    @Test
+    void handleIdempotencyOutcomeUnknown_shouldReturnConflict() {
+        // Given
+        IdempotencyOutcomeUnknownException ex = new IdempotencyOutcomeUnknownException("transfer-key-1");
+
+        // When
+        ResponseEntity<ApiResponse<Object>> response = exceptionHandler.handleIdempotencyOutcomeUnknown(ex);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        ApiResponse<Object> body = response.getBody();
+        assertNotNull(body);
+        assertEquals(ApiConstants.STATUS_KO, body.getStatus());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = (Map<String, Object>) body.getError();
+        assertEquals(ErrorConstants.IDEMPOTENCY_OUTCOME_UNKNOWN, error.get(ErrorConstants.CODE));
+    }
 }
@@ -0,0 +1,105 @@
+package com.orbyta.banking.integration;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.controller.AccountBatchController;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.batch.AccountOverview;
+import com.orbyta.banking.model.batch.AccountOverviewPayload;
+import com.orbyta.banking.model.batch.BalanceBatchItem;
+import com.orbyta.banking.model.batch.BalanceBatchPayload;
+import com.orbyta.banking.service.batch.AccountOverviewService;
+import com.orbyta.banking.service.batch.BalanceBatchService;
+
+@WebMvcTest(AccountBatchController.class)
+public class AccountBatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BalanceBatchService balanceBatchService;
+
+    @MockBean
+    private AccountOverviewService accountOverviewService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    /**
+     * Test di integrazione che verifica l'endpoint dei saldi di più account.
+     *
+     * Questo test verifica che:
+     * - La risposta abbia status 200 OK anche se alcuni saldi mancano
+     * - Il payload sia segnato come parziale, con l'esito di ogni account
+     */
+    @Test
+    void getAccountBalances_shouldReturnPerAccountResults() throws Exception {
+        when(balanceBatchService.getBalances(anyList())).thenReturn(new BalanceBatchPayload(true, List.of(
+                new BalanceBatchItem("1", ApiConstants.STATUS_OK, null, null),
+                new BalanceBatchItem("2", ApiConstants.STATUS_TIMEOUT, null, null))));
+
+        mockMvc.perform(post(ApiConstants.API_ACCOUNTS_BASE_PATH + ApiConstants.BALANCES_BATCH_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountIds\":[\"1\",\"2\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(ApiConstants.STATUS_OK))
+                .andExpect(jsonPath("$.payload.partial").value(true))
+                .andExpect(jsonPath("$.payload.list[1].status").value(ApiConstants.STATUS_TIMEOUT));
+    }
+
+    /**
+     * Test di integrazione che verifica la validazione di una lista di account
+     * vuota.
+     */
+    @Test
+    void getAccountBalances_withEmptyList_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post(ApiConstants.API_ACCOUNTS_BASE_PATH + ApiConstants.BALANCES_BATCH_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountIds\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value(ErrorConstants.VALIDATION_ERROR));
+    }
+
+    /**
+     * Test di integrazione che verifica l'endpoint della panoramica degli
+     * account con i relativi saldi.
+     *
+     * Questo test verifica che:
+     * - La risposta abbia status 200 OK
+     * - Ogni account riporti l'esito della lettura del saldo
+     */
+    @Test
+    void getAccountOverview_shouldReturnAccountsWithBalanceStatus() throws Exception {
+        Account account = new Account();
+        account.setAccountId("14537780");
+        when(accountOverviewService.getOverview()).thenReturn(new ApiResponse<>(ApiConstants.STATUS_OK,
+                new AccountOverviewPayload(true, List.of(
+                        new AccountOverview(account, ApiConstants.STATUS_TIMEOUT, null, null))),
+                null));
+
+        mockMvc.perform(get(ApiConstants.API_ACCOUNTS_BASE_PATH + ApiConstants.OVERVIEW_ENDPOINT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.payload.partial").value(true))
+                .andExpect(jsonPath("$.payload.list[0].account.accountId").value("14537780"))
+                .andExpect(jsonPath("$.payload.list[0].balanceStatus").value(ApiConstants.STATUS_TIMEOUT));
+    }
+}
@@ -1,15 +1,23 @@
 package com.orbyta.banking.integration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,18 +31,28 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
 import com.orbyta.banking.controller.AccountController;
+import com.orbyta.banking.exception.UpstreamErrorResponseException;
 import com.orbyta.banking.model.ApiResponse;
 import com.orbyta.banking.model.account.AccountsPayload;
 import com.orbyta.banking.model.balance.Balance;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
 import com.orbyta.banking.model.transaction.TransactionsPayload;
 import com.orbyta.banking.service.FabrickService;
+import com.orbyta.banking.service.TransactionStream;
 
 @WebMvcTest(AccountController.class)
 public class AccountIntegrationTest {
@@ -79,7 +97,7 @@ public class AccountIntegrationTest {
         when(fabrickService.getAccountBalance(anyString())).thenReturn(balanceResponse);
         when(fabrickService.getAccountTransactions(anyString(), anyString(), anyString()))
                 .thenReturn(transactionsResponse);
-        when(fabrickService.createMoneyTransfer(anyString(), any(MoneyTransferRequest.class)))
+        when(fabrickService.createMoneyTransfer(anyString(), any(MoneyTransferRequest.class), any()))
                 .thenReturn(moneyTransferResponse);
 
         // imposto mock per le chiamate REST
@@ -169,6 +187,53 @@ public class AccountIntegrationTest {
                 .andExpect(jsonPath("$.status").value(ApiConstants.STATUS_OK));
     }
 
+    /**
+     * Test di integrazione che verifica la negoziazione dei formati binari
+     * sull'endpoint delle transazioni.
+     *
+     * Questo test verifica che:
+     * - Con Accept application/cbor la risposta sia CBOR con la stessa struttura
+     * - Con Accept application/x-jackson-smile la risposta sia Smile
+     * - Con Accept generico la risposta resti JSON
+     */
+    @Test
+    void getAccountTransactions_shouldNegotiateBinaryFormats() throws Exception {
+        ApiResponse<TransactionsPayload> expected = new ApiResponse<>(ApiConstants.STATUS_OK,
+                new TransactionsPayload(List.of(new Transaction("1331714087", "00000000273015", "2023-01-15",
+                        "2023-01-15", new TransactionType("GBS_TRANSACTION_TYPE", "GBS_TRANSACTION_TYPE_0023"),
+                        new BigDecimal("-800.00"), "EUR", "BA JOHN DOE PAYMENT INVOICE 75/2017"))),
+                null);
+        when(fabrickService.getAccountTransactions(anyString(), anyString(), anyString())).thenReturn(expected);
+        TypeReference<ApiResponse<TransactionsPayload>> type = new TypeReference<>() {
+        };
+        String url = ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.TRANSACTIONS_ENDPOINT;
+
+        byte[] cbor = mockMvc.perform(get(url, accountId)
+                .param("fromAccountingDate", "2023-01-01")
+                .param("toAccountingDate", "2023-01-31")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get(url, accountId)
+                .param("fromAccountingDate", "2023-01-01")
+                .param("toAccountingDate", "2023-01-31")
+                .accept(ApiConstants.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ApiConstants.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get(url, accountId)
+                .param("fromAccountingDate", "2023-01-01")
+                .param("toAccountingDate", "2023-01-31")
+                .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.payload.list[0].transactionId").value("1331714087"));
+
+        assertEquals(expected, new CBORMapper().readValue(cbor, type));
+        assertEquals(expected, new SmileMapper().readValue(smile, type));
+    }
+
     /**
      * Test di integrazione che verifica l'endpoint per creare un bonifico.
      * 
@@ -210,6 +275,78 @@ public class AccountIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Test di integrazione che verifica l'endpoint di streaming delle transazioni.
+     * 
+     * Questo test simula una richiesta HTTP GET all'endpoint di streaming e
+     * verifica che:
+     * - La risposta venga prodotta in modo asincrono con status 200 OK
+     * - Il Content-Type sia application/x-ndjson
+     * - Il corpo contenga le righe scritte dal servizio
+     */
+    @Test
+    void streamAccountTransactions_shouldReturnNdjson() throws Exception {
+        String ndjson = "{\"transactionId\":\"T1\"}\n{\"transactionId\":\"T2\"}\n";
+        TransactionStream transactions = mock(TransactionStream.class);
+        when(transactions.writeTo(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+        when(fabrickService.openTransactionStream(anyString(), anyString(), anyString())).thenReturn(transactions);
+
+        MvcResult result = mockMvc.perform(get(
+                ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.TRANSACTIONS_STREAM_ENDPOINT,
+                accountId)
+                .param("fromAccountingDate", "2023-01-01")
+                .param("toAccountingDate", "2023-12-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ndjson));
+    }
+
+    /**
+     * Test di integrazione che verifica che un errore di Fabrick all'apertura
+     * dello stream venga gestito da GlobalExceptionHandler come sugli altri
+     * endpoint.
+     */
+    @Test
+    void streamAccountTransactions_withUpstreamClientError_shouldReturnErrorResponse() throws Exception {
+        when(fabrickService.openTransactionStream(anyString(), anyString(), anyString()))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid request"));
+
+        mockMvc.perform(get(
+                ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.TRANSACTIONS_STREAM_ENDPOINT,
+                accountId)
+                .param("fromAccountingDate", "2023-12-31")
+                .param("toAccountingDate", "2023-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(ApiConstants.STATUS_KO));
+    }
+
+    /**
+     * Test di integrazione che verifica che una risposta KO di Fabrick,
+     * rilevata all'apertura dello stream, arrivi al client come 502 invece di
+     * uno stream vuoto.
+     */
+    @Test
+    void streamAccountTransactions_withKoResponse_shouldReturnBadGateway() throws Exception {
+        when(fabrickService.openTransactionStream(anyString(), anyString(), anyString()))
+                .thenThrow(new UpstreamErrorResponseException("External API returned a KO response", null));
+
+        mockMvc.perform(get(
+                ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.TRANSACTIONS_STREAM_ENDPOINT,
+                accountId)
+                .param("fromAccountingDate", "2023-01-01")
+                .param("toAccountingDate", "2023-12-31"))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.status").value(ApiConstants.STATUS_KO))
+                .andExpect(jsonPath("$.error.code").value(ErrorConstants.API_ERROR));
+    }
+
     private MoneyTransferRequest createSampleMoneyTransferRequest() {
         MoneyTransferRequest.Creditor creditor = new MoneyTransferRequest.Creditor();
         MoneyTransferRequest.Creditor.Account account = new MoneyTransferRequest.Creditor.Account();
@@ -0,0 +1,103 @@
+package com.orbyta.banking.integration;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.controller.BulkTransferController;
+import com.orbyta.banking.exception.BulkTransferJobNotFoundException;
+import com.orbyta.banking.model.bulk.BulkTransferJobPayload;
+import com.orbyta.banking.model.bulk.BulkTransferJobState;
+import com.orbyta.banking.service.bulk.BulkTransferService;
+
+@WebMvcTest(BulkTransferController.class)
+public class BulkTransferIntegrationTest {
+
+    private static final String ACCOUNT_ID = "14537780";
+    private static final String BULK_PATH = ApiConstants.API_ACCOUNTS_BASE_PATH + "/" + ACCOUNT_ID
+            + ApiConstants.BULK_MONEY_TRANSFERS_ENDPOINT;
+    private static final String TRANSFER_JSON = "{\"creditor\":{\"name\":\"John Doe\",\"account\":"
+            + "{\"accountCode\":\"IT60X0542811101000000123456\"}},\"description\":\"Salary\","
+            + "\"amount\":100.00,\"currency\":\"EUR\",\"executionDate\":\"2030-01-15\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkTransferService bulkTransferService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    /**
+     * Test di integrazione che verifica l'accettazione di un job di bonifici.
+     *
+     * Questo test verifica che:
+     * - La risposta abbia status 202 ACCEPTED
+     * - L'header Location punti all'endpoint di stato del job
+     */
+    @Test
+    void submitBulkTransfer_shouldReturnAcceptedWithJobLocation() throws Exception {
+        when(bulkTransferService.submit(eq(ACCOUNT_ID), anyList())).thenReturn(new BulkTransferJobPayload("job-1",
+                ACCOUNT_ID, BulkTransferJobState.QUEUED, 2, 2, 0, 0, Instant.now(), null, 0, List.of()));
+
+        mockMvc.perform(post(BULK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transfers\":[" + TRANSFER_JSON + "," + TRANSFER_JSON + "]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", BULK_PATH + "/job-1"))
+                .andExpect(jsonPath("$.payload.jobId").value("job-1"))
+                .andExpect(jsonPath("$.payload.state").value("QUEUED"));
+    }
+
+    /**
+     * Test di integrazione che verifica che un solo bonifico non valido
+     * faccia rifiutare l'intero job prima di accodarlo.
+     */
+    @Test
+    void submitBulkTransfer_withInvalidItem_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post(BULK_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transfers\":[" + TRANSFER_JSON + ",{\"description\":\"Salary\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value(ErrorConstants.VALIDATION_ERROR));
+
+        verify(bulkTransferService, never()).submit(anyString(), anyList());
+    }
+
+    /**
+     * Test di integrazione che verifica la risposta 404 per un job
+     * inesistente o scaduto.
+     */
+    @Test
+    void getBulkTransfer_withUnknownJob_shouldReturnNotFound() throws Exception {
+        when(bulkTransferService.getJob(eq(ACCOUNT_ID), eq("missing"), anyInt(), anyInt()))
+                .thenThrow(new BulkTransferJobNotFoundException("missing"));
+
+        mockMvc.perform(get(BULK_PATH + "/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value(ErrorConstants.JOB_NOT_FOUND));
+    }
+}
@@ -0,0 +1,129 @@
+package com.orbyta.banking.integration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.controller.ReactiveAccountController;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.service.ReactiveFabrickService;
+
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveAccountController.class)
+@ActiveProfiles("reactive")
+public class ReactiveAccountIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveFabrickService fabrickService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private final String accountId = "14537780";
+
+    /**
+     * Test di integrazione che verifica l'endpoint reattivo per ottenere il saldo
+     * di un account.
+     *
+     * Questo test verifica che:
+     * - La risposta abbia status 200 OK
+     * - Il campo "status" nella risposta JSON sia "OK"
+     * - La valuta nel payload sia "EUR"
+     */
+    @Test
+    void getAccountBalance_shouldReturnOkStatus() {
+        ApiResponse<Balance> balanceResponse = new ApiResponse<>();
+        balanceResponse.setStatus(ApiConstants.STATUS_OK);
+        Balance balance = new Balance();
+        balance.setAvailableBalance(new BigDecimal("1000.00"));
+        balance.setCurrency("EUR");
+        balanceResponse.setPayload(balance);
+        when(fabrickService.getAccountBalance(anyString())).thenReturn(Mono.just(balanceResponse));
+
+        webTestClient.get()
+                .uri(ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.BALANCE_ENDPOINT, accountId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(ApiConstants.STATUS_OK)
+                .jsonPath("$.payload.currency").isEqualTo("EUR");
+    }
+
+    /**
+     * Test di integrazione che verifica la gestione di un parametro di data
+     * mancante sul percorso reattivo.
+     *
+     * Questo test verifica che:
+     * - La risposta abbia status 400 BAD REQUEST
+     * - Il codice errore sia "MISSING_PARAMETER" con il nome del parametro
+     */
+    @Test
+    void getAccountTransactions_withMissingParameter_shouldReturnBadRequest() {
+        webTestClient.get()
+                .uri(ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.TRANSACTIONS_ENDPOINT
+                        + "?fromAccountingDate=2023-01-01", accountId)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(ApiConstants.STATUS_KO)
+                .jsonPath("$.error.code").isEqualTo(ErrorConstants.MISSING_PARAMETER)
+                .jsonPath("$.error.param").isEqualTo("toAccountingDate");
+    }
+
+    /**
+     * Test di integrazione che verifica la gestione di richieste di bonifico non
+     * valide sul percorso reattivo.
+     */
+    @Test
+    void createMoneyTransfer_withInvalidRequest_shouldReturnBadRequest() {
+        webTestClient.post()
+                .uri(ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.MONEY_TRANSFERS_ENDPOINT,
+                        accountId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error.code").isEqualTo(ErrorConstants.VALIDATION_ERROR);
+    }
+
+    /**
+     * Test di integrazione che verifica che un errore 4xx di Fabrick venga
+     * restituito con lo stesso status, come sul percorso bloccante.
+     */
+    @Test
+    void getAccountBalance_withUpstreamClientError_shouldMirrorStatus() {
+        when(fabrickService.getAccountBalance(anyString())).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.FORBIDDEN.value(), "Forbidden", HttpHeaders.EMPTY,
+                "{\"status\":\"KO\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8)));
+
+        webTestClient.get()
+                .uri(ApiConstants.API_ACCOUNTS_BASE_PATH + "/{accountId}" + ApiConstants.BALANCE_ENDPOINT, accountId)
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(ApiConstants.STATUS_KO)
+                .jsonPath("$.error.code").isEqualTo(ErrorConstants.API_ERROR);
+    }
+}
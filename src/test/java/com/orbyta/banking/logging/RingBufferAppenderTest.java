@@ -0,0 +1,230 @@
+package com.orbyta.banking.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private RingBufferAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger(RingBufferAppenderTest.class);
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("Async");
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+    }
+
+    /**
+     * Test che verifica che gli eventi vengano scritti dal thread dedicato
+     * nell'ordine di arrivo.
+     *
+     * Questo test verifica che:
+     * - Tutti gli eventi arrivino all'appender collegato, nell'ordine di log
+     * - Il thread di scrittura non sia quello chiamante
+     * - Lo stop scriva gli eventi ancora in coda
+     */
+    @Test
+    void append_shouldWriteEventsInOrderFromWorkerThread() {
+        // Given
+        ThreadRecordingAppender target = new ThreadRecordingAppender();
+        target.setContext(context);
+        target.start();
+        appender.addAppender(target);
+        appender.start();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        appender.stop();
+
+        // Then
+        assertEquals(1000, target.list.size());
+        assertEquals("message 0", target.list.get(0).getFormattedMessage());
+        assertEquals("message 999", target.list.get(999).getFormattedMessage());
+        assertTrue(target.threads.stream().allMatch(name -> name.equals("logback-ring-buffer-Async")));
+    }
+
+    /**
+     * Test che verifica che, con politica DROP, gli eventi oltre la capacità
+     * vengano scartati e conteggiati senza bloccare il chiamante.
+     */
+    @Test
+    void append_withDropPolicy_shouldCountDroppedEventsWhenFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender target = new BlockingAppender(release);
+        target.setContext(context);
+        target.start();
+        appender.addAppender(target);
+        appender.setCapacity(16);
+        appender.setFullPolicy("drop");
+        appender.start();
+
+        // When
+        appender.doAppend(event("first"));
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event("message " + i));
+        }
+
+        // Then
+        assertEquals(16, appender.getQueueDepth());
+        assertEquals(100 - 16, appender.getDroppedCount());
+        release.countDown();
+    }
+
+    /**
+     * Test che verifica che, con politica DROP, gli eventi WARN ed ERROR non
+     * vengano scartati a buffer pieno.
+     *
+     * Questo test verifica che:
+     * - Il chiamante di un WARN attenda che si liberi spazio invece di
+     * scartarlo
+     * - Gli eventi INFO successivi continuino a essere scartati
+     * - Tutti i WARN ed ERROR arrivino all'appender collegato
+     */
+    @Test
+    void append_withDropPolicy_shouldNotDropWarnings() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender target = new BlockingAppender(release);
+        target.setContext(context);
+        target.start();
+        appender.addAppender(target);
+        appender.setCapacity(16);
+        appender.setFullPolicy("drop");
+        appender.start();
+        appender.doAppend(event("first"));
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 16; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        ExecutorService producer = Executors.newSingleThreadExecutor();
+
+        // When
+        Future<?> warnings = producer.submit(() -> {
+            appender.doAppend(event(Level.WARN, "warning"));
+            appender.doAppend(event(Level.ERROR, "error"));
+        });
+        Thread.sleep(50);
+        boolean blockedWhileFull = !warnings.isDone();
+        appender.doAppend(event("dropped"));
+        release.countDown();
+        warnings.get(5, TimeUnit.SECONDS);
+        producer.shutdown();
+        appender.stop();
+
+        // Then
+        assertTrue(blockedWhileFull);
+        assertEquals(1, appender.getDroppedCount());
+        assertEquals(List.of("warning", "error"), target.messages.stream()
+                .filter(message -> !message.startsWith("message") && !message.equals("first")).toList());
+    }
+
+    /**
+     * Test che verifica che, con politica BLOCK, nessun evento vada perso con
+     * più produttori concorrenti e un buffer piccolo.
+     */
+    @Test
+    void append_withBlockPolicy_shouldNotLoseEventsFromConcurrentProducers() throws Exception {
+        // Given
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        target.setContext(context);
+        target.start();
+        appender.addAppender(target);
+        appender.setCapacity(8);
+        appender.setFullPolicy("block");
+        appender.start();
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+
+        // When
+        for (int p = 0; p < 4; p++) {
+            producers.submit(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    appender.doAppend(event("message " + i));
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+        appender.stop();
+
+        // Then
+        assertEquals(10_000, target.list.size());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    private ILoggingEvent event(String message) {
+        return event(Level.INFO, message);
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private static class ThreadRecordingAppender extends ListAppender<ILoggingEvent> {
+
+        private final List<String> threads = new ArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            threads.add(Thread.currentThread().getName());
+            super.append(event);
+        }
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        private BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getFormattedMessage());
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.orbyta.banking.model.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class InternedStringDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Test che verifica che i valori ripetuti dei campi annotati diventino la
+     * stessa istanza, anche tra risposte diverse.
+     *
+     * Questo test verifica che:
+     * - Valuta e tipo di transazione ripetuti siano la stessa istanza
+     * - I campi non annotati restino istanze distinte
+     * - Valori nulli e numerici vengano deserializzati come prima
+     */
+    @Test
+    void deserialize_shouldCanonicalizeRepeatedValues() throws Exception {
+        // Given
+        String json = """
+                {"status":"OK","payload":{"list":[
+                {"transactionId":"1","description":"PD VISA","currency":"EUR",
+                 "type":{"enumeration":"GBS_TRANSACTION_TYPE","value":"GBS_TRANSACTION_TYPE_0023"}},
+                {"transactionId":"2","description":"PD VISA","currency":"EUR",
+                 "type":{"enumeration":"GBS_TRANSACTION_TYPE","value":null}}]}}
+                """;
+        TypeReference<ApiResponse<TransactionsPayload>> type = new TypeReference<>() {
+        };
+
+        // When
+        List<Transaction> first = objectMapper.readValue(json, type).getPayload().getList();
+        List<Transaction> second = objectMapper.readValue(json, type).getPayload().getList();
+        Account account = objectMapper.readValue("{\"abiCode\":3268,\"currency\":\"EUR\"}", Account.class);
+
+        // Then
+        assertSame(first.get(0).getCurrency(), first.get(1).getCurrency());
+        assertSame(first.get(0).getCurrency(), second.get(0).getCurrency());
+        assertSame(first.get(0).getType().getEnumeration(), first.get(1).getType().getEnumeration());
+        assertEquals("GBS_TRANSACTION_TYPE_0023", first.get(0).getType().getValue());
+        assertNull(first.get(1).getType().getValue());
+        assertNotSame(first.get(0).getDescription(), first.get(1).getDescription());
+        assertEquals("3268", account.getAbiCode());
+        assertSame(first.get(0).getCurrency(), account.getCurrency());
+    }
+
+    /**
+     * Test che verifica che la tabella resti limitata: oltre la capacità e
+     * oltre la lunghezza massima i valori vengono restituiti senza essere
+     * aggiunti.
+     */
+    @Test
+    void intern_shouldNotGrowBeyondCapacityOrMaxLength() {
+        // Given
+        StringInterner interner = new StringInterner(16, 8);
+        for (int i = 0; i < 1000; i++) {
+            interner.intern(new String("V" + i));
+        }
+        String longValue = "LONGER THAN EIGHT";
+
+        // When
+        String first = interner.intern(new String("NEW"));
+        String second = interner.intern(new String("NEW"));
+
+        // Then
+        assertEquals("NEW", first);
+        assertNotSame(first, second);
+        assertSame(longValue, interner.intern(longValue));
+        assertEquals(longValue, interner.intern(longValue.toCharArray(), 0, longValue.length()));
+    }
+}
@@ -1,13 +1,32 @@
 package com.orbyta.banking.service;
 
 import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
 import com.orbyta.banking.constants.HeaderConstants;
+import com.orbyta.banking.exception.UpstreamErrorResponseException;
 import com.orbyta.banking.model.ApiResponse;
 import com.orbyta.banking.model.account.AccountsPayload;
 import com.orbyta.banking.model.balance.Balance;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
 import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
 import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.BalanceCache;
+import com.orbyta.banking.service.cache.TransactionRangeCache;
+import com.orbyta.banking.service.coalescing.RequestCoalescer;
+import com.orbyta.banking.service.hedging.RequestHedger;
+import com.orbyta.banking.service.idempotency.IdempotencyStore;
+import com.orbyta.banking.service.metrics.UpstreamMetrics;
+import com.orbyta.banking.service.resilience.AdaptiveConcurrencyLimiter;
+import com.orbyta.banking.service.resilience.UpstreamGuard;
+import com.orbyta.banking.service.sharding.TransactionRangeSharder;
+import com.orbyta.banking.service.store.TransactionStore;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,16 +40,37 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -74,7 +114,25 @@ public class FabrickServiceTest {
 
     @BeforeEach
     void setUp() {
-        fabrickService = new FabrickService(restTemplate, apiUrl, apiKey);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BalanceCache balanceCache = new BalanceCache(true, Duration.ofMinutes(1), 100, meterRegistry);
+        TransactionRangeCache transactionRangeCache = new TransactionRangeCache(true, 100, Duration.ofMinutes(1),
+                Clock.systemDefaultZone(), meterRegistry);
+        RequestCoalescer requestCoalescer = new RequestCoalescer(true, meterRegistry);
+        TransactionRangeSharder transactionRangeSharder = new TransactionRangeSharder(true, Period.ofMonths(1), 4,
+                3, Duration.ZERO, Executors.newVirtualThreadPerTaskExecutor(), meterRegistry);
+        fabrickService = new FabrickService(restTemplate, apiUrl, apiKey, balanceCache, transactionRangeCache,
+                new TransactionStore(false, null, Clock.systemDefaultZone(), new ObjectMapper(), meterRegistry),
+                requestCoalescer, transactionRangeSharder, new UpstreamMetrics(meterRegistry),
+                new UpstreamGuard(true, CircuitBreakerConfig.ofDefaults(), BulkheadConfig.ofDefaults(),
+                        new AdaptiveConcurrencyLimiter(false, 20, 1, 200, 1.5, 0, Duration.ZERO, Duration.ofSeconds(10),
+                                meterRegistry),
+                        meterRegistry),
+                new RequestHedger(false, 0.95, Duration.ZERO, 0, 1, 1, Executors.newVirtualThreadPerTaskExecutor(),
+                        meterRegistry),
+                new IdempotencyStore(false, Duration.ofHours(24), 100, null, Clock.systemUTC(), new ObjectMapper(),
+                        meterRegistry),
+                new ObjectMapper());
     }
 
     /**
@@ -249,6 +307,361 @@ public class FabrickServiceTest {
         assertEquals(moneyTransferApiResponse, result);
     }
 
+    /**
+     * Test che verifica che letture ripetute del saldo vengano servite dalla
+     * cache.
+     * 
+     * Questo test assicura che:
+     * - La prima lettura chiami l'API esterna
+     * - La seconda lettura restituisca lo stesso saldo senza chiamare l'API
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    void getAccountBalance_shouldServeRepeatedReadsFromCache() {
+        // Given
+        ApiResponse<Balance> okResponse = createOkBalanceResponse();
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(balanceResponseEntity);
+        when(balanceResponseEntity.getBody()).thenReturn(okResponse);
+
+        // When
+        ApiResponse<Balance> first = fabrickService.getAccountBalance(accountId);
+        ApiResponse<Balance> second = fabrickService.getAccountBalance(accountId);
+
+        // Then
+        verify(restTemplate, times(1)).exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+        assertEquals(okResponse, first);
+        assertEquals(okResponse, second);
+    }
+
+    /**
+     * Test che verifica che un bonifico invalidi il saldo in cache dell'account.
+     * 
+     * Questo test assicura che:
+     * - Dopo un bonifico la lettura del saldo richiami l'API esterna
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    void createMoneyTransfer_shouldInvalidateCachedBalance() {
+        // Given
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(balanceResponseEntity);
+        when(balanceResponseEntity.getBody()).thenReturn(createOkBalanceResponse());
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.POST),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(moneyTransferResponseEntity);
+
+        // When
+        fabrickService.getAccountBalance(accountId);
+        fabrickService.createMoneyTransfer(accountId, createSampleMoneyTransferRequest());
+        fabrickService.getAccountBalance(accountId);
+
+        // Then
+        verify(restTemplate, times(2)).exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    /**
+     * Test che verifica che una lettura del saldo successiva a un bonifico non
+     * si agganci a una lettura coalescente partita prima.
+     *
+     * Questo test assicura che:
+     * - La lettura in corso durante il bonifico restituisca il saldo precedente
+     * - La lettura iniziata dopo il bonifico chiami di nuovo l'API esterna e
+     * restituisca il saldo aggiornato
+     * - In cache resti il saldo aggiornato
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    void getAccountBalance_shouldNotJoinReadStartedBeforeTransfer() throws Exception {
+        // Given
+        ApiResponse<Balance> before = createOkBalanceResponse();
+        ApiResponse<Balance> after = createOkBalanceResponse();
+        after.getPayload().setBalance(new BigDecimal("900.00"));
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch secondCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() == 1) {
+                        firstCallStarted.countDown();
+                        releaseFirstCall.await();
+                        return ResponseEntity.ok(before);
+                    }
+                    secondCallStarted.countDown();
+                    return ResponseEntity.ok(after);
+                });
+        when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.POST),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(moneyTransferResponseEntity);
+
+        // When
+        CompletableFuture<ApiResponse<Balance>> readBeforeTransfer = CompletableFuture
+                .supplyAsync(() -> fabrickService.getAccountBalance(accountId));
+        firstCallStarted.await(5, TimeUnit.SECONDS);
+        fabrickService.createMoneyTransfer(accountId, createSampleMoneyTransferRequest());
+        CompletableFuture<ApiResponse<Balance>> readAfterTransfer = CompletableFuture
+                .supplyAsync(() -> fabrickService.getAccountBalance(accountId));
+        secondCallStarted.await(1, TimeUnit.SECONDS);
+        releaseFirstCall.countDown();
+
+        // Then
+        assertEquals(after, readAfterTransfer.get(5, TimeUnit.SECONDS));
+        assertEquals(before, readBeforeTransfer.get(5, TimeUnit.SECONDS));
+        assertEquals(after, fabrickService.getAccountBalance(accountId));
+        verify(restTemplate, times(2)).exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    /**
+     * Test che verifica lo streaming NDJSON delle transazioni.
+     *
+     * Questo test assicura che:
+     * - La chiamata verso Fabrick porti gli header di autenticazione
+     * - Ogni transazione di payload.list venga scritta su una riga, nell'ordine
+     * ricevuto, ignorando gli altri campi della risposta
+     */
+    @Test
+    void openTransactionStream_shouldWriteOneTransactionPerLine() throws Exception {
+        // Given
+        String upstreamBody = "{\"status\":\"OK\",\"error\":[],\"payload\":{\"count\":2,\"list\":["
+                + "{\"transactionId\":\"T1\",\"accountingDate\":\"2023-01-02\",\"amount\":-10.00,\"currency\":\"EUR\"},"
+                + "{\"transactionId\":\"T2\",\"accountingDate\":\"2023-01-03\",\"amount\":25.50,\"currency\":\"EUR\"}"
+                + "]}}";
+        MockClientHttpRequest upstreamRequest = mockUpstreamRequest(HttpStatus.OK, upstreamBody);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count;
+        try (TransactionStream transactions = fabrickService.openTransactionStream(accountId, "2023-01-01",
+                "2023-01-31")) {
+            count = transactions.writeTo(output);
+        }
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("T1", new ObjectMapper().readTree(lines[0]).get("transactionId").asText());
+        assertEquals("T2", new ObjectMapper().readTree(lines[1]).get("transactionId").asText());
+        assertEquals(apiKey, upstreamRequest.getHeaders().getFirst(HeaderConstants.API_KEY));
+        assertEquals(apiUrl + "/" + accountId + ApiConstants.TRANSACTIONS_ENDPOINT
+                + "?fromAccountingDate=2023-01-01&toAccountingDate=2023-01-31", upstreamRequest.getURI().toString());
+    }
+
+    /**
+     * Test che verifica che un errore HTTP di Fabrick venga sollevato all'apertura
+     * dello stream, prima di scrivere qualcosa verso il client.
+     */
+    @Test
+    void openTransactionStream_shouldThrowOnUpstreamClientError() {
+        // Given
+        mockUpstreamRequest(HttpStatus.BAD_REQUEST, "{\"status\":\"KO\"}");
+
+        // When / Then
+        assertThrows(HttpClientErrorException.class,
+                () -> fabrickService.openTransactionStream(accountId, "2023-12-31", "2023-01-01"));
+    }
+
+    /**
+     * Test che verifica che una risposta KO o senza payload.list venga
+     * segnalata all'apertura dello stream, quando al client non è stato ancora
+     * scritto nulla.
+     */
+    @Test
+    void openTransactionStream_shouldThrowOnKoOrMissingList() {
+        // Given
+        mockUpstreamRequest(HttpStatus.OK,
+                "{\"status\":\"KO\",\"error\":[{\"code\":\"REQ017\"}],\"payload\":{\"list\":[]}}");
+
+        // When
+        UpstreamErrorResponseException ko = assertThrows(UpstreamErrorResponseException.class,
+                () -> fabrickService.openTransactionStream(accountId, "2023-01-01", "2023-01-31"));
+        mockUpstreamRequest(HttpStatus.OK, "{\"status\":\"OK\",\"error\":[],\"payload\":{}}");
+        UpstreamErrorResponseException missingList = assertThrows(UpstreamErrorResponseException.class,
+                () -> fabrickService.openTransactionStream(accountId, "2023-01-01", "2023-01-31"));
+
+        // Then
+        assertEquals("External API returned a KO response", ko.getMessage());
+        assertEquals("REQ017", ((JsonNode) ko.getUpstreamError()).get(0).get("code").asText());
+        assertEquals("External API response has no transaction list", missingList.getMessage());
+    }
+
+    /**
+     * Test che verifica che un corpo interrotto dopo le prime transazioni
+     * termini lo stream con una riga di errore.
+     *
+     * Questo test assicura che:
+     * - Le transazioni lette prima dell'interruzione vengano scritte
+     * - L'ultima riga abbia status KO e codice API_ERROR
+     */
+    @Test
+    void writeTo_shouldWriteTerminalErrorLineAfterFirstFlush() throws Exception {
+        // Given
+        mockUpstreamRequest(HttpStatus.OK, "{\"status\":\"OK\",\"payload\":{\"list\":["
+                + "{\"transactionId\":\"T1\",\"amount\":-10.00,\"currency\":\"EUR\"},"
+                + "{\"transactionId\":\"T2\",\"amo");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count;
+        try (TransactionStream transactions = fabrickService.openTransactionStream(accountId, "2023-01-01",
+                "2023-01-31")) {
+            count = transactions.writeTo(output);
+        }
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals(2, lines.length);
+        assertEquals("T1", new ObjectMapper().readTree(lines[0]).get("transactionId").asText());
+        JsonNode error = new ObjectMapper().readTree(lines[1]);
+        assertEquals(ApiConstants.STATUS_KO, error.get("status").asText());
+        assertEquals(ErrorConstants.API_ERROR, error.get("error").get(ErrorConstants.CODE).asText());
+    }
+
+    /**
+     * Test che verifica che un errore prima della prima transazione venga
+     * comunque segnalato nello stream: status e header NDJSON sono già stati
+     * inviati e non possono più diventare un errore HTTP.
+     */
+    @Test
+    void writeTo_shouldWriteErrorLineWhenFirstTransactionIsTruncated() throws Exception {
+        // Given
+        mockUpstreamRequest(HttpStatus.OK, "{\"status\":\"OK\",\"payload\":{\"list\":["
+                + "{\"transactionId\":\"T1\",\"amo");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count;
+        try (TransactionStream transactions = fabrickService.openTransactionStream(accountId, "2023-01-01",
+                "2023-01-31")) {
+            count = transactions.writeTo(output);
+        }
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(0, count);
+        assertEquals(1, lines.length);
+        assertEquals(ApiConstants.STATUS_KO, new ObjectMapper().readTree(lines[0]).get("status").asText());
+    }
+
+    /**
+     * Test che verifica che un elemento di payload.list che non è un oggetto
+     * interrompa lo stream come un corpo troncato.
+     */
+    @Test
+    void writeTo_shouldWriteErrorLineOnNonObjectElement() throws Exception {
+        // Given
+        mockUpstreamRequest(HttpStatus.OK, "{\"status\":\"OK\",\"payload\":{\"list\":["
+                + "{\"transactionId\":\"T1\",\"amount\":-10.00,\"currency\":\"EUR\"},"
+                + "42,"
+                + "{\"transactionId\":\"T3\",\"amount\":-30.00,\"currency\":\"EUR\"}"
+                + "]}}");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count;
+        try (TransactionStream transactions = fabrickService.openTransactionStream(accountId, "2023-01-01",
+                "2023-01-31")) {
+            count = transactions.writeTo(output);
+        }
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals(2, lines.length);
+        assertEquals("T1", new ObjectMapper().readTree(lines[0]).get("transactionId").asText());
+        assertEquals(ApiConstants.STATUS_KO, new ObjectMapper().readTree(lines[1]).get("status").asText());
+    }
+
+    /**
+     * Test che verifica che lo stream venga svuotato solo dopo la prima
+     * transazione e alla fine, non dopo ogni riga.
+     */
+    @Test
+    void writeTo_shouldFlushOnlyAfterFirstTransactionAndAtEnd() throws Exception {
+        // Given
+        StringBuilder list = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            list.append(i > 1 ? "," : "").append("{\"transactionId\":\"T").append(i)
+                    .append("\",\"amount\":-10.00,\"currency\":\"EUR\"}");
+        }
+        mockUpstreamRequest(HttpStatus.OK, "{\"status\":\"OK\",\"payload\":{\"list\":[" + list + "]}}");
+        List<Integer> flushedAt = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedAt.add(size());
+            }
+        };
+
+        // When
+        try (TransactionStream transactions = fabrickService.openTransactionStream(accountId, "2023-01-01",
+                "2023-01-31")) {
+            transactions.writeTo(output);
+        }
+
+        // Then
+        String content = output.toString(StandardCharsets.UTF_8);
+        int firstLine = content.indexOf('\n') + 1;
+        assertEquals(Set.of(firstLine, content.length()), Set.copyOf(flushedAt));
+    }
+
+    private MockClientHttpRequest mockUpstreamRequest(HttpStatus status, String body) {
+        MockClientHttpRequest upstreamRequest = new MockClientHttpRequest();
+        upstreamRequest.setResponse(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), status));
+        when(restTemplate.getUriTemplateHandler()).thenReturn(new DefaultUriBuilderFactory());
+        when(restTemplate.getRequestFactory()).thenReturn((uri, method) -> {
+            upstreamRequest.setURI(uri);
+            upstreamRequest.setMethod(method);
+            return upstreamRequest;
+        });
+        when(restTemplate.getErrorHandler()).thenReturn(new DefaultResponseErrorHandler());
+        return upstreamRequest;
+    }
+
+    private ApiResponse<Balance> createOkBalanceResponse() {
+        Balance balance = new Balance();
+        balance.setBalance(new BigDecimal("1000.00"));
+        balance.setAvailableBalance(new BigDecimal("1000.00"));
+        balance.setCurrency("EUR");
+
+        ApiResponse<Balance> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(balance);
+        return response;
+    }
+
     private MoneyTransferRequest createSampleMoneyTransferRequest() {
         MoneyTransferRequest.Creditor creditor = new MoneyTransferRequest.Creditor();
         MoneyTransferRequest.Creditor.Account account = new MoneyTransferRequest.Creditor.Account();
@@ -0,0 +1,150 @@
+package com.orbyta.banking.service;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.HeaderConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReactiveFabrickServiceTest {
+
+    private final String apiUrl = "https://sandbox.platfr.io/api/gbs/banking/v4.0/accounts";
+    private final String apiKey = "FXOVVXXHVCPVPBZXIJOBGUGSKHDNFRRQJP";
+    private final String accountId = "14537780";
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    private HttpStatus responseStatus;
+    private String responseBody;
+    private ReactiveFabrickService fabrickService;
+
+    @BeforeEach
+    void setUp() {
+        responseStatus = HttpStatus.OK;
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(ClientResponse.create(responseStatus)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(responseBody)
+                            .build());
+                })
+                .build();
+        fabrickService = new ReactiveFabrickService(webClient, apiUrl, apiKey);
+    }
+
+    /**
+     * Test che verifica la corretta chiamata all'API per ottenere il saldo di un
+     * account.
+     *
+     * Questo test assicura che:
+     * - L'URL di chiamata includa l'ID dell'account corretto
+     * - Il metodo HTTP sia GET
+     * - Gli header di autenticazione siano presenti e corretti
+     * - La risposta dell'API venga deserializzata e restituita dal servizio
+     */
+    @Test
+    void getAccountBalance_shouldCallApiWithCorrectParameters() {
+        // Given
+        responseBody = "{\"status\":\"OK\",\"error\":[],\"payload\":{\"date\":\"2024-03-15\","
+                + "\"balance\":1000.00,\"availableBalance\":900.00,\"currency\":\"EUR\"}}";
+
+        // When
+        ApiResponse<Balance> result = fabrickService.getAccountBalance(accountId).block();
+
+        // Then
+        ClientRequest request = requests.get(0);
+        assertEquals(HttpMethod.GET, request.method());
+        assertEquals(apiUrl + "/" + accountId + ApiConstants.BALANCE_ENDPOINT, request.url().toString());
+        assertEquals(HeaderConstants.AUTH_SCHEMA_VALUE, request.headers().getFirst(HeaderConstants.AUTH_SCHEMA));
+        assertEquals(apiKey, request.headers().getFirst(HeaderConstants.API_KEY));
+        assertEquals(ApiConstants.STATUS_OK, result.getStatus());
+        assertEquals(new BigDecimal("900.00"), result.getPayload().getAvailableBalance());
+    }
+
+    /**
+     * Test che verifica il passaggio dei parametri di data nella chiamata per le
+     * transazioni.
+     */
+    @Test
+    void getAccountTransactions_shouldPassDateParameters() {
+        // Given
+        responseBody = "{\"status\":\"OK\",\"payload\":{\"list\":[]}}";
+
+        // When
+        ApiResponse<TransactionsPayload> result = fabrickService
+                .getAccountTransactions(accountId, "2023-01-01", "2023-01-31").block();
+
+        // Then
+        assertEquals(apiUrl + "/" + accountId + ApiConstants.TRANSACTIONS_ENDPOINT
+                + "?fromAccountingDate=2023-01-01&toAccountingDate=2023-01-31",
+                requests.get(0).url().toString());
+        assertEquals(0, result.getPayload().getList().size());
+    }
+
+    /**
+     * Test che verifica la corretta chiamata all'API per creare un bonifico.
+     *
+     * Questo test assicura che:
+     * - Il metodo HTTP sia POST
+     * - Siano presenti l'header del fuso orario e il Content-Type JSON
+     */
+    @Test
+    void createMoneyTransfer_shouldCallApiWithCorrectHeaders() {
+        // Given
+        responseBody = "{\"status\":\"OK\",\"payload\":{\"moneyTransferId\":\"MT-1\"}}";
+        MoneyTransferRequest request = new MoneyTransferRequest();
+        request.setAmount(new BigDecimal("100.00"));
+        request.setCurrency("EUR");
+
+        // When
+        ApiResponse<MoneyTransferResponse> result = fabrickService.createMoneyTransfer(accountId, request).block();
+
+        // Then
+        ClientRequest clientRequest = requests.get(0);
+        assertEquals(HttpMethod.POST, clientRequest.method());
+        assertEquals(ApiConstants.TIMEZONE_EUROPE_ROME,
+                clientRequest.headers().getFirst(HeaderConstants.X_TIME_ZONE));
+        assertEquals(MediaType.APPLICATION_JSON, clientRequest.headers().getContentType());
+        assertEquals("MT-1", result.getPayload().getMoneyTransferId());
+    }
+
+    /**
+     * Test che verifica che un errore 4xx dell'upstream venga propagato come
+     * WebClientResponseException, gestita poi da GlobalExceptionHandler.
+     */
+    @Test
+    void getAccountBalance_shouldPropagateUpstreamClientError() {
+        // Given
+        responseStatus = HttpStatus.FORBIDDEN;
+        responseBody = "{\"status\":\"KO\"}";
+
+        // When / Then
+        StepVerifier.create(fabrickService.getAccountBalance(accountId))
+                .expectErrorMatches(error -> error instanceof WebClientResponseException responseException
+                        && responseException.getStatusCode() == HttpStatus.FORBIDDEN)
+                .verify();
+    }
+}
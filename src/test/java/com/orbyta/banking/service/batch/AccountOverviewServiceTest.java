@@ -0,0 +1,141 @@
+package com.orbyta.banking.service.batch;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.account.Account;
+import com.orbyta.banking.model.account.AccountsPayload;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.batch.AccountOverview;
+import com.orbyta.banking.model.batch.AccountOverviewPayload;
+import com.orbyta.banking.service.FabrickService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AccountOverviewServiceTest {
+
+    @Mock
+    private FabrickService fabrickService;
+
+    private ExecutorService executor;
+    private AccountOverviewService accountOverviewService;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newCachedThreadPool();
+        BalanceBatchService balanceBatchService = new BalanceBatchService(fabrickService, 4, Duration.ofSeconds(5),
+                Duration.ofSeconds(5), executor, new SimpleMeterRegistry());
+        accountOverviewService = new AccountOverviewService(fabrickService, balanceBatchService,
+                Duration.ofMillis(300));
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test che verifica che la panoramica unisca account e saldi entro la
+     * scadenza complessiva.
+     *
+     * Questo test verifica che:
+     * - Gli account vengano restituiti nell'ordine di Fabrick con il proprio saldo
+     * - Il saldo non pronto alla scadenza venga segnato TIMEOUT, anche se il
+     * timeout per singolo account è più ampio
+     * - La risposta sia segnata come parziale
+     */
+    @Test
+    void getOverview_shouldJoinAccountsWithBalancesWithinDeadline() {
+        // Given
+        when(fabrickService.getAccounts()).thenReturn(accountsResponse("1", "slow", "2"));
+        when(fabrickService.getAccountBalance(anyString())).thenAnswer(invocation -> {
+            String accountId = invocation.getArgument(0);
+            if ("slow".equals(accountId)) {
+                release.await();
+            }
+            return balanceResponse("100.00");
+        });
+
+        // When
+        ApiResponse<AccountOverviewPayload> result = accountOverviewService.getOverview();
+
+        // Then
+        assertEquals(ApiConstants.STATUS_OK, result.getStatus());
+        assertTrue(result.getPayload().isPartial());
+        List<AccountOverview> overview = result.getPayload().getList();
+        assertEquals(List.of("1", "slow", "2"), overview.stream().map(item -> item.getAccount().getAccountId()).toList());
+        assertEquals(ApiConstants.STATUS_OK, overview.get(0).getBalanceStatus());
+        assertEquals(new BigDecimal("100.00"), overview.get(0).getBalance().getAvailableBalance());
+        assertEquals(ApiConstants.STATUS_TIMEOUT, overview.get(1).getBalanceStatus());
+        assertNull(overview.get(1).getBalance());
+        assertEquals(ApiConstants.STATUS_OK, overview.get(2).getBalanceStatus());
+    }
+
+    /**
+     * Test che verifica che un esito KO sulla lista degli account venga
+     * restituito senza leggere i saldi.
+     */
+    @Test
+    void getOverview_shouldReturnAccountsErrorWithoutReadingBalances() {
+        // Given
+        ApiResponse<AccountsPayload> accountsResponse = new ApiResponse<>();
+        accountsResponse.setStatus(ApiConstants.STATUS_KO);
+        accountsResponse.setError("Unauthorized");
+        when(fabrickService.getAccounts()).thenReturn(accountsResponse);
+
+        // When
+        ApiResponse<AccountOverviewPayload> result = accountOverviewService.getOverview();
+
+        // Then
+        assertEquals(ApiConstants.STATUS_KO, result.getStatus());
+        assertEquals("Unauthorized", result.getError());
+        verify(fabrickService, never()).getAccountBalance(anyString());
+    }
+
+    private static ApiResponse<AccountsPayload> accountsResponse(String... accountIds) {
+        List<Account> accounts = Arrays.stream(accountIds).map(accountId -> {
+            Account account = new Account();
+            account.setAccountId(accountId);
+            return account;
+        }).toList();
+        ApiResponse<AccountsPayload> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(new AccountsPayload(accounts));
+        return response;
+    }
+
+    private static ApiResponse<Balance> balanceResponse(String availableBalance) {
+        Balance balance = new Balance();
+        balance.setAvailableBalance(new BigDecimal(availableBalance));
+        balance.setCurrency("EUR");
+        ApiResponse<Balance> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(balance);
+        return response;
+    }
+}
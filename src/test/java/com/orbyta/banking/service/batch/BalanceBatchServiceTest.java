@@ -0,0 +1,237 @@
+package com.orbyta.banking.service.batch;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.balance.Balance;
+import com.orbyta.banking.model.batch.BalanceBatchItem;
+import com.orbyta.banking.model.batch.BalanceBatchPayload;
+import com.orbyta.banking.service.FabrickService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BalanceBatchServiceTest {
+
+    private static final int MAX_PARALLELISM = 4;
+
+    @Mock
+    private FabrickService fabrickService;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceBatchService balanceBatchService;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        balanceBatchService = new BalanceBatchService(fabrickService, MAX_PARALLELISM, Duration.ofMillis(300),
+                Duration.ofSeconds(5), executor, meterRegistry);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test che verifica la lettura dei saldi di più account.
+     *
+     * Questo test verifica che:
+     * - Venga restituito un elemento per account, nell'ordine della richiesta
+     * - Gli ID duplicati vengano letti una sola volta
+     * - La risposta non sia segnata come parziale
+     */
+    @Test
+    void getBalances_shouldReturnOneItemPerAccountInRequestOrder() {
+        // Given
+        when(fabrickService.getAccountBalance(anyString()))
+                .thenAnswer(invocation -> balanceResponse(invocation.getArgument(0)));
+
+        // When
+        BalanceBatchPayload result = balanceBatchService.getBalances(List.of("1", "2", "3", "2"));
+
+        // Then
+        assertFalse(result.isPartial());
+        assertEquals(List.of("1", "2", "3"), result.getList().stream().map(BalanceBatchItem::getAccountId).toList());
+        assertEquals(new BigDecimal("2"), result.getList().get(1).getBalance().getAvailableBalance());
+        verify(fabrickService, times(1)).getAccountBalance("2");
+    }
+
+    /**
+     * Test che verifica che un account lento o in errore non blocchi gli altri.
+     *
+     * Questo test verifica che:
+     * - L'account lento venga segnato TIMEOUT
+     * - L'account in errore venga segnato KO con i dettagli dell'errore
+     * - Gli altri account vengano letti e la risposta sia segnata come parziale
+     */
+    @Test
+    void getBalances_shouldMarkSlowAndFailedAccountsAsPartial() {
+        // Given
+        when(fabrickService.getAccountBalance(anyString())).thenAnswer(invocation -> {
+            String accountId = invocation.getArgument(0);
+            if ("slow".equals(accountId)) {
+                release.await();
+            }
+            if ("missing".equals(accountId)) {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }
+            return balanceResponse(accountId);
+        });
+
+        // When
+        BalanceBatchPayload result = balanceBatchService.getBalances(List.of("slow", "1", "missing", "2"));
+
+        // Then
+        assertTrue(result.isPartial());
+        List<BalanceBatchItem> items = result.getList();
+        assertEquals(ApiConstants.STATUS_TIMEOUT, items.get(0).getStatus());
+        assertEquals(ErrorConstants.TIMEOUT, ((Map<?, ?>) items.get(0).getError()).get(ErrorConstants.CODE));
+        assertEquals(ApiConstants.STATUS_OK, items.get(1).getStatus());
+        assertEquals(ApiConstants.STATUS_KO, items.get(2).getStatus());
+        assertEquals(ErrorConstants.API_ERROR, ((Map<?, ?>) items.get(2).getError()).get(ErrorConstants.CODE));
+        assertEquals(ApiConstants.STATUS_OK, items.get(3).getStatus());
+        assertEquals(1.0, meterRegistry.get("fabrick.batch.items").tag("outcome", "timeout").counter().count());
+    }
+
+    /**
+     * Test che verifica che le letture in volo non superino il limite
+     * configurato.
+     */
+    @Test
+    void getBalances_shouldBoundParallelism() {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(fabrickService.getAccountBalance(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+                return balanceResponse(invocation.getArgument(0));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        // When
+        BalanceBatchPayload result = balanceBatchService.getBalances(
+                List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"));
+
+        // Then
+        assertFalse(result.isPartial());
+        assertEquals(12, result.getList().size());
+        assertTrue(maxInFlight.get() <= MAX_PARALLELISM);
+    }
+
+    /**
+     * Test che verifica che una lettura scaduta continui a occupare il suo
+     * posto finché la chiamata non termina.
+     *
+     * Questo test verifica che:
+     * - Gli account lenti vengano segnati TIMEOUT
+     * - Con tutti i posti occupati da chiamate scadute non ne venga avviata
+     * un'altra
+     * - L'account successivo venga letto appena una chiamata scaduta termina
+     */
+    @Test
+    void getBalances_shouldKeepSlotUntilTimedOutCallFinishes() throws Exception {
+        // Given
+        List<String> slowIds = List.of("1", "2", "3", "4");
+        when(fabrickService.getAccountBalance(anyString())).thenAnswer(invocation -> {
+            String accountId = invocation.getArgument(0);
+            if (slowIds.contains(accountId)) {
+                release.await();
+            }
+            return balanceResponse(accountId);
+        });
+
+        // When
+        CompletableFuture<BalanceBatchPayload> result = CompletableFuture
+                .supplyAsync(() -> balanceBatchService.getBalances(List.of("1", "2", "3", "4", "5")));
+        TimeUnit.MILLISECONDS.sleep(600);
+        verify(fabrickService, never()).getAccountBalance("5");
+        release.countDown();
+
+        // Then
+        List<BalanceBatchItem> items = result.get(5, TimeUnit.SECONDS).getList();
+        for (int i = 0; i < slowIds.size(); i++) {
+            assertEquals(ApiConstants.STATUS_TIMEOUT, items.get(i).getStatus());
+        }
+        assertEquals(ApiConstants.STATUS_OK, items.get(4).getStatus());
+    }
+
+    /**
+     * Test che verifica che, con più account bloccati dei posti disponibili,
+     * la richiesta termini alla scadenza complessiva invece di attendere che
+     * le chiamate bloccate liberino i posti.
+     *
+     * Questo test verifica che:
+     * - La risposta arrivi entro la scadenza anche con tutti i posti occupati
+     * - Gli account mai avviati non vengano letti e siano segnati TIMEOUT
+     */
+    @Test
+    void getBalances_shouldReturnAtDeadlineWhenSlotsStayHeld() throws Exception {
+        // Given
+        BalanceBatchService withDeadline = new BalanceBatchService(fabrickService, MAX_PARALLELISM,
+                Duration.ofMillis(100), Duration.ofMillis(500), executor, meterRegistry);
+        when(fabrickService.getAccountBalance(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return balanceResponse(invocation.getArgument(0));
+        });
+        List<String> ids = List.of("1", "2", "3", "4", "5", "6");
+
+        // When
+        BalanceBatchPayload result = CompletableFuture.supplyAsync(() -> withDeadline.getBalances(ids))
+                .get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(result.isPartial());
+        assertEquals(ids.size(), result.getList().size());
+        result.getList().forEach(item -> assertEquals(ApiConstants.STATUS_TIMEOUT, item.getStatus()));
+        verify(fabrickService, never()).getAccountBalance("5");
+        verify(fabrickService, never()).getAccountBalance("6");
+    }
+
+    private static ApiResponse<Balance> balanceResponse(String accountId) {
+        Balance balance = new Balance();
+        balance.setAvailableBalance(new BigDecimal(accountId));
+        balance.setCurrency("EUR");
+        ApiResponse<Balance> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(balance);
+        return response;
+    }
+}
@@ -0,0 +1,244 @@
+package com.orbyta.banking.service.bulk;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.BulkTransferJobNotFoundException;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.bulk.BulkTransferItem;
+import com.orbyta.banking.model.bulk.BulkTransferJobPayload;
+import com.orbyta.banking.model.bulk.BulkTransferJobState;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.service.FabrickOperation;
+import com.orbyta.banking.service.FabrickService;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkTransferServiceTest {
+
+    private static final String ACCOUNT_ID = "14537780";
+
+    @Mock
+    private FabrickService fabrickService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkTransferService bulkTransferService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (bulkTransferService != null) {
+            bulkTransferService.close();
+        }
+    }
+
+    /**
+     * Test che verifica l'esecuzione di un job di bonifici in blocco.
+     *
+     * Questo test verifica che:
+     * - Il job venga accettato subito con stato QUEUED
+     * - Tutti i bonifici vengano eseguiti, con un esito per bonifico
+     * - Un errore 4xx venga riportato come KO senza bloccare gli altri
+     * - Gli esiti vengano restituiti a pagine
+     */
+    @Test
+    void submit_shouldExecuteAllTransfersAndReportItemResults() throws InterruptedException {
+        // Given
+        bulkTransferService = service(1000, 100, Duration.ofHours(1));
+        when(fabrickService.createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class)))
+                .thenAnswer(invocation -> {
+                    MoneyTransferRequest request = invocation.getArgument(1);
+                    if (request.getDescription().equals("Transfer 2")) {
+                        throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                    }
+                    return transferResponse("MT-" + request.getDescription().substring(9));
+                });
+
+        // When
+        BulkTransferJobPayload accepted = bulkTransferService.submit(ACCOUNT_ID, transfers(5));
+        BulkTransferJobPayload completed = awaitCompletion(accepted.getJobId());
+        BulkTransferJobPayload page = bulkTransferService.getJob(ACCOUNT_ID, accepted.getJobId(), 1, 2);
+
+        // Then
+        assertEquals(BulkTransferJobState.QUEUED, accepted.getState());
+        assertEquals(5, accepted.getTotal());
+        assertTrue(accepted.getList().isEmpty());
+
+        assertEquals(5, completed.getTotal());
+        assertEquals(0, completed.getPending());
+        assertEquals(4, completed.getSucceeded());
+        assertEquals(1, completed.getFailed());
+
+        assertEquals(1, page.getOffset());
+        assertEquals(2, page.getList().size());
+        BulkTransferItem succeeded = page.getList().get(0);
+        assertEquals(1, succeeded.getIndex());
+        assertEquals(ApiConstants.STATUS_OK, succeeded.getStatus());
+        assertEquals("MT-1", succeeded.getMoneyTransferId());
+        BulkTransferItem failed = page.getList().get(1);
+        assertEquals(ApiConstants.STATUS_KO, failed.getStatus());
+        assertNull(failed.getMoneyTransferId());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = (Map<String, Object>) failed.getError();
+        assertEquals(ErrorConstants.API_ERROR, error.get(ErrorConstants.CODE));
+
+        assertEquals(4.0, meterRegistry.get("fabrick.bulk.items").tag("outcome", "ok").counter().count());
+        assertEquals(1.0, meterRegistry.get("fabrick.bulk.items").tag("outcome", "ko").counter().count());
+    }
+
+    /**
+     * Test che verifica che un bonifico rifiutato senza essere inviato venga
+     * ritentato, mentre gli altri errori no.
+     */
+    @Test
+    void submit_shouldRetryTransfersRejectedBeforeSending() throws InterruptedException {
+        // Given
+        bulkTransferService = service(1000, 100, Duration.ofHours(1));
+        when(fabrickService.createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class)))
+                .thenThrow(new UpstreamUnavailableException(FabrickOperation.CREATE_MONEY_TRANSFER,
+                        ErrorConstants.CIRCUIT_OPEN, "Circuit breaker open for createMoneyTransfer", null))
+                .thenReturn(transferResponse("MT-0"));
+
+        // When
+        BulkTransferJobPayload accepted = bulkTransferService.submit(ACCOUNT_ID, transfers(1));
+        BulkTransferJobPayload completed = awaitCompletion(accepted.getJobId());
+
+        // Then
+        assertEquals(1, completed.getSucceeded());
+        verify(fabrickService, times(2)).createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class));
+    }
+
+    /**
+     * Test che verifica i limiti del servizio.
+     *
+     * Questo test verifica che:
+     * - Un job oltre il numero massimo di bonifici in coda venga rifiutato
+     * - I bonifici vengano inviati al ritmo del rate limiter
+     */
+    @Test
+    void submit_shouldRespectQueueAndRateLimits() throws InterruptedException {
+        // Given
+        bulkTransferService = service(50, 10, Duration.ofHours(1));
+        when(fabrickService.createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class)))
+                .thenReturn(transferResponse("MT"));
+
+        // When
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+                () -> bulkTransferService.submit(ACCOUNT_ID, transfers(11)));
+        long start = System.nanoTime();
+        BulkTransferJobPayload accepted = bulkTransferService.submit(ACCOUNT_ID, transfers(10));
+        awaitCompletion(accepted.getJobId());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(ErrorConstants.BULK_QUEUE_FULL, rejected.getCode());
+        // 10 bonifici a 50 al secondo: almeno 9 intervalli da 20 ms dopo il primo
+        assertTrue(elapsedMillis >= 150, "elapsed " + elapsedMillis + " ms");
+        verify(fabrickService, times(10)).createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class));
+    }
+
+    /**
+     * Test che verifica che lo stato di un job non sia visibile da un altro
+     * account e che i job completati vengano rimossi dopo il periodo di
+     * conservazione.
+     */
+    @Test
+    void getJob_shouldHideOtherAccountsAndExpiredJobs() throws InterruptedException {
+        // Given
+        bulkTransferService = service(1000, 100, Duration.ofMillis(50));
+        when(fabrickService.createMoneyTransfer(eq(ACCOUNT_ID), any(MoneyTransferRequest.class)))
+                .thenReturn(transferResponse("MT"));
+        String jobId = bulkTransferService.submit(ACCOUNT_ID, transfers(1)).getJobId();
+        awaitCompletion(jobId);
+
+        // When / Then
+        assertThrows(BulkTransferJobNotFoundException.class,
+                () -> bulkTransferService.getJob("99999999", jobId, 0, 10));
+        Thread.sleep(100);
+        assertThrows(BulkTransferJobNotFoundException.class,
+                () -> bulkTransferService.getJob(ACCOUNT_ID, jobId, 0, 10));
+        verify(fabrickService, never()).createMoneyTransfer(eq("99999999"), any(MoneyTransferRequest.class));
+    }
+
+    private BulkTransferService service(int permitsPerSecond, int maxQueuedItems, Duration retention) {
+        RateLimiter rateLimiter = RateLimiter.of("test", RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofNanos(1_000_000_000L / permitsPerSecond))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+        return new BulkTransferService(fabrickService, 2, rateLimiter, maxQueuedItems, 3, Duration.ofMillis(10),
+                retention, Clock.systemUTC(), meterRegistry);
+    }
+
+    private BulkTransferJobPayload awaitCompletion(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            BulkTransferJobPayload payload = bulkTransferService.getJob(ACCOUNT_ID, jobId, 0, 0);
+            if (payload.getState() == BulkTransferJobState.COMPLETED) {
+                return payload;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " not completed");
+    }
+
+    private static List<MoneyTransferRequest> transfers(int count) {
+        List<MoneyTransferRequest> transfers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MoneyTransferRequest.Creditor creditor = new MoneyTransferRequest.Creditor();
+            MoneyTransferRequest.Creditor.Account account = new MoneyTransferRequest.Creditor.Account();
+            account.setAccountCode("IT60X0542811101000000123456");
+            creditor.setName("John Doe");
+            creditor.setAccount(account);
+
+            MoneyTransferRequest request = new MoneyTransferRequest();
+            request.setCreditor(creditor);
+            request.setDescription("Transfer " + i);
+            request.setAmount(new BigDecimal("100.00"));
+            request.setCurrency("EUR");
+            transfers.add(request);
+        }
+        return transfers;
+    }
+
+    private static ApiResponse<MoneyTransferResponse> transferResponse(String moneyTransferId) {
+        MoneyTransferResponse payload = new MoneyTransferResponse();
+        payload.setMoneyTransferId(moneyTransferId);
+        payload.setStatus("EXECUTED");
+        return new ApiResponse<>(ApiConstants.STATUS_OK, payload, null);
+    }
+}
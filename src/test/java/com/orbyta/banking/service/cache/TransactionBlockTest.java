@@ -0,0 +1,92 @@
+package com.orbyta.banking.service.cache;
+
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class TransactionBlockTest {
+
+    /**
+     * Test che verifica che la conversione da e verso il modello sia senza
+     * perdita.
+     *
+     * Questo test verifica che:
+     * - Valori nulli, stringhe non ASCII e importi con scale diverse tornino
+     * identici
+     * - Tipo, valuta e descrizione ripetuti vengano restituiti correttamente
+     * - Le transazioni ricostruite siano istanze nuove
+     */
+    @Test
+    void toList_shouldRoundTripTransactions() {
+        // Given
+        TransactionType type = new TransactionType("GBS_TRANSACTION_TYPE", "GBS_TRANSACTION_TYPE_0023");
+        List<Transaction> transactions = List.of(
+                new Transaction("1460159524001", "00000000273015", "2024-03-14", "2024-03-12", type,
+                        new BigDecimal("-343.77"), "EUR", "PD VISA CORPORATE 12"),
+                new Transaction("1460159524002", null, "2024-03-14", null, null,
+                        new BigDecimal("1E+3"), null, null),
+                new Transaction("Bonifico àèìòù €", "", "2024-03-15", "2024-03-15", type,
+                        new BigDecimal("0.000001"), "EUR", "PD VISA CORPORATE 12"),
+                new Transaction(null, "00000000273016", null, "2024-03-16",
+                        new TransactionType(null, "GBS_TRANSACTION_TYPE_0050"), null, "USD", ""));
+
+        // When
+        TransactionBlock block = TransactionBlock.of(transactions);
+
+        // Then
+        assertEquals(4, block.size());
+        assertEquals(transactions, block.toList());
+        assertEquals(transactions.subList(1, 3), block.toList(1, 3));
+        assertNotSame(type, block.get(0).getType());
+        assertEquals(LocalDate.of(2024, 3, 15).toEpochDay(), block.accountingEpochDay(2));
+        assertEquals(Integer.MIN_VALUE, block.accountingEpochDay(3));
+    }
+
+    /**
+     * Test che verifica che date non ISO e importi oltre il {@code long}
+     * vengano conservati così come ricevuti.
+     */
+    @Test
+    void toList_shouldKeepValuesOutsideCompactRepresentation() {
+        // Given
+        List<Transaction> transactions = List.of(
+                new Transaction("1", "1", "2024-03-14", "14/03/2024", null,
+                        new BigDecimal("123456789012345678901234567890.12"), "EUR", "Large"),
+                new Transaction("2", "2", "2024-03-15", "2024-03-15", null,
+                        new BigDecimal("-10.00"), "EUR", "Small"));
+
+        // When
+        TransactionBlock block = TransactionBlock.of(transactions);
+
+        // Then
+        assertEquals(transactions, block.toList());
+    }
+
+    /**
+     * Test che verifica la codifica dei dizionari oltre le 65535 voci distinte.
+     */
+    @Test
+    void toList_shouldRoundTripLargeDictionaries() {
+        // Given
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 80_000; i++) {
+            transactions.add(new Transaction(String.valueOf(i), null, "2024-03-14", "2024-03-14", null,
+                    BigDecimal.valueOf(i, 2), "EUR", i % 8 == 0 ? null : "Description " + i));
+        }
+
+        // When
+        TransactionBlock block = TransactionBlock.of(transactions);
+
+        // Then
+        assertEquals(transactions, block.toList());
+    }
+}
@@ -0,0 +1,198 @@
+package com.orbyta.banking.service.cache;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TransactionRangeCacheTest {
+
+    private final String accountId = "14537780";
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    private TransactionRangeCache cache;
+    private RecordingLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneOffset.UTC);
+        cache = new TransactionRangeCache(true, 100, Duration.ofMinutes(10), clock, new SimpleMeterRegistry());
+        loader = new RecordingLoader();
+    }
+
+    /**
+     * Test che verifica che una richiesta sovrapposta a una precedente scarichi
+     * solo i giorni mancanti.
+     *
+     * Questo test verifica che:
+     * - La prima richiesta scarichi l'intero intervallo
+     * - La seconda richiesta scarichi solo la parte non ancora in cache
+     * - Il risultato contenga le transazioni di entrambi gli intervalli, dalla
+     * più recente
+     */
+    @Test
+    void get_shouldFetchOnlyMissingSubRanges() {
+        // Given
+        cache.get(accountId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), loader);
+
+        // When
+        ApiResponse<TransactionsPayload> result = cache.get(accountId, LocalDate.of(2024, 1, 15),
+                LocalDate.of(2024, 2, 10), loader);
+
+        // Then
+        assertEquals(List.of("2024-01-01..2024-01-31", "2024-02-01..2024-02-10"), loader.calls);
+        assertEquals(ApiConstants.STATUS_OK, result.getStatus());
+        assertEquals(List.of("2024-02-10", "2024-02-01", "2024-01-31", "2024-01-20", "2024-01-15"),
+                accountingDates(result));
+    }
+
+    /**
+     * Test che verifica che un intervallo già scaricato venga servito senza
+     * chiamare l'upstream.
+     */
+    @Test
+    void get_shouldServeCoveredRangeFromCache() {
+        // Given
+        cache.get(accountId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), loader);
+        cache.get(accountId, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), loader);
+
+        // When
+        ApiResponse<TransactionsPayload> result = cache.get(accountId, LocalDate.of(2024, 1, 10),
+                LocalDate.of(2024, 2, 20), loader);
+
+        // Then
+        assertEquals(2, loader.calls.size());
+        assertEquals(List.of("2024-02-20", "2024-02-15", "2024-02-10", "2024-02-01", "2024-01-31",
+                "2024-01-20", "2024-01-15", "2024-01-10"), accountingDates(result));
+    }
+
+    /**
+     * Test che verifica che la giornata odierna non venga mai salvata in cache.
+     *
+     * Questo test verifica che:
+     * - Una seconda richiesta che include oggi scarichi di nuovo solo la
+     * giornata odierna
+     */
+    @Test
+    void get_shouldAlwaysRefetchToday() {
+        // Given
+        cache.get(accountId, LocalDate.of(2024, 3, 1), today, loader);
+
+        // When
+        cache.get(accountId, LocalDate.of(2024, 3, 1), today, loader);
+
+        // Then
+        assertEquals(List.of("2024-03-01..2024-03-15", "2024-03-15..2024-03-15"), loader.calls);
+    }
+
+    /**
+     * Test che verifica la rimozione dei duplicati per transactionId quando
+     * l'upstream restituisce di nuovo una transazione già in cache.
+     */
+    @Test
+    void get_shouldRemoveDuplicatesByTransactionId() {
+        // Given
+        cache.get(accountId, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 14), loader);
+        loader.extra = transaction("T-2024-03-14", "2024-03-14");
+
+        // When
+        ApiResponse<TransactionsPayload> result = cache.get(accountId, LocalDate.of(2024, 3, 10), today, loader);
+
+        // Then
+        List<String> ids = result.getPayload().getList().stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toList());
+        assertEquals(ids.stream().distinct().count(), ids.size());
+        assertEquals("T-2024-03-15", ids.get(0));
+    }
+
+    /**
+     * Test che verifica che le risposte servite dalla cache abbiano la stessa
+     * forma di quelle scaricate per intero dall'upstream.
+     *
+     * Questo test verifica che:
+     * - Una risposta interamente dalla cache riporti status e campo error
+     * dell'upstream
+     * - Lo stesso valga per una risposta in parte dalla cache
+     */
+    @Test
+    void get_shouldKeepUpstreamEnvelopeOnCacheHits() {
+        // Given
+        ApiResponse<TransactionsPayload> miss = cache.get(accountId, LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 1, 31), loader);
+
+        // When
+        ApiResponse<TransactionsPayload> hit = cache.get(accountId, LocalDate.of(2024, 1, 10),
+                LocalDate.of(2024, 1, 20), loader);
+        ApiResponse<TransactionsPayload> partial = cache.get(accountId, LocalDate.of(2024, 1, 15),
+                LocalDate.of(2024, 2, 10), loader);
+
+        // Then
+        assertEquals(List.of(), miss.getError());
+        assertEquals(miss.getStatus(), hit.getStatus());
+        assertEquals(miss.getError(), hit.getError());
+        assertEquals(miss.getStatus(), partial.getStatus());
+        assertEquals(miss.getError(), partial.getError());
+    }
+
+    private static List<String> accountingDates(ApiResponse<TransactionsPayload> response) {
+        return response.getPayload().getList().stream()
+                .map(Transaction::getAccountingDate)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static Transaction transaction(String id, String accountingDate) {
+        return new Transaction(id, "OP-" + id, accountingDate, accountingDate, null, new BigDecimal("-10.00"),
+                "EUR", "Pagamento");
+    }
+
+    /**
+     * Loader che genera transazioni nei giorni 1, 10, 15, 20 e 31 di ogni mese
+     * (più la giornata odierna) e registra gli intervalli richiesti.
+     */
+    private static final class RecordingLoader implements TransactionRangeLoader {
+
+        private final List<String> calls = new ArrayList<>();
+        private Transaction extra;
+
+        @Override
+        public ApiResponse<TransactionsPayload> load(String accountId, LocalDate from, LocalDate to) {
+            calls.add(from + ".." + to);
+            List<Transaction> transactions = new ArrayList<>();
+            for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+                int dayOfMonth = day.getDayOfMonth();
+                if (dayOfMonth == 1 || dayOfMonth == 10 || dayOfMonth == 15 || dayOfMonth == 20
+                        || dayOfMonth == 31 || day.equals(LocalDate.of(2024, 3, 15))) {
+                    transactions.add(transaction("T-" + day, day.toString()));
+                }
+            }
+            if (extra != null) {
+                transactions.add(extra);
+            }
+
+            ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+            response.setStatus(ApiConstants.STATUS_OK);
+            response.setPayload(new TransactionsPayload(transactions));
+            response.setError(List.of());
+            return response;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.orbyta.banking.service.coalescing;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final String accountId = "14537780";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(true, meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test che verifica che letture identiche concorrenti producano una sola
+     * chiamata upstream.
+     *
+     * Questo test verifica che:
+     * - L'upstream venga chiamato una sola volta
+     * - Tutti i chiamanti ricevano lo stesso risultato
+     * - Il fan-in esposto come metrica sia pari al numero di chiamanti
+     */
+    @Test
+    void execute_shouldShareSingleUpstreamCallAmongConcurrentCallers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Object upstreamResult = new Object();
+
+        // When
+        List<Future<Object>> futures = submitCallers(() -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return upstreamResult;
+        });
+        awaitWaiters(CALLERS);
+        release.countDown();
+
+        // Then
+        for (Future<Object> future : futures) {
+            assertSame(upstreamResult, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(CALLERS, meterRegistry.get("fabrick.coalescing.fan.in")
+                .tag("operation", FabrickOperation.GET_BALANCE.getTagValue())
+                .gauge().value());
+    }
+
+    /**
+     * Test che verifica che l'eccezione della chiamata upstream venga propagata
+     * a tutti i chiamanti accodati.
+     */
+    @Test
+    void execute_shouldPropagateUpstreamFailureToAllWaiters() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServerErrorException failure = new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+
+        // When
+        List<Future<Object>> futures = submitCallers(() -> {
+            await(release);
+            throw failure;
+        });
+        awaitWaiters(CALLERS);
+        release.countDown();
+
+        // Then
+        for (Future<Object> future : futures) {
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpServerErrorException.class, thrown.getCause());
+        }
+    }
+
+    /**
+     * Test che verifica che, terminata la chiamata, una nuova lettura con la
+     * stessa chiave torni a interrogare l'upstream.
+     */
+    @Test
+    void execute_shouldNotReuseCompletedCalls() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        // When
+        coalescer.execute(FabrickOperation.GET_BALANCE, accountId, List.of(), upstreamCalls::incrementAndGet);
+        coalescer.execute(FabrickOperation.GET_BALANCE, accountId, List.of(), upstreamCalls::incrementAndGet);
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private List<Future<Object>> submitCallers(Supplier<Object> upstream) {
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(
+                    () -> coalescer.execute(FabrickOperation.GET_BALANCE, accountId, List.of(), upstream)));
+        }
+        return futures;
+    }
+
+    /**
+     * Attende che tutte le richieste siano state contate dal coalescer, così
+     * che la chiamata upstream venga rilasciata solo a chiamanti già accodati.
+     */
+    private void awaitWaiters(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("fabrick.coalescing.requests")
+                .tag("operation", FabrickOperation.GET_BALANCE.getTagValue())
+                .counter().count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.orbyta.banking.service.hedging;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestHedgerTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(50);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger requestHedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (requestHedger != null) {
+            requestHedger.close();
+        }
+    }
+
+    /**
+     * Test che verifica la copertura di una lettura lenta.
+     *
+     * Questo test verifica che:
+     * - Dopo il ritardo venga inviata una seconda chiamata
+     * - Venga restituita la risposta della copertura, arrivata per prima
+     * - La chiamata originale venga interrotta
+     */
+    @Test
+    void execute_shouldHedgeSlowReadAndCancelLoser() throws Exception {
+        // Given
+        requestHedger = hedger(1.0);
+        warmUp(FabrickOperation.GET_BALANCE);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+
+        // When
+        String result = requestHedger.execute(FabrickOperation.GET_BALANCE, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        assertTrue(primaryInterrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, hedgingCount(FabrickOperation.GET_BALANCE, "sent"));
+        assertEquals(1.0, hedgingCount(FabrickOperation.GET_BALANCE, "won"));
+    }
+
+    /**
+     * Test che verifica che senza budget residuo la lettura lenta non venga
+     * coperta e si attenda la chiamata originale.
+     */
+    @Test
+    void execute_shouldNotHedgeWithoutBudget() {
+        // Given
+        requestHedger = hedger(0);
+        warmUp(FabrickOperation.GET_TRANSACTIONS);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = requestHedger.execute(FabrickOperation.GET_TRANSACTIONS, () -> {
+            attempts.incrementAndGet();
+            sleepQuietly(MIN_DELAY.toMillis() * 3);
+            return "primary";
+        });
+
+        // Then
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, hedgingCount(FabrickOperation.GET_TRANSACTIONS, "sent"));
+        assertEquals(1.0, hedgingCount(FabrickOperation.GET_TRANSACTIONS, "budget_exhausted"));
+    }
+
+    /**
+     * Test che verifica che i bonifici non vengano mai coperti: la chiamata
+     * viene eseguita una sola volta sul thread chiamante.
+     */
+    @Test
+    void execute_shouldNeverHedgeMoneyTransfer() {
+        // Given
+        requestHedger = hedger(1.0);
+        Thread caller = Thread.currentThread();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            requestHedger.execute(FabrickOperation.CREATE_MONEY_TRANSFER, () -> {
+                attempts.incrementAndGet();
+                assertSame(caller, Thread.currentThread());
+                return "transfer";
+            });
+        }
+
+        // Then
+        assertEquals(20, attempts.get());
+        assertEquals(Duration.ZERO, requestHedger.getDelay(FabrickOperation.CREATE_MONEY_TRANSFER));
+    }
+
+    private RequestHedger hedger(double budgetRatio) {
+        return new RequestHedger(true, 0.95, MIN_DELAY, budgetRatio, 10, 10,
+                Executors.newVirtualThreadPerTaskExecutor(), meterRegistry);
+    }
+
+    /**
+     * Registra abbastanza durate brevi da attivare la copertura con il
+     * ritardo minimo.
+     */
+    private void warmUp(FabrickOperation operation) {
+        for (int i = 0; i < 10; i++) {
+            requestHedger.execute(operation, () -> "warm-up");
+        }
+        assertEquals(MIN_DELAY, requestHedger.getDelay(operation));
+    }
+
+    private double hedgingCount(FabrickOperation operation, String outcome) {
+        return meterRegistry.get("fabrick.hedging.requests")
+                .tags("operation", operation.getTagValue(), "outcome", outcome)
+                .counter().count();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
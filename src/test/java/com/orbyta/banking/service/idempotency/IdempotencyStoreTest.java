@@ -0,0 +1,309 @@
+package com.orbyta.banking.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.IdempotencyKeyMismatchException;
+import com.orbyta.banking.exception.IdempotencyOutcomeUnknownException;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferRequest;
+import com.orbyta.banking.model.moneytransfer.MoneyTransferResponse;
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTest {
+
+    private static final String ACCOUNT_ID = "14537780";
+    private static final Instant NOW = Instant.parse("2024-03-15T10:00:00Z");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger upstreamCalls;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+    }
+
+    /**
+     * Test che verifica la risposta salvata per i tentativi ripetuti.
+     *
+     * Questo test verifica che:
+     * - Il bonifico venga eseguito una sola volta per chiave
+     * - Il tentativo ripetuto riceva la stessa risposta
+     * - Una chiave diversa esegua un nuovo bonifico
+     */
+    @Test
+    void execute_shouldReplayCompletedResponse() {
+        // Given
+        IdempotencyStore store = store(null, Clock.fixed(NOW, ZoneOffset.UTC));
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+
+        // When
+        ApiResponse<MoneyTransferResponse> first = store.execute(ACCOUNT_ID, "key-1", request, this::transfer);
+        ApiResponse<MoneyTransferResponse> retry = store.execute(ACCOUNT_ID, "key-1", request, this::transfer);
+        store.execute(ACCOUNT_ID, "key-2", request, this::transfer);
+
+        // Then
+        assertEquals(first, retry);
+        assertEquals("MT1", retry.getPayload().getMoneyTransferId());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("fabrick.idempotency.requests").tag("outcome", "replayed")
+                .counter().count());
+    }
+
+    /**
+     * Test che verifica che le richieste concorrenti con la stessa chiave
+     * attendano la chiamata in corso invece di inviarne un'altra.
+     */
+    @Test
+    void execute_shouldJoinInFlightCall() throws Exception {
+        // Given
+        IdempotencyStore store = store(null, Clock.fixed(NOW, ZoneOffset.UTC));
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ApiResponse<MoneyTransferResponse>> first = executor.submit(() -> store.execute(ACCOUNT_ID,
+                    "key-1", request, () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        return transfer();
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+
+            // When
+            Future<ApiResponse<MoneyTransferResponse>> retry = executor.submit(() -> store.execute(ACCOUNT_ID,
+                    "key-1", request, this::transfer));
+            while (meterRegistry.get("fabrick.idempotency.requests").tag("outcome", "joined").counter()
+                    .count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then
+            assertEquals(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test che verifica il rifiuto di una chiave riusata per un bonifico
+     * diverso e che gli errori per cui il bonifico non è stato eseguito
+     * lascino la chiave libera.
+     *
+     * Questo test verifica che:
+     * - Dopo un 4xx di Fabrick la stessa chiave possa essere riprovata
+     * - Dopo una chiamata rifiutata prima dell'invio la stessa chiave possa
+     * essere riprovata
+     * - Una chiave riusata con un bonifico diverso venga rifiutata
+     */
+    @Test
+    void execute_shouldRejectMismatchAndNotStoreFailures() {
+        // Given
+        IdempotencyStore store = store(null, Clock.fixed(NOW, ZoneOffset.UTC));
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+
+        // When
+        assertThrows(HttpClientErrorException.class, () -> store.execute(ACCOUNT_ID, "key-1", request, () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertThrows(UpstreamUnavailableException.class, () -> store.execute(ACCOUNT_ID, "key-1", request,
+                () -> {
+                    throw new UpstreamUnavailableException(FabrickOperation.CREATE_MONEY_TRANSFER,
+                            ErrorConstants.CIRCUIT_OPEN, "Circuit open", null);
+                }));
+        store.execute(ACCOUNT_ID, "key-1", request, this::transfer);
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertThrows(IdempotencyKeyMismatchException.class, () -> store.execute(ACCOUNT_ID, "key-1",
+                createSampleMoneyTransferRequest("200.00"), this::transfer));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    /**
+     * Test che verifica che un tentativo ripetuto dopo un timeout non invii un
+     * secondo bonifico.
+     *
+     * Questo test verifica che:
+     * - Il primo tentativo restituisca l'errore originale
+     * - I tentativi successivi con la stessa chiave ricevano
+     * IdempotencyOutcomeUnknownException senza chiamare Fabrick
+     * - L'esito sconosciuto venga ritrovato dopo un riavvio
+     */
+    @Test
+    void execute_shouldNotRetryAfterTimeout() {
+        // Given
+        Path file = tempDir.resolve("idempotency.ndjson");
+        IdempotencyStore store = store(file, Clock.fixed(NOW, ZoneOffset.UTC));
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+        assertThrows(ResourceAccessException.class, () -> store.execute(ACCOUNT_ID, "key-1", request, () -> {
+            throw new ResourceAccessException("Read timed out");
+        }));
+
+        // When
+        IdempotencyStore restarted = store(file, Clock.fixed(NOW.plus(Duration.ofMinutes(30)), ZoneOffset.UTC));
+
+        // Then
+        assertThrows(IdempotencyOutcomeUnknownException.class,
+                () -> store.execute(ACCOUNT_ID, "key-1", request, this::transfer));
+        assertThrows(IdempotencyOutcomeUnknownException.class,
+                () -> restarted.execute(ACCOUNT_ID, "key-1", request, this::transfer));
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(2.0, meterRegistry.get("fabrick.idempotency.requests").tag("outcome", "unknown")
+                .counter().count());
+    }
+
+    /**
+     * Test che verifica che un 5xx di Fabrick, ricevuto dopo l'invio del
+     * bonifico, renda l'esito sconosciuto anche per una chiamata in attesa e
+     * per i tentativi successivi.
+     */
+    @Test
+    void execute_shouldNotRetryAfterServerError() throws Exception {
+        // Given
+        IdempotencyStore store = store(null, Clock.fixed(NOW, ZoneOffset.UTC));
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ApiResponse<MoneyTransferResponse>> first = executor.submit(() -> store.execute(ACCOUNT_ID,
+                    "key-1", request, () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<ApiResponse<MoneyTransferResponse>> joined = executor.submit(() -> store.execute(ACCOUNT_ID,
+                    "key-1", request, this::transfer));
+            while (meterRegistry.get("fabrick.idempotency.requests").tag("outcome", "joined").counter()
+                    .count() < 1) {
+                Thread.sleep(5);
+            }
+
+            // When
+            release.countDown();
+
+            // Then
+            ExecutionException firstError = assertThrows(ExecutionException.class,
+                    () -> first.get(5, TimeUnit.SECONDS));
+            ExecutionException joinedError = assertThrows(ExecutionException.class,
+                    () -> joined.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpServerErrorException.class, firstError.getCause());
+            assertInstanceOf(HttpServerErrorException.class, joinedError.getCause());
+            assertThrows(IdempotencyOutcomeUnknownException.class,
+                    () -> store.execute(ACCOUNT_ID, "key-1", request, this::transfer));
+            assertEquals(0, upstreamCalls.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test che verifica che le risposte salvate su file vengano ritrovate dopo
+     * un riavvio, escluse quelle scadute.
+     */
+    @Test
+    void execute_shouldReplayFromFileAfterRestart() {
+        // Given
+        Path file = tempDir.resolve("idempotency.ndjson");
+        MoneyTransferRequest request = createSampleMoneyTransferRequest("100.00");
+        store(file, Clock.fixed(NOW, ZoneOffset.UTC)).execute(ACCOUNT_ID, "key-1", request, this::transfer);
+        store(file, Clock.fixed(NOW.plus(Duration.ofHours(1)), ZoneOffset.UTC))
+                .execute(ACCOUNT_ID, "key-2", request, this::transfer);
+
+        // When
+        IdempotencyStore restarted = store(file, Clock.fixed(NOW.plus(Duration.ofMinutes(90)), ZoneOffset.UTC));
+        ApiResponse<MoneyTransferResponse> replay = restarted.execute(ACCOUNT_ID, "key-1", request,
+                this::transfer);
+        IdempotencyStore later = store(file, Clock.fixed(NOW.plus(Duration.ofMinutes(150)), ZoneOffset.UTC));
+        ApiResponse<MoneyTransferResponse> expired = later.execute(ACCOUNT_ID, "key-1", request,
+                this::transfer);
+        ApiResponse<MoneyTransferResponse> stillValid = later.execute(ACCOUNT_ID, "key-2", request,
+                this::transfer);
+
+        // Then
+        assertEquals("MT1", replay.getPayload().getMoneyTransferId());
+        assertEquals("MT3", expired.getPayload().getMoneyTransferId());
+        assertEquals("MT2", stillValid.getPayload().getMoneyTransferId());
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    private IdempotencyStore store(Path file, Clock clock) {
+        return new IdempotencyStore(true, Duration.ofHours(2), 100, file, clock, objectMapper, meterRegistry);
+    }
+
+    private ApiResponse<MoneyTransferResponse> transfer() {
+        MoneyTransferResponse payload = new MoneyTransferResponse();
+        payload.setMoneyTransferId("MT" + upstreamCalls.incrementAndGet());
+        payload.setStatus("EXECUTED");
+
+        ApiResponse<MoneyTransferResponse> response = new ApiResponse<>();
+        response.setStatus(ApiConstants.STATUS_OK);
+        response.setPayload(payload);
+        return response;
+    }
+
+    private MoneyTransferRequest createSampleMoneyTransferRequest(String amount) {
+        MoneyTransferRequest.Creditor creditor = new MoneyTransferRequest.Creditor();
+        MoneyTransferRequest.Creditor.Account account = new MoneyTransferRequest.Creditor.Account();
+        account.setAccountCode("IT60X0542811101000000123456");
+        creditor.setName("John Doe");
+        creditor.setAccount(account);
+
+        MoneyTransferRequest request = new MoneyTransferRequest();
+        request.setCreditor(creditor);
+        request.setDescription("Test money transfer");
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("EUR");
+        return request;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.orbyta.banking.service.metrics;
+
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamMetrics upstreamMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamMetrics = new UpstreamMetrics(meterRegistry);
+    }
+
+    /**
+     * Test che verifica la registrazione di una chiamata riuscita.
+     *
+     * Questo test verifica che:
+     * - La durata venga registrata con operazione e codice HTTP
+     * - Durante la chiamata la gauge delle chiamate in volo valga 1
+     * - Non venga conteggiato alcun errore
+     */
+    @Test
+    void record_shouldTimeSuccessfulCall() {
+        // When
+        upstreamMetrics.record(FabrickOperation.GET_BALANCE, () -> {
+            assertEquals(1.0, inFlight(FabrickOperation.GET_BALANCE));
+            return ResponseEntity.ok("body");
+        });
+
+        // Then
+        assertEquals(1, meterRegistry.get("fabrick.upstream.requests")
+                .tags("operation", "getAccountBalance", "status", "200", "outcome", "SUCCESS")
+                .timer().count());
+        assertEquals(0.0, inFlight(FabrickOperation.GET_BALANCE));
+        assertNull(meterRegistry.find("fabrick.upstream.errors").counter());
+    }
+
+    /**
+     * Test che verifica il conteggio degli errori per codice HTTP e per errori di
+     * I/O, con l'eccezione propagata al chiamante.
+     */
+    @Test
+    void record_shouldCountErrorsByStatus() {
+        // When
+        assertThrows(HttpClientErrorException.class, () -> upstreamMetrics.record(
+                FabrickOperation.CREATE_MONEY_TRANSFER, () -> {
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                }));
+        assertThrows(ResourceAccessException.class, () -> upstreamMetrics.record(
+                FabrickOperation.CREATE_MONEY_TRANSFER, () -> {
+                    throw new ResourceAccessException("Read timed out");
+                }));
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("fabrick.upstream.errors")
+                .tags("operation", "createMoneyTransfer", "status", "400").counter().count());
+        assertEquals(1.0, meterRegistry.get("fabrick.upstream.errors")
+                .tags("operation", "createMoneyTransfer", "status", UpstreamMetrics.STATUS_IO_ERROR)
+                .counter().count());
+        assertEquals(1, meterRegistry.get("fabrick.upstream.requests")
+                .tags("status", "400", "outcome", "CLIENT_ERROR").timer().count());
+        assertEquals(0.0, inFlight(FabrickOperation.CREATE_MONEY_TRANSFER));
+    }
+
+    private double inFlight(FabrickOperation operation) {
+        return meterRegistry.get("fabrick.upstream.inflight").tag("operation", operation.getTagValue()).gauge()
+                .value();
+    }
+}
@@ -0,0 +1,224 @@
+package com.orbyta.banking.service.resilience;
+
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final FabrickOperation BALANCE = FabrickOperation.GET_BALANCE;
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private SimpleMeterRegistry meterRegistry;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = System.nanoTime();
+    }
+
+    /**
+     * Test che verifica l'adattamento del limite al tempo di risposta.
+     *
+     * Questo test verifica che:
+     * - Con tempi pari a quello a vuoto e chiamate in corso pari al limite, il
+     *   limite cresca
+     * - Quando i tempi salgono oltre la tolleranza, il limite scenda
+     */
+    @Test
+    void onSample_shouldGrowAtBaselineAndShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 4, 200, 0, Duration.ZERO);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(BALANCE, tick(), BASELINE_RTT, limiter.getLimit(BALANCE), false);
+        }
+        int grown = limiter.getLimit(BALANCE);
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(BALANCE, tick(), BASELINE_RTT * 5, limiter.getLimit(BALANCE), false);
+        }
+
+        // Then
+        assertTrue(grown > 20, "limit should grow at baseline latency, was " + grown);
+        assertTrue(limiter.getLimit(BALANCE) < grown / 2, "limit should shrink, was " + limiter.getLimit(BALANCE));
+        assertEquals(BASELINE_RTT, limiter.getBaselineRttNanos(BALANCE));
+    }
+
+    /**
+     * Test che verifica che il limite non cresca quando le chiamate in corso
+     * sono molte meno del limite, e che una finestra con errori upstream lo
+     * riduca del 10%.
+     */
+    @Test
+    void onSample_shouldHoldWhenUnderusedAndBackOffOnErrors() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 4, 200, 0, Duration.ZERO);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(BALANCE, tick(), BASELINE_RTT, 2, false);
+        }
+        int idle = limiter.getLimit(BALANCE);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(BALANCE, tick(), BASELINE_RTT, 2, i == 0);
+        }
+
+        // Then
+        assertEquals(20, idle);
+        assertEquals(18, limiter.getLimit(BALANCE));
+    }
+
+    /**
+     * Test che verifica che ogni operazione abbia un limite e un tempo a vuoto
+     * propri.
+     *
+     * Questo test verifica che:
+     * - Un'operazione lenta di natura non riduca il limite delle altre
+     * - Il rallentamento di un'operazione riduca solo il suo limite
+     */
+    @Test
+    void onSample_shouldAdaptEachOperationSeparately() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 4, 200, 0, Duration.ZERO);
+        FabrickOperation transactions = FabrickOperation.GET_TRANSACTIONS;
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(BALANCE, tick(), BASELINE_RTT, limiter.getLimit(BALANCE), false);
+            limiter.onSample(transactions, tick(), BASELINE_RTT * 2, limiter.getLimit(transactions), false);
+        }
+        int balanceLimit = limiter.getLimit(BALANCE);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            limiter.onSample(transactions, tick(), BASELINE_RTT * 10, limiter.getLimit(transactions), false);
+        }
+
+        // Then
+        assertTrue(balanceLimit > 20, "balance limit should grow, was " + balanceLimit);
+        assertTrue(limiter.getLimit(transactions) < balanceLimit / 2,
+                "transactions limit should shrink, was " + limiter.getLimit(transactions));
+        assertEquals(balanceLimit, limiter.getLimit(BALANCE));
+        assertEquals(BASELINE_RTT, limiter.getBaselineRttNanos(BALANCE));
+        assertEquals(BASELINE_RTT * 2, limiter.getBaselineRttNanos(transactions));
+    }
+
+    /**
+     * Test che verifica il rifiuto immediato delle chiamate oltre il limite
+     * quando la coda è piena.
+     *
+     * Questo test verifica che:
+     * - La chiamata oltre il limite venga rifiutata con "CONCURRENCY_LIMITED"
+     * - Il rifiuto venga conteggiato per operazione
+     * - Le altre operazioni non siano limitate dalle chiamate in corso
+     * - La chiamata in corso si concluda normalmente
+     */
+    @Test
+    void execute_shouldRejectAboveLimit() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 0, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> inFlight = executor.submit(() -> limiter.execute(FabrickOperation.GET_BALANCE, () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "done";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            // When
+            UpstreamUnavailableException ex = assertThrows(UpstreamUnavailableException.class,
+                    () -> limiter.execute(FabrickOperation.GET_BALANCE, () -> "not called"));
+
+            // Then
+            assertEquals(ErrorConstants.CONCURRENCY_LIMITED, ex.getCode());
+            assertEquals(1.0, meterRegistry.get("fabrick.limiter.rejected")
+                    .tag("operation", "getAccountBalance").counter().count());
+            assertEquals("other operation", limiter.execute(FabrickOperation.GET_TRANSACTIONS,
+                    () -> "other operation"));
+            release.countDown();
+            assertEquals("done", inFlight.get(5, TimeUnit.SECONDS));
+            assertEquals(0, limiter.getInFlight(BALANCE));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test che verifica che una chiamata oltre il limite attenda in coda e
+     * parta appena si libera un posto.
+     */
+    @Test
+    void execute_shouldQueueBrieflyAboveLimit() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> inFlight = executor.submit(() -> limiter.execute(FabrickOperation.GET_BALANCE, () -> {
+                started.countDown();
+                sleepQuietly(100);
+                return "first";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            // When
+            String result = limiter.execute(FabrickOperation.GET_BALANCE, () -> "second");
+
+            // Then
+            assertEquals("second", result);
+            assertEquals("first", inFlight.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit, int maxQueueSize,
+            Duration maxQueueWait) {
+        return new AdaptiveConcurrencyLimiter(true, initialLimit, minLimit, maxLimit, 1.5, maxQueueSize,
+                maxQueueWait, Duration.ofSeconds(30), meterRegistry);
+    }
+
+    /**
+     * Orologio simulato: ogni campione arriva 5 ms dopo il precedente.
+     */
+    private long tick() {
+        now += TimeUnit.MILLISECONDS.toNanos(5);
+        return now;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.orbyta.banking.service.resilience;
+
+import com.orbyta.banking.constants.ErrorConstants;
+import com.orbyta.banking.exception.UpstreamUnavailableException;
+import com.orbyta.banking.service.FabrickOperation;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamGuard upstreamGuard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        upstreamGuard = new UpstreamGuard(true, circuitBreakerConfig, bulkheadConfig,
+                new AdaptiveConcurrencyLimiter(false, 20, 1, 200, 1.5, 0, Duration.ZERO, Duration.ofSeconds(10),
+                        meterRegistry),
+                meterRegistry);
+    }
+
+    /**
+     * Test che verifica l'apertura del circuito dopo ripetuti errori 5xx.
+     *
+     * Questo test verifica che:
+     * - Il circuito dell'operazione passi allo stato OPEN
+     * - Le chiamate successive vengano rifiutate senza essere eseguite
+     * - Il cambio di stato venga conteggiato
+     * - Le altre operazioni non ne risentano
+     */
+    @Test
+    void execute_shouldOpenCircuitAfterServerErrors() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> upstreamGuard.execute(FabrickOperation.GET_BALANCE,
+                    () -> {
+                        throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+                    }));
+        }
+
+        // When
+        UpstreamUnavailableException ex = assertThrows(UpstreamUnavailableException.class,
+                () -> upstreamGuard.execute(FabrickOperation.GET_BALANCE, () -> "not called"));
+
+        // Then
+        assertEquals(ErrorConstants.CIRCUIT_OPEN, ex.getCode());
+        assertEquals(Duration.ofSeconds(30), ex.getRetryAfter());
+        assertEquals(CircuitBreaker.State.OPEN, upstreamGuard.getState(FabrickOperation.GET_BALANCE));
+        assertEquals(1.0, meterRegistry.get("fabrick.circuitbreaker.transitions")
+                .tags("operation", "getAccountBalance", "from", "CLOSED", "to", "OPEN")
+                .counter().count());
+        assertEquals("ok", upstreamGuard.execute(FabrickOperation.GET_TRANSACTIONS, () -> "ok"));
+    }
+
+    /**
+     * Test che verifica che gli errori 4xx non aprano il circuito, perché
+     * dipendono dalla richiesta e non dallo stato di Fabrick.
+     */
+    @Test
+    void execute_shouldIgnoreClientErrors() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpClientErrorException.class, () -> upstreamGuard.execute(FabrickOperation.GET_BALANCE,
+                    () -> {
+                        throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                    }));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, upstreamGuard.getState(FabrickOperation.GET_BALANCE));
+    }
+
+    /**
+     * Test che verifica il rifiuto immediato quando il bulkhead
+     * dell'operazione è pieno.
+     */
+    @Test
+    void execute_shouldRejectWhenBulkheadIsFull() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> inFlight = executor.submit(() -> upstreamGuard.execute(
+                    FabrickOperation.CREATE_MONEY_TRANSFER, () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        return "done";
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+
+            // When
+            UpstreamUnavailableException ex = assertThrows(UpstreamUnavailableException.class,
+                    () -> upstreamGuard.execute(FabrickOperation.CREATE_MONEY_TRANSFER, () -> "not called"));
+
+            // Then
+            assertEquals(ErrorConstants.BULKHEAD_FULL, ex.getCode());
+            release.countDown();
+            assertEquals("done", inFlight.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.orbyta.banking.service.sharding;
+
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.TransactionRangeLoader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionRangeSharderTest {
+
+    private static final int MAX_CONCURRENCY = 3;
+
+    private final String accountId = "14537780";
+    private final LocalDate from = LocalDate.of(2023, 1, 1);
+    private final LocalDate to = LocalDate.of(2023, 12, 31);
+
+    private ExecutorService executor;
+    private TransactionRangeSharder sharder;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        sharder = new TransactionRangeSharder(true, Period.ofMonths(1), MAX_CONCURRENCY, 3, Duration.ZERO,
+                executor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test che verifica che il risultato a blocchi coincida con quello di una
+     * singola chiamata sull'intero intervallo.
+     *
+     * Questo test verifica che:
+     * - L'intervallo annuale venga scaricato in 12 blocchi mensili
+     * - Le transazioni risultanti siano le stesse, nello stesso ordine, di
+     * un'unica chiamata
+     */
+    @Test
+    void load_shouldMatchSingleCallResult() {
+        // Given
+        StubLoader loader = new StubLoader();
+        ApiResponse<TransactionsPayload> single = loader.load(accountId, from, to);
+        loader.calls.clear();
+
+        // When
+        ApiResponse<TransactionsPayload> sharded = sharder.load(accountId, from, to, loader);
+
+        // Then
+        assertEquals(12, loader.calls.size());
+        assertEquals(ApiConstants.STATUS_OK, sharded.getStatus());
+        assertEquals(single.getPayload().getList(), sharded.getPayload().getList());
+    }
+
+    /**
+     * Test che verifica che i blocchi in volo per una richiesta non superino il
+     * limite configurato.
+     */
+    @Test
+    void load_shouldBoundConcurrentChunks() {
+        // Given
+        StubLoader loader = new StubLoader();
+        loader.delay = Duration.ofMillis(20);
+
+        // When
+        sharder.load(accountId, from, to, loader);
+
+        // Then
+        assertTrue(loader.maxInFlight.get() <= MAX_CONCURRENCY);
+        assertTrue(loader.maxInFlight.get() > 1);
+    }
+
+    /**
+     * Test che verifica che un blocco fallito con un errore 5xx venga ripetuto da
+     * solo, senza riscaricare gli altri blocchi.
+     */
+    @Test
+    void load_shouldRetryFailedChunkOnly() {
+        // Given
+        StubLoader loader = new StubLoader();
+        loader.failuresByMonth.put(6, new AtomicInteger(2));
+
+        // When
+        ApiResponse<TransactionsPayload> result = sharder.load(accountId, from, to, loader);
+
+        // Then
+        assertEquals(14, loader.calls.size());
+        assertEquals(3, loader.calls.stream().filter(call -> call.startsWith("2023-06-01")).count());
+        assertEquals(ApiConstants.STATUS_OK, result.getStatus());
+    }
+
+    /**
+     * Test che verifica che gli errori 4xx non vengano ripetuti e vengano
+     * propagati al chiamante.
+     */
+    @Test
+    void load_shouldNotRetryClientErrors() {
+        // Given
+        StubLoader loader = new StubLoader();
+        loader.clientErrorMonth = 3;
+
+        // When / Then
+        assertThrows(HttpClientErrorException.class, () -> sharder.load(accountId, from, to, loader));
+        assertEquals(1, loader.calls.stream().filter(call -> call.startsWith("2023-03-01")).count());
+    }
+
+    /**
+     * Test che verifica che, quando un blocco fallisce, i blocchi in corso non
+     * vengano interrotti, perché altre richieste potrebbero condividerne la
+     * chiamata.
+     *
+     * Questo test verifica che:
+     * - L'errore del blocco venga propagato al chiamante
+     * - Il blocco in corso termini normalmente, senza interruzione
+     */
+    @Test
+    void load_shouldNotInterruptRunningChunksOnFailure() throws Exception {
+        // Given
+        CountDownLatch novemberStarted = new CountDownLatch(1);
+        CountDownLatch novemberFinished = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        TransactionRangeLoader loader = (id, chunkFrom, chunkTo) -> {
+            if (chunkFrom.getMonthValue() == 12) {
+                awaitQuietly(novemberStarted);
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }
+            if (chunkFrom.getMonthValue() == 11) {
+                novemberStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                } finally {
+                    novemberFinished.countDown();
+                }
+            }
+            ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+            response.setStatus(ApiConstants.STATUS_OK);
+            response.setPayload(new TransactionsPayload(List.of()));
+            return response;
+        };
+
+        // When
+        assertThrows(HttpClientErrorException.class, () -> sharder.load(accountId, from, to, loader));
+        release.countDown();
+
+        // Then
+        assertTrue(novemberFinished.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    /**
+     * Test che verifica che, dopo il fallimento del primo blocco, i blocchi
+     * successivi non vengano più richiesti all'upstream.
+     *
+     * Questo test verifica che:
+     * - L'errore del blocco venga propagato al chiamante
+     * - Vengano scaricati solo i blocchi già avviati al momento dell'errore
+     */
+    @Test
+    void load_shouldStopSubmittingChunksAfterFirstFailure() {
+        // Given
+        List<Integer> months = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch othersStarted = new CountDownLatch(MAX_CONCURRENCY - 1);
+        TransactionRangeLoader loader = (id, chunkFrom, chunkTo) -> {
+            months.add(chunkFrom.getMonthValue());
+            if (chunkFrom.getMonthValue() == 12) {
+                awaitQuietly(othersStarted);
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }
+            othersStarted.countDown();
+            StubLoader.sleep(Duration.ofMillis(200));
+            ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+            response.setStatus(ApiConstants.STATUS_OK);
+            response.setPayload(new TransactionsPayload(List.of()));
+            return response;
+        };
+
+        // When
+        assertThrows(HttpClientErrorException.class, () -> sharder.load(accountId, from, to, loader));
+
+        // Then
+        assertEquals(List.of(10, 11, 12), months.stream().sorted().toList());
+    }
+
+    /**
+     * Loader che genera due transazioni al giorno, dalla più recente, e registra
+     * gli intervalli richiesti.
+     */
+    private static final class StubLoader implements TransactionRangeLoader {
+
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        private final Map<Integer, AtomicInteger> failuresByMonth = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private Duration delay = Duration.ZERO;
+        private int clientErrorMonth;
+
+        @Override
+        public ApiResponse<TransactionsPayload> load(String accountId, LocalDate from, LocalDate to) {
+            calls.add(from + ".." + to);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                sleep(delay);
+                if (from.getMonthValue() == clientErrorMonth) {
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                }
+                AtomicInteger failures = failuresByMonth.get(from.getMonthValue());
+                if (failures != null && failures.getAndDecrement() > 0) {
+                    throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+                }
+
+                List<Transaction> transactions = new ArrayList<>();
+                for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+                    for (int i = 0; i < 2; i++) {
+                        transactions.add(new Transaction("T-" + day + "-" + i, "OP-" + day, day.toString(),
+                                day.toString(), null, new BigDecimal("-1.00"), "EUR", "Pagamento"));
+                    }
+                }
+                ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+                response.setStatus(ApiConstants.STATUS_OK);
+                response.setPayload(new TransactionsPayload(transactions));
+                return response;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private static void sleep(Duration duration) {
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
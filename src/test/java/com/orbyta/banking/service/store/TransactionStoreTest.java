@@ -0,0 +1,246 @@
+package com.orbyta.banking.service.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.orbyta.banking.constants.ApiConstants;
+import com.orbyta.banking.model.ApiResponse;
+import com.orbyta.banking.model.transaction.Transaction;
+import com.orbyta.banking.model.transaction.TransactionType;
+import com.orbyta.banking.model.transaction.TransactionsPayload;
+import com.orbyta.banking.service.cache.TransactionRangeLoader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TransactionStoreTest {
+
+    private final String accountId = "14537780";
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    private RecordingLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new RecordingLoader();
+    }
+
+    /**
+     * Test che verifica che i giorni chiusi vengano archiviati e che le
+     * richieste successive scarichino solo la giornata odierna.
+     *
+     * Questo test verifica che:
+     * - La prima richiesta scarichi i giorni chiusi e la giornata odierna
+     * - La seconda richiesta legga i giorni chiusi dall'archivio
+     * - Il risultato sia ordinato dalla data contabile più recente
+     */
+    @Test
+    void get_shouldServeClosedDaysLocallyAndFetchOnlyOpenTail() {
+        // Given
+        TransactionStore store = store(LocalDate.of(2024, 3, 15));
+        store.get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15), loader);
+        loader.calls.clear();
+
+        // When
+        ApiResponse<TransactionsPayload> result = store.get(accountId, LocalDate.of(2024, 3, 5),
+                LocalDate.of(2024, 3, 15), loader);
+
+        // Then
+        assertEquals(List.of("2024-03-15..2024-03-15"), loader.calls);
+        assertEquals(List.of("T-2024-03-15", "T-2024-03-10", "T-2024-03-05"), ids(result));
+    }
+
+    /**
+     * Test che verifica che l'archivio sopravviva a un riavvio e venga esteso
+     * scaricando solo i giorni precedenti a quelli archiviati.
+     */
+    @Test
+    void get_shouldReopenStoreAndExtendItBackwards() {
+        // Given
+        store(LocalDate.of(2024, 3, 15)).get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 14),
+                loader);
+        loader.calls.clear();
+
+        // When
+        TransactionStore reopened = store(LocalDate.of(2024, 3, 15));
+        ApiResponse<TransactionsPayload> result = reopened.get(accountId, LocalDate.of(2024, 2, 25),
+                LocalDate.of(2024, 3, 5), loader);
+
+        // Then
+        assertEquals(Set.of(accountId), reopened.getAccountIds());
+        assertEquals(List.of("2024-02-25..2024-02-29"), loader.calls);
+        assertEquals(List.of("T-2024-03-05", "T-2024-03-01", "T-2024-02-25"), ids(result));
+    }
+
+    /**
+     * Test che verifica che la sincronizzazione scarichi solo i giorni
+     * successivi all'ultimo sincronizzato e che dopo di essa le richieste
+     * sui giorni chiusi non chiamino l'upstream.
+     */
+    @Test
+    void syncAll_shouldFetchOnlyDaysAfterLastSyncedDate() {
+        // Given
+        store(LocalDate.of(2024, 3, 15)).get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10),
+                loader);
+        loader.calls.clear();
+        TransactionStore later = store(LocalDate.of(2024, 3, 21));
+
+        // When
+        later.syncAll(loader);
+        List<String> syncCalls = List.copyOf(loader.calls);
+        loader.calls.clear();
+        ApiResponse<TransactionsPayload> result = later.get(accountId, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 20), loader);
+
+        // Then
+        assertEquals(List.of("2024-03-11..2024-03-20"), syncCalls);
+        assertEquals(List.of(), loader.calls);
+        assertEquals(List.of("T-2024-03-20", "T-2024-03-15", "T-2024-03-10", "T-2024-03-05", "T-2024-03-01"),
+                ids(result));
+    }
+
+    /**
+     * Test che verifica che una risposta KO dell'upstream venga restituita
+     * senza essere archiviata.
+     */
+    @Test
+    void get_shouldNotStoreFailedResponses() {
+        // Given
+        TransactionStore store = store(LocalDate.of(2024, 3, 15));
+        loader.failing = true;
+
+        // When
+        ApiResponse<TransactionsPayload> failed = store.get(accountId, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 10), loader);
+        loader.failing = false;
+        store.get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), loader);
+
+        // Then
+        assertEquals(ApiConstants.STATUS_KO, failed.getStatus());
+        assertEquals(List.of("2024-03-01..2024-03-10", "2024-03-01..2024-03-10"), loader.calls);
+    }
+
+    /**
+     * Test che verifica che una riga finale troncata da un'aggiunta interrotta
+     * venga scartata all'apertura e non renda illeggibile l'aggiunta successiva.
+     *
+     * Questo test verifica che:
+     * - I giorni della riga troncata vengano scaricati di nuovo
+     * - Dopo una nuova riapertura tutti i giorni chiusi vengano letti dall'archivio
+     */
+    @Test
+    void get_shouldDiscardTruncatedTailBeforeAppending() throws Exception {
+        // Given
+        store(LocalDate.of(2024, 3, 15)).get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10),
+                loader);
+        Files.writeString(file(), "{\"from\":\"2024-03-11\",\"to\":\"2024-03-", StandardOpenOption.APPEND);
+        loader.calls.clear();
+        store(LocalDate.of(2024, 3, 21)).get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 20),
+                loader);
+        List<String> appendCalls = List.copyOf(loader.calls);
+        loader.calls.clear();
+
+        // When
+        ApiResponse<TransactionsPayload> result = store(LocalDate.of(2024, 3, 21)).get(accountId,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 20), loader);
+
+        // Then
+        assertEquals(List.of("2024-03-11..2024-03-20"), appendCalls);
+        assertEquals(List.of(), loader.calls);
+        assertEquals(List.of("T-2024-03-20", "T-2024-03-15", "T-2024-03-10", "T-2024-03-05", "T-2024-03-01"),
+                ids(result));
+    }
+
+    /**
+     * Test che verifica che un segmento illeggibile non venga considerato
+     * coperto dai segmenti che lo circondano: i suoi giorni e quelli dei
+     * segmenti non più adiacenti vengono scaricati di nuovo.
+     */
+    @Test
+    void get_shouldRefetchDaysAfterUnreadableSegment() throws Exception {
+        // Given
+        store(LocalDate.of(2024, 3, 11)).get(accountId, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10),
+                loader);
+        store(LocalDate.of(2024, 3, 16)).syncAll(loader);
+        store(LocalDate.of(2024, 3, 21)).syncAll(loader);
+        List<String> lines = new ArrayList<>(Files.readAllLines(file()));
+        lines.set(1, "{broken");
+        Files.write(file(), lines);
+        loader.calls.clear();
+
+        // When
+        ApiResponse<TransactionsPayload> result = store(LocalDate.of(2024, 3, 21)).get(accountId,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 20), loader);
+
+        // Then
+        assertEquals(List.of("2024-03-11..2024-03-20"), loader.calls);
+        assertEquals(List.of("T-2024-03-20", "T-2024-03-15", "T-2024-03-10", "T-2024-03-05", "T-2024-03-01"),
+                ids(result));
+    }
+
+    private Path file() {
+        return directory.resolve(accountId + ".ndjson");
+    }
+
+    private TransactionStore store(LocalDate today) {
+        Clock clock = Clock.fixed(today.atTime(10, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new TransactionStore(true, directory, clock, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private static List<String> ids(ApiResponse<TransactionsPayload> response) {
+        return response.getPayload().getList().stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Upstream simulato con una transazione nei giorni multipli di 5 e il
+     * primo del mese.
+     */
+    private static final class RecordingLoader implements TransactionRangeLoader {
+
+        private final List<String> calls = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public ApiResponse<TransactionsPayload> load(String accountId, LocalDate from, LocalDate to) {
+            calls.add(from + ".." + to);
+            ApiResponse<TransactionsPayload> response = new ApiResponse<>();
+            if (failing) {
+                response.setStatus(ApiConstants.STATUS_KO);
+                return response;
+            }
+
+            List<Transaction> transactions = new ArrayList<>();
+            for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+                if (day.getDayOfMonth() == 1 || day.getDayOfMonth() % 5 == 0) {
+                    transactions.add(new Transaction("T-" + day, "OP-" + day, day.toString(), day.toString(),
+                            new TransactionType("GBS_TRANSACTION_TYPE", "GBS_TRANSACTION_TYPE_0023"),
+                            new BigDecimal("-10.00"), "EUR", "Transaction of " + day));
+                }
+            }
+            response.setStatus(ApiConstants.STATUS_OK);
+            response.setPayload(new TransactionsPayload(transactions));
+            return response;
+        }
+    }
+}